@@ -0,0 +1,117 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.filter.SlewRateLimiter;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.SensorCache;
+import frc.robot.subsystems.Vision.Vision;
+import frc.robot.subsystems.WCPSwerveModule.WCPSwerveModuleFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the drive train code running every scheduler loop while driving, with the robot
+ * drive train and modules on motorless hardware.
+ */
+@State(Scope.Thread)
+public class DriveKinematicsBenchmark {
+
+  // Benchmark parameters
+  private static final double kDt = 0.02;
+  private static final double kJoystickX = 0.6;
+
+  // Member objects
+  private final SwerveDriveKinematics m_kinematics =
+      new SwerveDriveKinematics(new WCPSwerveModuleFactory().getLocations());
+  private final List<FakeWCPSwerveModuleIO> m_ios = new ArrayList<>();
+  private SwerveModule[] m_modules;
+  private DriveTrain m_driveTrain;
+  private final ChassisSpeeds m_speeds = new ChassisSpeeds(3.0, 1.5, Math.toRadians(180.0));
+  private final Rotation2d m_heading = Rotation2d.fromDegrees(30.0);
+  private final SwerveModuleState m_desiredState =
+      new SwerveModuleState(2.0, Rotation2d.fromDegrees(170.0));
+  private final SlewRateLimiter m_limiter = new SlewRateLimiter(DriveTrain.kMaxAccTrans);
+
+  // Process variables
+  private SwerveModuleState[] m_moduleStates;
+  private int m_moduleIndex = 0;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    m_modules = new WCPSwerveModuleFactory(config -> new FakeWCPSwerveModuleIO()).createModules();
+    // Periodic is not run, it would start the odometry thread next to the benchmark
+    m_driveTrain =
+        new DriveTrain(
+            new Vision(),
+            new WCPSwerveModuleFactory(
+                config -> {
+                  final var io = new FakeWCPSwerveModuleIO();
+                  m_ios.add(io);
+                  return io;
+                }),
+            new FakeGyro());
+    SensorCache.getInstance().refresh();
+    m_moduleStates = m_kinematics.toSwerveModuleStates(m_speeds);
+  }
+
+  @Benchmark
+  public SwerveModuleState[] toSwerveModuleStates() {
+    return m_kinematics.toSwerveModuleStates(m_speeds);
+  }
+
+  @Benchmark
+  public SwerveModuleState[] fieldRelativeToSwerveModuleStates() {
+    return m_kinematics.toSwerveModuleStates(
+        ChassisSpeeds.fromFieldRelativeSpeeds(
+            m_speeds.vxMetersPerSecond,
+            m_speeds.vyMetersPerSecond,
+            m_speeds.omegaRadiansPerSecond,
+            m_heading));
+  }
+
+  @Benchmark
+  public SwerveModuleState[] desaturateWheelSpeeds() {
+    for (final var state : m_moduleStates) {
+      state.speedMetersPerSecond = 2.0 * DriveTrain.kMaxModuleSpeed;
+    }
+    SwerveDriveKinematics.desaturateWheelSpeeds(m_moduleStates, DriveTrain.kMaxModuleSpeed);
+    return m_moduleStates;
+  }
+
+  @Benchmark
+  public SwerveModuleState optimize() {
+    return SwerveModuleState.optimize(m_desiredState, m_heading);
+  }
+
+  @Benchmark
+  public void setDesiredState() {
+    m_moduleIndex = (m_moduleIndex + 1) % m_modules.length;
+    m_modules[m_moduleIndex].setDesiredState(m_desiredState);
+  }
+
+  @Benchmark
+  public void drive() {
+    for (final var io : m_ios) {
+      io.step(kDt);
+    }
+    SensorCache.getInstance().refresh();
+    m_driveTrain.drive(m_speeds);
+  }
+
+  @Benchmark
+  public double scaleJoystickInput() {
+    return DriveTrain.scaleJoystickInput(() -> kJoystickX, DriveTrain.kMaxSpeedX, m_limiter);
+  }
+}
@@ -0,0 +1,54 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+
+/** Gyro without hardware, turning at a constant rate */
+public class FakeGyro implements Gyro {
+
+  // Process variables
+  private double m_angle = 0.0;
+  private double m_rate = 0.0;
+
+  /**
+   * Sets the turning rate
+   *
+   * @param rate turning rate (deg/s, clockwise positive)
+   */
+  public void setRate(double rate) {
+    m_rate = rate;
+  }
+
+  /**
+   * Advances the angle at the current rate
+   *
+   * @param dt elapsed time (s)
+   */
+  public void step(double dt) {
+    m_angle += m_rate * dt;
+  }
+
+  @Override
+  public void calibrate() {}
+
+  @Override
+  public void reset() {
+    m_angle = 0.0;
+  }
+
+  @Override
+  public double getAngle() {
+    return m_angle;
+  }
+
+  @Override
+  public double getRate() {
+    return m_rate;
+  }
+
+  @Override
+  public void close() {}
+}
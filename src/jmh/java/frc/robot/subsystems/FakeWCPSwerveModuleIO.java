@@ -0,0 +1,78 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import frc.robot.subsystems.WCPSwerveModule.WCPSwerveModuleIO;
+
+/**
+ * WCP swerve module hardware without motors, so benchmarks run the module code the robot runs.
+ * The motor controller loops reach their setpoints on each step.
+ */
+public class FakeWCPSwerveModuleIO implements WCPSwerveModuleIO {
+
+  // Process variables
+  private double m_drivePosition = 0.0;
+  private double m_driveVelocity = 0.0;
+  private double m_turnPosition = 0.0;
+  private double m_driveSetpoint = 0.0;
+  private double m_turnSetpoint = 0.0;
+
+  /**
+   * Moves the module as if it had reached its last setpoints
+   *
+   * @param dt elapsed time (s)
+   */
+  public void step(double dt) {
+    m_driveVelocity = m_driveSetpoint;
+    // Velocity is in ticks per 100 ms
+    m_drivePosition += m_driveVelocity * 10.0 * dt;
+    m_turnPosition = m_turnSetpoint;
+  }
+
+  @Override
+  public double getDrivePosition() {
+    return m_drivePosition;
+  }
+
+  @Override
+  public double getDriveVelocity() {
+    return m_driveVelocity;
+  }
+
+  @Override
+  public double getTurnPosition() {
+    return m_turnPosition;
+  }
+
+  @Override
+  public double getTurnVelocity() {
+    return 0.0;
+  }
+
+  @Override
+  public double getAbsolutePosition() {
+    return 0.0;
+  }
+
+  @Override
+  public boolean isAbsoluteConnected() {
+    return true;
+  }
+
+  @Override
+  public void setDriveVelocity(double velocity, double ffPercent) {
+    m_driveSetpoint = velocity;
+  }
+
+  @Override
+  public void setDriveOutput(double percent) {
+    m_driveSetpoint = 0.0;
+  }
+
+  @Override
+  public void setTurnPosition(double position) {
+    m_turnSetpoint = position;
+  }
+}
@@ -0,0 +1,87 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import frc.robot.SensorCache;
+import frc.robot.subsystems.WCPSwerveModule.WCPSwerveModuleFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Benchmarks the odometry thread update and the vision fusion, with the estimator history filled
+ * as on the robot.
+ */
+@State(Scope.Thread)
+public class PoseEstimatorBenchmark {
+
+  // Benchmark parameters
+  private static final double kVisionLatency = 0.1;
+
+  // Member objects
+  private final List<FakeWCPSwerveModuleIO> m_ios = new ArrayList<>();
+  private SwerveModule[] m_modules;
+  private final FakeGyro m_gyro = new FakeGyro();
+  private final SwerveDriveKinematics m_kinematics =
+      new SwerveDriveKinematics(new WCPSwerveModuleFactory().getLocations());
+  private final Pose2d m_visionPose = new Pose2d(1.0, 2.0, new Rotation2d());
+  private OdometryThread m_odometry;
+
+  // Process variables
+  private double m_timestamp = 0.0;
+
+  @Setup
+  public void setup() {
+    HAL.initialize(500, 0);
+    m_modules =
+        new WCPSwerveModuleFactory(
+                config -> {
+                  final var io = new FakeWCPSwerveModuleIO();
+                  m_ios.add(io);
+                  return io;
+                })
+            .createModules();
+    SensorCache.getInstance().refresh();
+    final var moduleStates = m_kinematics.toSwerveModuleStates(new ChassisSpeeds(2.0, 1.0, 1.0));
+    for (int i = 0; i < m_modules.length; ++i) {
+      m_modules[i].setDesiredState(moduleStates[i]);
+    }
+    m_gyro.setRate(-Math.toDegrees(1.0));
+    m_odometry = new OdometryThread(m_modules, m_gyro, m_kinematics);
+
+    // Fill the estimator pose buffer as a running robot would
+    for (int i = 0; i < 1.5 / OdometryThread.kPeriod; ++i) {
+      this.update();
+    }
+  }
+
+  @Benchmark
+  public void update() {
+    for (final var io : m_ios) {
+      io.step(OdometryThread.kPeriod);
+    }
+    m_gyro.step(OdometryThread.kPeriod);
+    m_timestamp += OdometryThread.kPeriod;
+    m_odometry.update(m_timestamp);
+  }
+
+  @Benchmark
+  public void addVisionMeasurement() {
+    m_odometry.addVisionMeasurement(
+        m_visionPose,
+        m_timestamp - kVisionLatency,
+        VecBuilder.fill(
+            PoseFusion.kVisionXYStdDev, PoseFusion.kVisionXYStdDev, PoseFusion.kVisionThetaStdDev));
+  }
+}
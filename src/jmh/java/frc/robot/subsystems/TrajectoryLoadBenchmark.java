@@ -0,0 +1,67 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.pathplanner.lib.PathPlanner;
+import edu.wpi.first.wpilibj.Filesystem;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks loading every deployed path, generated from the .path files or mapped from their
+ * packed files.
+ */
+@State(Scope.Benchmark)
+public class TrajectoryLoadBenchmark {
+
+  // Member objects
+  private final List<String> m_names = new ArrayList<>();
+  private final List<File> m_files = new ArrayList<>();
+
+  @Setup
+  public void setup() throws IOException {
+    final var directory = Files.createTempDirectory("packed").toFile();
+    directory.deleteOnExit();
+
+    final var files = new File(Filesystem.getDeployDirectory(), "pathplanner").listFiles();
+    for (final var file : files) {
+      final var fileName = file.getName();
+      if (fileName.endsWith(AutonomousAssets.kPathExtension)) {
+        final var name =
+            fileName.substring(0, fileName.length() - AutonomousAssets.kPathExtension.length());
+        final var packed = new File(directory, name + PackedTrajectory.kExtension);
+        packed.deleteOnExit();
+        PackedTrajectory.write(
+            PathPlanner.loadPath(name, AutonomousAssets.kDeployedConstraints),
+            AutonomousAssets.kDeployedConstraints,
+            packed);
+        m_names.add(name);
+        m_files.add(packed);
+      }
+    }
+  }
+
+  @Benchmark
+  public void generate(Blackhole blackhole) {
+    for (final var name : m_names) {
+      blackhole.consume(PathPlanner.loadPath(name, AutonomousAssets.kDeployedConstraints));
+    }
+  }
+
+  @Benchmark
+  public void map(Blackhole blackhole) throws IOException {
+    for (final var file : m_files) {
+      blackhole.consume(PackedTrajectory.load(file).asTrajectory(false));
+    }
+  }
+}
@@ -0,0 +1,230 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import com.ctre.phoenix.motorcontrol.StatusFrameEnhanced;
+import com.ctre.phoenix.motorcontrol.can.TalonFX;
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel.PeriodicFrame;
+import edu.wpi.first.wpilibj.RobotController;
+import frc.robot.Telemetry.Rate;
+
+/**
+ * CAN status frame budget of the motor controllers, with a bus load estimator.
+ *
+ * <p>Motor controllers stream every status frame at its default period, whether its signals are
+ * read or not. Each controller is configured at construction with the periods its hot path needs:
+ * frames carrying the signals read every loop are kept fast or sped up, the others are slowed
+ * down. Periods are not saved to flash, so they are applied after the factory defaults are
+ * restored, on every boot.
+ *
+ * <p>Configured controllers are registered to estimate the bus load from their frame rates. The
+ * estimate, the estimate at default periods and the bus utilization measured by the roboRIO are
+ * published under the {@code CAN} table.
+ */
+public final class CanBudget {
+
+  /** Status frame periods of a Spark Max (ms) */
+  public static final class SparkMaxFrames {
+    // Applied output and faults, read by the followers of this controller
+    private final int m_status0;
+    // Velocity, temperature, voltage and current
+    private final int m_status1;
+    // Position
+    private final int m_status2;
+    // Analog, alternate and absolute encoders (status 3 to 6)
+    private final int m_sensors;
+
+    private SparkMaxFrames(int status0, int status1, int status2, int sensors) {
+      m_status0 = status0;
+      m_status1 = status1;
+      m_status2 = status2;
+      m_sensors = sensors;
+    }
+
+    /**
+     * Sets the applied output period, keep it fast on a controller with followers
+     *
+     * @param period frame period (ms)
+     * @return frame periods
+     */
+    public SparkMaxFrames withStatus0(int period) {
+      return new SparkMaxFrames(period, m_status1, m_status2, m_sensors);
+    }
+
+    /**
+     * Sets the velocity and current period
+     *
+     * @param period frame period (ms)
+     * @return frame periods
+     */
+    public SparkMaxFrames withStatus1(int period) {
+      return new SparkMaxFrames(m_status0, period, m_status2, m_sensors);
+    }
+
+    /**
+     * Sets the position period
+     *
+     * @param period frame period (ms)
+     * @return frame periods
+     */
+    public SparkMaxFrames withStatus2(int period) {
+      return new SparkMaxFrames(m_status0, m_status1, period, m_sensors);
+    }
+
+    private double getFrameRate() {
+      return 1000.0 / m_status0 + 1000.0 / m_status1 + 1000.0 / m_status2 + 4000.0 / m_sensors;
+    }
+  }
+
+  /** Status frame periods of a Talon FX (ms) */
+  public static final class TalonFXFrames {
+    // Applied output, faults and limit switches
+    private final int m_general;
+    // Selected sensor position and velocity
+    private final int m_feedback;
+    // Supply and stator current
+    private final int m_current;
+    // Temperature and battery, targets, closed loop and integrated sensor frames
+    private final int m_others;
+
+    private TalonFXFrames(int general, int feedback, int current, int others) {
+      m_general = general;
+      m_feedback = feedback;
+      m_current = current;
+      m_others = others;
+    }
+
+    /**
+     * Sets the selected sensor position and velocity period
+     *
+     * @param period frame period (ms)
+     * @return frame periods
+     */
+    public TalonFXFrames withFeedback(int period) {
+      return new TalonFXFrames(m_general, period, m_current, m_others);
+    }
+
+    private double getFrameRate() {
+      return 1000.0 / m_general + 1000.0 / m_feedback + 1000.0 / m_current + 4000.0 / m_others;
+    }
+  }
+
+  // Periods with no signal read, 255 ms is the longest Talon FX period
+  public static final SparkMaxFrames kSparkMaxUnused = new SparkMaxFrames(100, 500, 500, 500);
+  public static final TalonFXFrames kTalonFXUnused = new TalonFXFrames(100, 255, 255, 255);
+
+  // Default frame rates, Spark Max status 0 to 6 at 10, 20, 20, 50, 20, 200 and 200 ms, Talon FX
+  // general at 10 ms, feedback at 20 ms, current at 50 ms and the others at 160 ms
+  private static final double kSparkMaxDefaultRate = 280.0;
+  private static final double kTalonFXDefaultRate = 195.0;
+
+  // Bus parameters, 8 data bytes extended frames are 131 bits plus stuffing
+  private static final double kBitRate = 1.0e6;
+  private static final double kBitsPerFrame = 150.0;
+
+  // Control frames, Phoenix sends them every 10 ms, setpoints are sent once per robot loop
+  private static final double kTalonFXControlRate = 100.0;
+  private static final double kSparkMaxControlRate = 50.0;
+
+  private static final int kConfigTimeoutMs = 100;
+
+  private static CanBudget s_instance;
+
+  // Process variables
+  private double m_frameRate = 0.0;
+  private double m_defaultFrameRate = 0.0;
+
+  private CanBudget() {
+    final var estimatedSignal = Telemetry.getInstance().addDouble("CAN/Estimated load", Rate.Low);
+    final var defaultSignal = Telemetry.getInstance().addDouble("CAN/Default load", Rate.Low);
+    final var measuredSignal = Telemetry.getInstance().addDouble("CAN/Measured load", Rate.Low);
+    Telemetry.getInstance()
+        .addPeriodic(
+            () -> {
+              estimatedSignal.set(this.getEstimatedLoad());
+              defaultSignal.set(this.getDefaultLoad());
+              measuredSignal.set(RobotController.getCANStatus().percentBusUtilization);
+            },
+            Rate.Low);
+  }
+
+  /**
+   * Gets the CAN frame budget
+   *
+   * @return budget instance
+   */
+  public static CanBudget getInstance() {
+    if (s_instance == null) {
+      s_instance = new CanBudget();
+    }
+    return s_instance;
+  }
+
+  /**
+   * Applies status frame periods to a Spark Max and registers its frames
+   *
+   * @param spark controller, with its factory defaults restored
+   * @param frames frame periods
+   * @param sendsSetpoints the robot code sets the controller output, false for followers
+   */
+  public void configure(CANSparkMax spark, SparkMaxFrames frames, boolean sendsSetpoints) {
+    spark.setPeriodicFramePeriod(PeriodicFrame.kStatus0, frames.m_status0);
+    spark.setPeriodicFramePeriod(PeriodicFrame.kStatus1, frames.m_status1);
+    spark.setPeriodicFramePeriod(PeriodicFrame.kStatus2, frames.m_status2);
+    spark.setPeriodicFramePeriod(PeriodicFrame.kStatus3, frames.m_sensors);
+    spark.setPeriodicFramePeriod(PeriodicFrame.kStatus4, frames.m_sensors);
+    spark.setPeriodicFramePeriod(PeriodicFrame.kStatus5, frames.m_sensors);
+    spark.setPeriodicFramePeriod(PeriodicFrame.kStatus6, frames.m_sensors);
+
+    final double controlRate = sendsSetpoints ? kSparkMaxControlRate : 0.0;
+    m_frameRate += frames.getFrameRate() + controlRate;
+    m_defaultFrameRate += kSparkMaxDefaultRate + controlRate;
+  }
+
+  /**
+   * Applies status frame periods to a Talon FX and registers its frames
+   *
+   * @param talon controller, with its factory defaults restored
+   * @param frames frame periods
+   */
+  public void configure(TalonFX talon, TalonFXFrames frames) {
+    talon.setStatusFramePeriod(
+        StatusFrameEnhanced.Status_1_General, frames.m_general, kConfigTimeoutMs);
+    talon.setStatusFramePeriod(
+        StatusFrameEnhanced.Status_2_Feedback0, frames.m_feedback, kConfigTimeoutMs);
+    talon.setStatusFramePeriod(
+        StatusFrameEnhanced.Status_Brushless_Current, frames.m_current, kConfigTimeoutMs);
+    talon.setStatusFramePeriod(
+        StatusFrameEnhanced.Status_4_AinTempVbat, frames.m_others, kConfigTimeoutMs);
+    talon.setStatusFramePeriod(
+        StatusFrameEnhanced.Status_10_Targets, frames.m_others, kConfigTimeoutMs);
+    talon.setStatusFramePeriod(
+        StatusFrameEnhanced.Status_13_Base_PIDF0, frames.m_others, kConfigTimeoutMs);
+    talon.setStatusFramePeriod(
+        StatusFrameEnhanced.Status_21_FeedbackIntegrated, frames.m_others, kConfigTimeoutMs);
+
+    m_frameRate += frames.getFrameRate() + kTalonFXControlRate;
+    m_defaultFrameRate += kTalonFXDefaultRate + kTalonFXControlRate;
+  }
+
+  /**
+   * Gets the bus load estimated from the configured frame periods
+   *
+   * @return bus load (0 to 1)
+   */
+  public double getEstimatedLoad() {
+    return m_frameRate * kBitsPerFrame / kBitRate;
+  }
+
+  /**
+   * Gets the bus load the configured controllers would cause at their default periods
+   *
+   * @return bus load (0 to 1)
+   */
+  public double getDefaultLoad() {
+    return m_defaultFrameRate * kBitsPerFrame / kBitRate;
+  }
+}
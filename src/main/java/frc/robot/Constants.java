@@ -54,7 +54,11 @@ public final class Constants {
     public static final double kDriveKp = 0.02;
     public static final double kDriveKi = 0.0;
     public static final double kDriveKd = 0.08;
-    public static final double kDriveKf = 0.04625;
+    // Drive feedforward (V, V per m/s, V per m/s^2) for modules without characterized gains. kV is
+    // the former Talon kF of 0.04625 at 10 V compensation, update with DriveTrain characterization.
+    public static final double kDriveKs = 0.0;
+    public static final double kDriveKv = 0.04625 / 1023.0 * kMeterPerSToTick * 10.0;
+    public static final double kDriveKa = 0.0;
     public static final double kDriveIZone = 0.0;
   }
 
@@ -0,0 +1,229 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free single producer, single consumer ring buffer of log records.
+ *
+ * <p>Records are stored in preallocated primitive slots, a record holds a log entry id, a
+ * timestamp and either up to {@link #kMaxValues} doubles or a string reference. The producer never
+ * blocks, records offered while the buffer is full are dropped and counted.
+ *
+ * <p>The producer fills a slot then publishes it by advancing the tail with release semantics, the
+ * consumer frees it the same way by advancing the head.
+ */
+public class LogRingBuffer {
+
+  /** Kind of value held by a record */
+  public enum Kind {
+    Double,
+    DoubleArray,
+    Boolean,
+    String
+  }
+
+  // Buffer parameters
+  public static final int kMaxValues = 16;
+
+  private static final Kind[] kKinds = Kind.values();
+
+  // Member objects
+  private final int m_capacity;
+  private final int m_mask;
+  private final int[] m_entries;
+  private final byte[] m_kinds;
+  private final long[] m_timestamps;
+  private final int[] m_lengths;
+  private final double[] m_values;
+  private final String[] m_strings;
+  private final AtomicLong m_head = new AtomicLong();
+  private final AtomicLong m_tail = new AtomicLong();
+  private final AtomicLong m_dropped = new AtomicLong();
+
+  // Producer variables
+  private long m_cachedHead = 0;
+
+  /**
+   * Creates a new LogRingBuffer
+   *
+   * @param capacity number of records, rounded up to a power of two
+   */
+  public LogRingBuffer(int capacity) {
+    m_capacity = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+    m_mask = m_capacity - 1;
+    m_entries = new int[m_capacity];
+    m_kinds = new byte[m_capacity];
+    m_timestamps = new long[m_capacity];
+    m_lengths = new int[m_capacity];
+    m_values = new double[m_capacity * kMaxValues];
+    m_strings = new String[m_capacity];
+  }
+
+  /**
+   * Adds a double record, producer thread only
+   *
+   * @param entry log entry id
+   * @param timestamp record timestamp (us)
+   * @param value record value
+   * @return false if the buffer was full and the record dropped
+   */
+  public boolean offer(int entry, long timestamp, double value) {
+    final int slot = this.claim();
+    if (slot < 0) {
+      return false;
+    }
+
+    m_values[slot * kMaxValues] = value;
+    this.publish(slot, entry, Kind.Double, timestamp, 1);
+    return true;
+  }
+
+  /**
+   * Adds a boolean record, producer thread only
+   *
+   * @param entry log entry id
+   * @param timestamp record timestamp (us)
+   * @param value record value
+   * @return false if the buffer was full and the record dropped
+   */
+  public boolean offer(int entry, long timestamp, boolean value) {
+    final int slot = this.claim();
+    if (slot < 0) {
+      return false;
+    }
+
+    m_values[slot * kMaxValues] = value ? 1.0 : 0.0;
+    this.publish(slot, entry, Kind.Boolean, timestamp, 1);
+    return true;
+  }
+
+  /**
+   * Adds a double array record, producer thread only
+   *
+   * @param entry log entry id
+   * @param timestamp record timestamp (us)
+   * @param values record values, copied
+   * @param length number of values to copy, at most {@link #kMaxValues}
+   * @return false if the buffer was full and the record dropped
+   */
+  public boolean offer(int entry, long timestamp, double[] values, int length) {
+    final int slot = this.claim();
+    if (slot < 0) {
+      return false;
+    }
+
+    final int copied = Math.min(length, kMaxValues);
+    System.arraycopy(values, 0, m_values, slot * kMaxValues, copied);
+    this.publish(slot, entry, Kind.DoubleArray, timestamp, copied);
+    return true;
+  }
+
+  /**
+   * Adds a string record, producer thread only
+   *
+   * @param entry log entry id
+   * @param timestamp record timestamp (us)
+   * @param value record value, kept by reference
+   * @return false if the buffer was full and the record dropped
+   */
+  public boolean offer(int entry, long timestamp, String value) {
+    final int slot = this.claim();
+    if (slot < 0) {
+      return false;
+    }
+
+    m_strings[slot] = value;
+    this.publish(slot, entry, Kind.String, timestamp, 0);
+    return true;
+  }
+
+  /**
+   * Gets the number of records dropped because the buffer was full
+   *
+   * @return dropped records count
+   */
+  public long getDroppedCount() {
+    return m_dropped.get();
+  }
+
+  /**
+   * Gets the slot of the oldest record, consumer thread only
+   *
+   * @return slot index, or -1 if the buffer is empty
+   */
+  public int peek() {
+    final long head = m_head.get();
+    return head < m_tail.get() ? (int) (head & m_mask) : -1;
+  }
+
+  /** Frees the oldest record once read, consumer thread only */
+  public void release() {
+    final long head = m_head.get();
+    m_strings[(int) (head & m_mask)] = null;
+    m_head.lazySet(head + 1);
+  }
+
+  public int getEntry(int slot) {
+    return m_entries[slot];
+  }
+
+  public Kind getKind(int slot) {
+    return kKinds[m_kinds[slot]];
+  }
+
+  public long getTimestamp(int slot) {
+    return m_timestamps[slot];
+  }
+
+  public int getLength(int slot) {
+    return m_lengths[slot];
+  }
+
+  /**
+   * Copies the values of a record
+   *
+   * @param slot slot index
+   * @param values destination, at least as long as the record
+   */
+  public void getValues(int slot, double[] values) {
+    System.arraycopy(m_values, slot * kMaxValues, values, 0, m_lengths[slot]);
+  }
+
+  public double getValue(int slot) {
+    return m_values[slot * kMaxValues];
+  }
+
+  public String getString(int slot) {
+    return m_strings[slot];
+  }
+
+  /**
+   * Finds a free slot for the producer
+   *
+   * @return slot index, or -1 if the buffer is full
+   */
+  private int claim() {
+    final long tail = m_tail.get();
+    if (tail - m_cachedHead >= m_capacity) {
+      m_cachedHead = m_head.get();
+      if (tail - m_cachedHead >= m_capacity) {
+        m_dropped.incrementAndGet();
+        return -1;
+      }
+    }
+    return (int) (tail & m_mask);
+  }
+
+  /** Fills the record header and makes the record visible to the consumer */
+  private void publish(int slot, int entry, Kind kind, long timestamp, int length) {
+    m_entries[slot] = entry;
+    m_kinds[slot] = (byte) kind.ordinal();
+    m_timestamps[slot] = timestamp;
+    m_lengths[slot] = length;
+    m_tail.lazySet(m_tail.get() + 1);
+  }
+}
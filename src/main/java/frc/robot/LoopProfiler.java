@@ -0,0 +1,257 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Times the robot loop, every subsystem periodic and every running command execute.
+ *
+ * <p>Durations are accumulated in preallocated histograms. Every window, p50, p99 and max of each
+ * section are published to NetworkTables as a {@code [p50 (ms), p99 (ms), max (ms), count]} array
+ * under the {@code Profiler} table, then the histograms are cleared. Loops longer than the robot
+ * period are reported with the sections that took the most time.
+ *
+ * <p>Commands are timed from the scheduler execute callback, so a command duration also includes
+ * the previous command end condition check, and the first command includes the button polling.
+ *
+ * <p>Only meant to be used from the main robot thread.
+ */
+public final class LoopProfiler {
+
+  /** Timed code section, begin and end must be called in pairs around the timed code */
+  public static final class Section {
+    private final LoopProfiler m_profiler;
+    private final int m_index;
+
+    private Section(LoopProfiler profiler, int index) {
+      m_profiler = profiler;
+      m_index = index;
+    }
+
+    /** Starts timing the section */
+    public void begin() {
+      m_profiler.begin(m_index);
+    }
+
+    /** Stops timing the section and records its duration */
+    public void end() {
+      m_profiler.end(m_index);
+    }
+  }
+
+  // Profiler parameters
+  public static final double kWindow = 1.0;
+  public static final int kMaxSections = 64;
+  public static final int kOverrunReportSections = 3;
+  private static final long kBucketWidthNanos = 20_000;
+  private static final int kBucketCount = 1000;
+  private static final long kLoopPeriodNanos = (long) (TimedRobot.kDefaultPeriod * 1e9);
+  private static final long kWindowNanos = (long) (kWindow * 1e9);
+  private static final String kTableName = "Profiler";
+
+  private static LoopProfiler s_instance;
+
+  // Member objects
+  private final String[] m_names = new String[kMaxSections];
+  private final DoubleArrayPublisher[] m_publishers = new DoubleArrayPublisher[kMaxSections];
+  private final int[][] m_histograms = new int[kMaxSections][kBucketCount];
+  private final int[] m_counts = new int[kMaxSections];
+  private final long[] m_maxNanos = new long[kMaxSections];
+  private final long[] m_beginNanos = new long[kMaxSections];
+  private final long[] m_loopNanos = new long[kMaxSections];
+  private final double[] m_stats = new double[4];
+  private final Map<String, Integer> m_commandSections = new HashMap<>();
+  private final int m_loopSection;
+  private final int m_otherCommandsSection;
+
+  // Process variables
+  private int m_sectionCount = 0;
+  private long m_loopStartNanos = 0;
+  private long m_markNanos = 0;
+  private long m_windowStartNanos = System.nanoTime();
+
+  private LoopProfiler() {
+    m_loopSection = this.addSection("Robot loop");
+    m_otherCommandsSection = this.addSection("Other commands");
+
+    CommandScheduler.getInstance().onCommandExecute(this::onCommandExecute);
+  }
+
+  /**
+   * Gets the robot loop profiler
+   *
+   * @return profiler instance
+   */
+  public static LoopProfiler getInstance() {
+    if (s_instance == null) {
+      s_instance = new LoopProfiler();
+    }
+    return s_instance;
+  }
+
+  /**
+   * Registers a new timed section
+   *
+   * @param name section name, used as NetworkTables topic and in overrun reports
+   * @return section to time
+   */
+  public Section register(String name) {
+    return new Section(this, this.addSection(name));
+  }
+
+  /** Marks the start of a robot loop, call before running the scheduler */
+  public void beginLoop() {
+    m_loopStartNanos = System.nanoTime();
+    m_markNanos = m_loopStartNanos;
+    Arrays.fill(m_loopNanos, 0, m_sectionCount, 0);
+  }
+
+  /** Marks the end of a robot loop, reports overruns and publishes completed windows */
+  public void endLoop() {
+    final long now = System.nanoTime();
+    final long loopNanos = now - m_loopStartNanos;
+    this.record(m_loopSection, loopNanos);
+
+    if (loopNanos > kLoopPeriodNanos) {
+      this.reportOverrun(loopNanos);
+    }
+
+    if (now - m_windowStartNanos >= kWindowNanos) {
+      this.publish();
+      m_windowStartNanos = now;
+    }
+  }
+
+  private void begin(int section) {
+    m_beginNanos[section] = System.nanoTime();
+  }
+
+  private void end(int section) {
+    m_markNanos = System.nanoTime();
+    this.record(section, m_markNanos - m_beginNanos[section]);
+  }
+
+  /**
+   * Records the time since the previous mark as the command execute duration
+   *
+   * @param command executed command
+   */
+  private void onCommandExecute(Command command) {
+    final long now = System.nanoTime();
+
+    var section = m_commandSections.get(command.getName());
+    if (section == null) {
+      section = m_sectionCount < kMaxSections ? this.addSection(command.getName()) : -1;
+      m_commandSections.put(command.getName(), section);
+    }
+
+    this.record(section >= 0 ? section : m_otherCommandsSection, now - m_markNanos);
+    m_markNanos = now;
+  }
+
+  /**
+   * Adds a section and its publisher
+   *
+   * @param name section name
+   * @return section index
+   */
+  private int addSection(String name) {
+    if (m_sectionCount >= kMaxSections) {
+      throw new IllegalStateException("Too many profiler sections, can't add " + name);
+    }
+
+    m_names[m_sectionCount] = name;
+    m_publishers[m_sectionCount] =
+        NetworkTableInstance.getDefault().getTable(kTableName).getDoubleArrayTopic(name).publish();
+    return m_sectionCount++;
+  }
+
+  /**
+   * Adds a duration to a section histogram
+   *
+   * @param section section index
+   * @param nanos duration (ns)
+   */
+  private void record(int section, long nanos) {
+    final int bucket = (int) Math.min(nanos / kBucketWidthNanos, kBucketCount - 1);
+    ++m_histograms[section][bucket];
+    ++m_counts[section];
+    m_maxNanos[section] = Math.max(m_maxNanos[section], nanos);
+    m_loopNanos[section] += nanos;
+  }
+
+  /** Publishes the statistics of every section for the window and clears the histograms */
+  private void publish() {
+    for (int section = 0; section < m_sectionCount; ++section) {
+      m_stats[0] = this.percentile(section, 0.5) * 1e-6;
+      m_stats[1] = this.percentile(section, 0.99) * 1e-6;
+      m_stats[2] = m_maxNanos[section] * 1e-6;
+      m_stats[3] = m_counts[section];
+      m_publishers[section].set(m_stats);
+
+      Arrays.fill(m_histograms[section], 0);
+      m_counts[section] = 0;
+      m_maxNanos[section] = 0;
+    }
+  }
+
+  /**
+   * Estimates a duration percentile from a section histogram
+   *
+   * @param section section index
+   * @param quantile percentile to compute (0, 1)
+   * @return upper bound of the histogram bucket holding the percentile, capped to the max (ns)
+   */
+  private long percentile(int section, double quantile) {
+    final var histogram = m_histograms[section];
+    final long target = (long) Math.ceil(quantile * m_counts[section]);
+
+    long count = 0;
+    for (int bucket = 0; bucket < kBucketCount; ++bucket) {
+      count += histogram[bucket];
+      if (count >= target && count > 0) {
+        return Math.min((bucket + 1) * kBucketWidthNanos, m_maxNanos[section]);
+      }
+    }
+    return m_maxNanos[section];
+  }
+
+  /**
+   * Reports a loop overrun with the sections that took the most time during the loop
+   *
+   * @param loopNanos loop duration (ns)
+   */
+  private void reportOverrun(long loopNanos) {
+    final var report = new StringBuilder();
+    report.append(String.format("Loop overrun %.1f ms:", loopNanos * 1e-6));
+
+    final var reported = new boolean[m_sectionCount];
+    reported[m_loopSection] = true;
+    for (int i = 0; i < kOverrunReportSections; ++i) {
+      int longest = -1;
+      for (int section = 0; section < m_sectionCount; ++section) {
+        if (!reported[section] && (longest < 0 || m_loopNanos[section] > m_loopNanos[longest])) {
+          longest = section;
+        }
+      }
+      if (longest < 0 || m_loopNanos[longest] == 0) {
+        break;
+      }
+
+      reported[longest] = true;
+      report.append(String.format(" %s %.1f ms", m_names[longest], m_loopNanos[longest] * 1e-6));
+    }
+    DriverStation.reportWarning(report.toString(), false);
+  }
+}
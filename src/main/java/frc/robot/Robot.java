@@ -21,6 +21,10 @@ public class Robot extends TimedRobot {
   private Command m_autonomousCommand;
   private RobotContainer m_robotContainer;
   Thread m_visionThread;
+  private final LoopProfiler.Section m_telemetryProfilerSection =
+      LoopProfiler.getInstance().register("Telemetry");
+  private final LoopProfiler.Section m_sensorsProfilerSection =
+      LoopProfiler.getInstance().register("Sensors");
 
   /**
    * This function is run when the robot is first started up and should be used for any
@@ -45,19 +49,36 @@ public class Robot extends TimedRobot {
    */
   @Override
   public void robotPeriodic() {
+    LoopProfiler.getInstance().beginLoop();
+
+    // Read every sensor once, subsystems and commands use the snapshot
+    m_sensorsProfilerSection.begin();
+    SensorCache.getInstance().refresh();
+    m_sensorsProfilerSection.end();
+
     // Runs the Scheduler.  This is responsible for polling buttons, adding newly-scheduled
     // commands, running already-scheduled commands, removing finished or interrupted commands,
     // and running subsystem periodic() methods.  This must be called from the robot's periodic
     // block in order for anything in the Command-based framework to work.
     CommandScheduler.getInstance().run();
+
+    // Publish telemetry batched once all subsystems have set their signals
+    m_telemetryProfilerSection.begin();
+    Telemetry.getInstance().periodic();
+    m_telemetryProfilerSection.end();
+    LoopProfiler.getInstance().endLoop();
   }
 
   /** This function is called once each time the robot enters Disabled mode. */
   @Override
   public void disabledInit() {}
 
+  /** This function is called periodically while disabled. */
   @Override
-  public void disabledPeriodic() {}
+  public void disabledPeriodic() {
+    // Load autonomous trajectories ahead of time, autonomousInit must not parse or generate paths
+    m_robotContainer.loadAutonomousAssets();
+  }
 
   /** This autonomous runs the autonomous command selected by your {@link RobotContainer} class. */
   @Override
@@ -66,6 +87,7 @@ public class Robot extends TimedRobot {
     // m_autonomousCommand = m_robotContainer.placeConeBalance();
     // m_autonomousCommand = m_robotContainer.placeConeMove();
     m_autonomousCommand = m_robotContainer.getAutonomousCommand();
+    m_robotContainer.applyMechanismControls();
 
     // schedule the autonomous command (example)
     if (m_autonomousCommand != null) {
@@ -86,6 +108,7 @@ public class Robot extends TimedRobot {
     if (m_autonomousCommand != null) {
       m_autonomousCommand.cancel();
     }
+    m_robotContainer.applyMechanismControls();
   }
 
   /** This function is called periodically during operator control. */
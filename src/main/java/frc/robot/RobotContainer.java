@@ -7,6 +7,7 @@ package frc.robot;
 import edu.wpi.first.cameraserver.CameraServer;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.shuffleboard.BuiltInWidgets;
 import edu.wpi.first.wpilibj.shuffleboard.ComplexWidget;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
@@ -14,11 +15,14 @@ import edu.wpi.first.wpilibj.smartdashboard.SendableChooser;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.InstantCommand;
+import edu.wpi.first.wpilibj2.command.ProxyCommand;
+import edu.wpi.first.wpilibj2.command.Subsystem;
 // import edu.wpi.first.wpilibj2.command.PrintCommand;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
 import edu.wpi.first.wpilibj2.command.button.CommandXboxController;
 import edu.wpi.first.wpilibj2.command.button.Trigger;
 import frc.robot.Constants.OperatorConstants;
+import frc.robot.commands.MotionPlan;
 import frc.robot.commands.Sequences;
 import frc.robot.subsystems.BuddyClimb;
 import frc.robot.subsystems.DriveTrain;
@@ -33,6 +37,10 @@ import frc.robot.subsystems.Vision.Vision;
 import frc.robot.subsystems.Wheels;
 import frc.robot.subsystems.Wheels.WheelLevel;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
 
 /**
  * This class is where the bulk of the robot should be declared. Since Command-based is a
@@ -66,6 +74,18 @@ public class RobotContainer {
   // private static final PathConstraints constraints = new PathConstraints(4.0, 8.0);
   // PathPlannerTrajectory line = PathPlanner.loadPath("line", constraints);
 
+  // Chooser name suffix of the sequential autonomous baselines, only offered in simulation
+  public static final String kSequentialSuffix = " (sequential)";
+
+  // Longest wait for the gripper to release the cone (s)
+  private static final double kReleaseTime = 0.25;
+
+  // Elevator third level test, hold time after reaching the level to catch any overshoot (s)
+  private static final double kElevatorHoldTime = 1.0;
+
+  // Intake launch test, longest wait for the intake to settle at the launch angle (s)
+  private static final double kIntakeSettleTime = 1.0;
+
   public static HashMap<String, Command> eventMap = new HashMap<>();
 
   // Replace with CommandPS4Controller or CommandJoystick if needed
@@ -76,8 +96,16 @@ public class RobotContainer {
   // Process variables
   private RobotMode m_currentMode = RobotMode.Cube;
 
+  // Autonomous routines by chooser name, the first one is the default
+  private final Map<String, Supplier<Command>> m_autos = new LinkedHashMap<>();
+
   SendableChooser<Command> m_chooser;
   ComplexWidget chooserList;
+  private final SendableChooser<Elevator.Control> m_elevatorControlChooser =
+      new SendableChooser<>();
+  private final SendableChooser<Intake.Control> m_intakeControlChooser = new SendableChooser<>();
+  private final SendableChooser<Supplier<Command>> m_characterizationChooser =
+      new SendableChooser<>();
 
   /** The container for the robot. Contains subsystems, OI devices, and commands. */
   public RobotContainer() {
@@ -86,15 +114,58 @@ public class RobotContainer {
     m_chooser = new SendableChooser<>();
 
     // create options for auto mode
-    m_chooser.setDefaultOption("place cone move back", this.placeConeMoveBack());
-    m_chooser.addOption("place cone balance", placeConeBalance());
-    m_chooser.addOption("shoot cube dont move", this.shootCube());
-    m_chooser.addOption("stop", this.stop());
-    m_chooser.addOption("do nothing", autoReset());
+    m_autos.put("place cone move back", this::placeConeMoveBack);
+    m_autos.put("place cone balance", this::placeConeBalance);
+    m_autos.put("shoot cube dont move", this::shootCube);
+    m_autos.put("stop", this::stop);
+    m_autos.put("do nothing", this::autoReset);
+    // Sequential baselines, simulated to measure the motion plan savings
+    if (RobotBase.isSimulation()) {
+      m_autos.put("place cone move back" + kSequentialSuffix, () -> this.placeConeMoveBack(true));
+      m_autos.put("place cone balance" + kSequentialSuffix, () -> this.placeConeBalance(true));
+      m_autos.put("elevator third test", this::elevatorThirdTest);
+      m_autos.put("intake launch test", this::intakeLaunchTest);
+    }
+    for (final var auto : m_autos.entrySet()) {
+      if (m_chooser.getSelected() == null) {
+        m_chooser.setDefaultOption(auto.getKey(), auto.getValue().get());
+      } else {
+        m_chooser.addOption(auto.getKey(), auto.getValue().get());
+      }
+    }
     chooserList =
         Shuffleboard.getTab("auto").add(m_chooser).withWidget(BuiltInWidgets.kComboBoxChooser);
     Shuffleboard.getTab("vision").add(CameraServer.startAutomaticCapture());
 
+    // Elevator height control, applied when enabled
+    for (final var control : Elevator.Control.values()) {
+      if (control == Elevator.kDefaultControl) {
+        m_elevatorControlChooser.setDefaultOption(control.name(), control);
+      } else {
+        m_elevatorControlChooser.addOption(control.name(), control);
+      }
+    }
+    Shuffleboard.getTab("Elevator").add("Control", m_elevatorControlChooser);
+
+    // Intake pivot control, applied when enabled
+    for (final var control : Intake.Control.values()) {
+      if (control == Intake.kDefaultControl) {
+        m_intakeControlChooser.setDefaultOption(control.name(), control);
+      } else {
+        m_intakeControlChooser.addOption(control.name(), control);
+      }
+    }
+    Shuffleboard.getTab("Intake").add("Control", m_intakeControlChooser);
+
+    // Feedforward characterizations, only started from the dashboard. The drive needs about 5 m
+    // of clear straight line both ways, the elevator its full travel
+    m_characterizationChooser.setDefaultOption("drive", m_drive::characterizeCommand);
+    m_characterizationChooser.addOption("elevator", m_elevator::characterizeCommand);
+    final var characterizationTab = Shuffleboard.getTab("Characterization");
+    characterizationTab.add("Mechanism", m_characterizationChooser);
+    characterizationTab.add(
+        "Run", new ProxyCommand(this::getCharacterizationCommand).withName("Characterize"));
+
     // Drive in robot relative velocities
     m_drive.setDefaultCommand(
         m_drive.driveCommand(
@@ -264,6 +335,80 @@ public class RobotContainer {
     return m_chooser.getSelected();
   }
 
+  /**
+   * Gets the autonomous routines offered in the chooser
+   *
+   * @return command factories by chooser name, in chooser order
+   */
+  public Map<String, Supplier<Command>> getAutonomousCommands() {
+    return m_autos;
+  }
+
+  /**
+   * Gets the robot subsystems
+   *
+   * @return subsystems
+   */
+  public List<Subsystem> getSubsystems() {
+    return List.of(
+        m_vision,
+        m_drive,
+        m_elevator,
+        m_intake,
+        m_pivotArm,
+        m_gripper,
+        m_rgbControl,
+        m_wheels,
+        m_buddyClimb);
+  }
+
+  /**
+   * Gets the drive train, to compare its estimated pose to the simulated one
+   *
+   * @return drive train
+   */
+  public DriveTrain getDriveTrain() {
+    return m_drive;
+  }
+
+  /**
+   * Gets the elevator, to select its control in simulation
+   *
+   * @return elevator
+   */
+  public Elevator getElevator() {
+    return m_elevator;
+  }
+
+  /**
+   * Gets the intake, to select its control in simulation
+   *
+   * @return intake
+   */
+  public Intake getIntake() {
+    return m_intake;
+  }
+
+  /**
+   * Gets the feedforward characterization selected on the dashboard
+   *
+   * @return characterization command
+   */
+  public Command getCharacterizationCommand() {
+    return m_characterizationChooser.getSelected().get();
+  }
+
+  /** Applies the selected elevator and intake controls, called when the robot is enabled */
+  public void applyMechanismControls() {
+    m_elevator.setControl(m_elevatorControlChooser.getSelected());
+    m_intake.setControl(m_intakeControlChooser.getSelected());
+  }
+
+  /** Loads the next autonomous trajectory, called periodically while disabled */
+  public void loadAutonomousAssets() {
+    m_drive.loadAutonomousAssets();
+  }
+
   /**
    * Indicates if the current mode is cube
    *
@@ -340,20 +485,73 @@ public class RobotContainer {
   }
 
   /**
-   * place cone to third lvl in autonomous mode
+   * place cone to third lvl in autonomous mode, the elevator only extends once the pivot settled up
    *
    * @return score cone
    */
   public Command autoPlaceCone() {
-    return Commands.either(
-            m_drive.resetOdometryBlueSideAuto(), m_drive.resetOdometryRedSideAuto(), this::isBlue)
-        .andThen(m_gripper.defaultWinch())
-        .andThen(m_pivotArm.setPivotState(true))
-        .andThen(new WaitCommand(0.1))
-        .andThen(Sequences.scoreConeThird(m_elevator, m_pivotArm, m_gripper))
-        .andThen(new WaitCommand(0.1))
-        .andThen(m_gripper.setGripperState(true))
-        .andThen(new WaitCommand(0.25));
+    return this.autoPlaceCone(false);
+  }
+
+  /**
+   * place cone to third lvl in autonomous mode
+   *
+   * @param sequential run the sequential baseline
+   * @return score cone
+   */
+  private Command autoPlaceCone(boolean sequential) {
+    final var resetOdometry =
+        Commands.either(
+            m_drive.resetOdometryBlueSideAuto(), m_drive.resetOdometryRedSideAuto(), this::isBlue);
+    if (sequential) {
+      return resetOdometry
+          .andThen(m_gripper.defaultWinch())
+          .andThen(m_pivotArm.setPivotState(true))
+          .andThen(new WaitCommand(0.1))
+          .andThen(Sequences.scoreConeThird(m_elevator, m_pivotArm, m_gripper))
+          .andThen(new WaitCommand(0.1))
+          .andThen(m_gripper.setGripperState(true))
+          .andThen(new WaitCommand(kReleaseTime));
+    }
+
+    return new MotionPlan()
+        .step("reset odometry", resetOdometry)
+        .step("winch", m_gripper.defaultWinch())
+        .step(
+            "pivot up", m_pivotArm.setPivotState(true).andThen(m_pivotArm.waitSettled()), "winch")
+        .step("extend", m_elevator.extendTo(Level.Third), m_pivotArm::isSettled, "pivot up")
+        .step(
+            "release",
+            m_gripper
+                .setGripperState(true)
+                .andThen(Commands.waitUntil(m_gripper::isOpen).withTimeout(kReleaseTime)),
+            "winch",
+            "pivot up",
+            "extend");
+  }
+
+  /**
+   * Extends the elevator to the third level then holds it, only offered in simulation. Compares
+   * the elevator controls on the move time and the peak height.
+   *
+   * @return elevator third level test
+   */
+  private Command elevatorThirdTest() {
+    return m_elevator.extendTo(Level.Third).andThen(Commands.waitSeconds(kElevatorHoldTime));
+  }
+
+  /**
+   * Moves the intake from the pickup to the launch angle then waits for it to settle, only offered
+   * in simulation. The simulated intake starts down, so the routine duration is the transition
+   * time the cube sequences wait on, compared between the intake controls.
+   *
+   * @return intake launch test
+   */
+  private Command intakeLaunchTest() {
+    return m_intake
+        .setAngle(Position.Pickup)
+        .andThen(m_intake.setAngle(Position.Launch))
+        .andThen(Commands.waitUntil(m_intake::isSettled).withTimeout(kIntakeSettleTime));
   }
 
   public Command autoReset() {
@@ -382,14 +580,26 @@ public class RobotContainer {
    * @return score cone balance
    */
   public Command placeConeBalance() {
+    return this.placeConeBalance(false);
+  }
 
-    return autoPlaceCone()
+  /**
+   * score a cone third lvl and balance in autonomous mode
+   *
+   * @param sequential run the sequential baseline
+   * @return score cone balance
+   */
+  private Command placeConeBalance(boolean sequential) {
+    final var switchToCube =
+        sequential
+            ? Sequences.SwitchToCubeSequential(m_elevator, m_intake, m_pivotArm, m_wheels)
+            : Sequences.SwitchToCube(m_elevator, m_intake, m_pivotArm, m_wheels);
+
+    return autoPlaceCone(sequential)
         .andThen(
             m_drive
                 .runAutoBalancePath()
-                .alongWith(
-                    Sequences.SwitchToCube(m_elevator, m_intake, m_pivotArm, m_wheels)
-                        .andThen(this.setMode(RobotMode.Cube))))
+                .alongWith(switchToCube.andThen(this.setMode(RobotMode.Cube))))
         .andThen(
             Commands.either(
                 m_drive.driveWithSpeed(-0.75, 0, 0).until(m_vision::RobotOnTargetBalance),
@@ -397,13 +607,35 @@ public class RobotContainer {
                 this::isBlue));
   }
 
+  /**
+   * score a cone third lvl and leave the community in autonomous mode, the robot starts moving
+   * back once the elevator is low enough
+   *
+   * @return score cone move back
+   */
   public Command placeConeMoveBack() {
-    return autoPlaceCone()
-        .andThen(m_elevator.extendTo(Level.Down))
-        .andThen(
-            Commands.either(
-                m_drive.driveWithSpeed(1, 0, 0).withTimeout(4.92),
-                m_drive.driveWithSpeed(-1, 0, 0).withTimeout(4.92),
-                this::isBlue));
+    return this.placeConeMoveBack(false);
+  }
+
+  /**
+   * score a cone third lvl and leave the community in autonomous mode
+   *
+   * @param sequential run the sequential baseline
+   * @return score cone move back
+   */
+  private Command placeConeMoveBack(boolean sequential) {
+    final var moveBack =
+        Commands.either(
+            m_drive.driveWithSpeed(1, 0, 0).withTimeout(4.92),
+            m_drive.driveWithSpeed(-1, 0, 0).withTimeout(4.92),
+            this::isBlue);
+    if (sequential) {
+      return autoPlaceCone(true).andThen(m_elevator.extendTo(Level.Down)).andThen(moveBack);
+    }
+
+    return new MotionPlan()
+        .step("place cone", autoPlaceCone(false))
+        .step("lower", m_elevator.extendTo(Level.Down), "place cone")
+        .step("move back", moveBack, () -> m_elevator.isBelow(Level.Second), "place cone");
   }
 }
@@ -0,0 +1,268 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.wpilibj.DataLogManager;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Match logger writing WPILib DataLog files without blocking the robot loop.
+ *
+ * <p>Records are added from the main robot thread into a {@link LogRingBuffer}. Other threads get
+ * their own buffer from {@link #addProducer(int)}, so every buffer keeps a single producer. A
+ * background thread drains the buffers into the {@link DataLogManager} log, which writes the
+ * wpilog file to disk. Command starts and ends are logged from the scheduler callbacks.
+ *
+ * <p>Entries are registered once with the {@code add} methods and records are then added using
+ * the returned entry id. Logged files can be read with the WPILib DataLogTool or {@code
+ * DataLogReader}.
+ */
+public final class RobotLogger {
+
+  // Logger parameters
+  public static final int kBufferCapacity = 4096;
+  public static final long kDrainPeriodMillis = 20;
+
+  private static RobotLogger s_instance;
+
+  // Member objects
+  private final DataLog m_log;
+  private final LogRingBuffer m_buffer = new LogRingBuffer(kBufferCapacity);
+  private final List<LogRingBuffer> m_buffers = new CopyOnWriteArrayList<>(List.of(m_buffer));
+  private final double[][] m_arrays = new double[LogRingBuffer.kMaxValues + 1][];
+  private final int m_commandEntry;
+  private final int m_droppedEntry;
+
+  // Process variables
+  private long m_lastDroppedCount = 0;
+
+  /**
+   * Creates a new RobotLogger, package private so tests can log to their own file. Records are
+   * written by {@link #drain()}, from the thread started by {@link #getInstance()} on the robot.
+   *
+   * @param log data log the records are written to
+   */
+  RobotLogger(DataLog log) {
+    m_log = log;
+
+    for (int i = 0; i < m_arrays.length; ++i) {
+      m_arrays[i] = new double[i];
+    }
+
+    m_commandEntry = this.addString("Commands");
+    m_droppedEntry = m_log.start("Logger/Dropped", "int64");
+
+    final var scheduler = CommandScheduler.getInstance();
+    scheduler.onCommandInitialize(command -> this.logCommand(command, "start"));
+    scheduler.onCommandFinish(command -> this.logCommand(command, "end"));
+    scheduler.onCommandInterrupt(command -> this.logCommand(command, "interrupted"));
+  }
+
+  /** Starts the drain thread */
+  private void start() {
+    final var thread = new Thread(this::run, "DataLogger");
+    thread.setDaemon(true);
+    thread.start();
+  }
+
+  /**
+   * Gets the robot logger
+   *
+   * @return logger instance
+   */
+  public static RobotLogger getInstance() {
+    if (s_instance == null) {
+      DataLogManager.logNetworkTables(false);
+      s_instance = new RobotLogger(DataLogManager.getLog());
+      s_instance.start();
+    }
+    return s_instance;
+  }
+
+  /**
+   * Registers a double entry
+   *
+   * @param name entry name
+   * @return entry id
+   */
+  public int addDouble(String name) {
+    return m_log.start(name, "double");
+  }
+
+  /**
+   * Registers a double array entry, records hold at most {@link LogRingBuffer#kMaxValues} values
+   *
+   * @param name entry name
+   * @return entry id
+   */
+  public int addDoubleArray(String name) {
+    return m_log.start(name, "double[]");
+  }
+
+  /**
+   * Registers a boolean entry
+   *
+   * @param name entry name
+   * @return entry id
+   */
+  public int addBoolean(String name) {
+    return m_log.start(name, "boolean");
+  }
+
+  /**
+   * Registers a string entry
+   *
+   * @param name entry name
+   * @return entry id
+   */
+  public int addString(String name) {
+    return m_log.start(name, "string");
+  }
+
+  /**
+   * Adds a buffer for a thread other than the main robot thread
+   *
+   * <p>Only one thread may add records to the returned buffer, timestamps are given by the caller.
+   *
+   * @param capacity buffer capacity (records)
+   * @return buffer drained to the data log
+   */
+  public LogRingBuffer addProducer(int capacity) {
+    final var buffer = new LogRingBuffer(capacity);
+    m_buffers.add(buffer);
+    return buffer;
+  }
+
+  /**
+   * Logs a double, main robot thread only
+   *
+   * @param entry entry id
+   * @param value value to log
+   */
+  public void log(int entry, double value) {
+    m_buffer.offer(entry, RobotController.getFPGATime(), value);
+  }
+
+  /**
+   * Logs a boolean, main robot thread only
+   *
+   * @param entry entry id
+   * @param value value to log
+   */
+  public void log(int entry, boolean value) {
+    m_buffer.offer(entry, RobotController.getFPGATime(), value);
+  }
+
+  /**
+   * Logs a double array, main robot thread only
+   *
+   * @param entry entry id
+   * @param values values to log, copied
+   * @param length number of values to log
+   */
+  public void log(int entry, double[] values, int length) {
+    m_buffer.offer(entry, RobotController.getFPGATime(), values, length);
+  }
+
+  /**
+   * Logs a double array with the given timestamp, main robot thread only
+   *
+   * @param entry entry id
+   * @param timestamp record timestamp, in the FPGA time base (us)
+   * @param values values to log, copied
+   * @param length number of values to log
+   */
+  public void log(int entry, long timestamp, double[] values, int length) {
+    m_buffer.offer(entry, timestamp, values, length);
+  }
+
+  /**
+   * Logs a string, main robot thread only
+   *
+   * @param entry entry id
+   * @param value value to log
+   */
+  public void log(int entry, String value) {
+    m_buffer.offer(entry, RobotController.getFPGATime(), value);
+  }
+
+  /**
+   * Logs a command event
+   *
+   * @param command scheduled command
+   * @param event event name
+   */
+  private void logCommand(Command command, String event) {
+    this.log(m_commandEntry, command.getName() + " " + event);
+  }
+
+  /** Drains the buffers into the data log until the robot program exits */
+  private void run() {
+    while (true) {
+      this.drain();
+
+      try {
+        Thread.sleep(kDrainPeriodMillis);
+      } catch (InterruptedException e) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Writes every buffered record to the data log, drain thread only
+   *
+   * <p>Package private so tests can drain without the thread.
+   */
+  void drain() {
+    long dropped = 0;
+    for (final var buffer : m_buffers) {
+      int slot;
+      while ((slot = buffer.peek()) >= 0) {
+        this.write(buffer, slot);
+        buffer.release();
+      }
+      dropped += buffer.getDroppedCount();
+    }
+
+    if (dropped != m_lastDroppedCount) {
+      m_log.appendInteger(m_droppedEntry, dropped, 0);
+      m_lastDroppedCount = dropped;
+    }
+  }
+
+  /**
+   * Appends a buffered record to the data log
+   *
+   * @param buffer buffer holding the record
+   * @param slot buffer slot
+   */
+  private void write(LogRingBuffer buffer, int slot) {
+    final int entry = buffer.getEntry(slot);
+    final long timestamp = buffer.getTimestamp(slot);
+
+    switch (buffer.getKind(slot)) {
+      case Double:
+        m_log.appendDouble(entry, buffer.getValue(slot), timestamp);
+        break;
+      case Boolean:
+        m_log.appendBoolean(entry, buffer.getValue(slot) != 0.0, timestamp);
+        break;
+      case DoubleArray:
+        final var values = m_arrays[buffer.getLength(slot)];
+        buffer.getValues(slot, values);
+        m_log.appendDoubleArray(entry, values, timestamp);
+        break;
+      case String:
+        m_log.appendString(entry, buffer.getString(slot), timestamp);
+        break;
+    }
+  }
+}
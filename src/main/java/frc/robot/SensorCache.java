@@ -0,0 +1,185 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import edu.wpi.first.networktables.BooleanEntry;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import frc.robot.Telemetry.Rate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Per loop snapshot of the sensors read by the robot loop.
+ *
+ * <p>Devices register their sensor reads once. Every read is done exactly once per loop by {@link
+ * #refresh()}, before the scheduler runs, and the subsystems and commands read the cached value
+ * instead of going through JNI and CAN again. A value can be overridden until the next refresh,
+ * when the code resets the sensor.
+ *
+ * <p>The cache can be disabled from the {@code SensorCache/Enabled} topic, every get then reads the
+ * sensor as the code did before the cache. The sensor reads per loop are published under the same
+ * table, to compare with the loop time published by the {@link LoopProfiler}. Only meant to be used
+ * from the main robot thread, the odometry thread reads its sensors itself.
+ */
+public final class SensorCache {
+
+  /** Cached double sensor value */
+  public static final class CachedDouble {
+    private final SensorCache m_cache;
+    private final DoubleSupplier m_read;
+    private double m_value;
+
+    private CachedDouble(SensorCache cache, DoubleSupplier read) {
+      m_cache = cache;
+      m_read = read;
+      m_value = read.getAsDouble();
+    }
+
+    /**
+     * Gets the value read at the start of the loop
+     *
+     * @return sensor value
+     */
+    public double get() {
+      if (!m_cache.m_enabled) {
+        this.refresh();
+      }
+      return m_value;
+    }
+
+    /**
+     * Overrides the value until the next refresh, after the sensor was reset
+     *
+     * @param value new sensor value
+     */
+    public void set(double value) {
+      m_value = value;
+    }
+
+    private void refresh() {
+      m_value = m_read.getAsDouble();
+      ++m_cache.m_readCount;
+    }
+  }
+
+  /** Cached boolean sensor value */
+  public static final class CachedBoolean {
+    private final SensorCache m_cache;
+    private final BooleanSupplier m_read;
+    private boolean m_value;
+
+    private CachedBoolean(SensorCache cache, BooleanSupplier read) {
+      m_cache = cache;
+      m_read = read;
+      m_value = read.getAsBoolean();
+    }
+
+    /**
+     * Gets the value read at the start of the loop
+     *
+     * @return sensor value
+     */
+    public boolean get() {
+      if (!m_cache.m_enabled) {
+        this.refresh();
+      }
+      return m_value;
+    }
+
+    private void refresh() {
+      m_value = m_read.getAsBoolean();
+      ++m_cache.m_readCount;
+    }
+  }
+
+  // Cache parameters
+  private static final String kTableName = "SensorCache";
+
+  private static SensorCache s_instance;
+
+  // Member objects
+  private final List<CachedDouble> m_doubles = new ArrayList<>();
+  private final List<CachedBoolean> m_booleans = new ArrayList<>();
+  private final BooleanEntry m_enabledEntry;
+
+  // Process variables
+  private boolean m_enabled = true;
+  private long m_readCount = 0;
+  private long m_loopCount = 0;
+
+  private SensorCache() {
+    m_enabledEntry =
+        NetworkTableInstance.getDefault()
+            .getTable(kTableName)
+            .getBooleanTopic("Enabled")
+            .getEntry(true);
+    m_enabledEntry.set(true);
+
+    final var readsSignal =
+        Telemetry.getInstance().addDouble(kTableName + "/Reads per loop", Rate.Low);
+    Telemetry.getInstance()
+        .addPeriodic(
+            () -> {
+              readsSignal.set(m_loopCount > 0 ? (double) m_readCount / m_loopCount : 0.0);
+              m_readCount = 0;
+              m_loopCount = 0;
+            },
+            Rate.Low);
+  }
+
+  /**
+   * Gets the sensor cache
+   *
+   * @return cache instance
+   */
+  public static SensorCache getInstance() {
+    if (s_instance == null) {
+      s_instance = new SensorCache();
+    }
+    return s_instance;
+  }
+
+  /**
+   * Registers a double sensor read
+   *
+   * @param read reads the sensor, called once per loop
+   * @return cached value
+   */
+  public CachedDouble addDouble(DoubleSupplier read) {
+    final var value = new CachedDouble(this, read);
+    m_doubles.add(value);
+    return value;
+  }
+
+  /**
+   * Registers a boolean sensor read
+   *
+   * @param read reads the sensor, called once per loop
+   * @return cached value
+   */
+  public CachedBoolean addBoolean(BooleanSupplier read) {
+    final var value = new CachedBoolean(this, read);
+    m_booleans.add(value);
+    return value;
+  }
+
+  /** Reads every registered sensor, call once at the start of every robot loop */
+  public void refresh() {
+    m_enabled = m_enabledEntry.get();
+    ++m_loopCount;
+    if (!m_enabled) {
+      return;
+    }
+
+    for (final var value : m_doubles) {
+      value.refresh();
+    }
+    for (final var value : m_booleans) {
+      value.refresh();
+    }
+  }
+}
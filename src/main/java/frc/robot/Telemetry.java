@@ -0,0 +1,261 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import edu.wpi.first.networktables.GenericPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj.Timer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Batched, rate-limited telemetry publisher.
+ *
+ * <p>Subsystems register typed signals once, then set their values as often as they like. Setting
+ * a signal only stores the value. Values that changed are written to NetworkTables together, once
+ * per period of the signal rate, from {@link #periodic()}. Outputs that are not plain topics, like
+ * a Field2d, can be registered as periodic updates instead.
+ *
+ * <p>The number of signal sets and of NetworkTables writes per second are published under the
+ * {@code Telemetry} table to monitor the saved bandwidth. Only meant to be used from the main robot
+ * thread.
+ */
+public final class Telemetry {
+
+  /** Publishing rate of a signal */
+  public enum Rate {
+    High,
+    Low
+  }
+
+  /** Telemetry value, written to NetworkTables when it changed since the last publication */
+  private abstract static class Signal {
+    protected final Telemetry m_telemetry;
+    protected final GenericPublisher m_publisher;
+    protected boolean m_dirty = true;
+
+    private Signal(Telemetry telemetry, GenericPublisher publisher) {
+      m_telemetry = telemetry;
+      m_publisher = publisher;
+    }
+
+    /** Writes the current value to the publisher */
+    protected abstract void write();
+  }
+
+  /** Boolean telemetry value */
+  public static final class BooleanSignal extends Signal {
+    private boolean m_value;
+
+    private BooleanSignal(Telemetry telemetry, GenericPublisher publisher, boolean initialValue) {
+      super(telemetry, publisher);
+      m_value = initialValue;
+    }
+
+    /**
+     * Sets the value, published at the next period of the signal rate if it changed
+     *
+     * @param value new value
+     */
+    public void set(boolean value) {
+      ++m_telemetry.m_setCount;
+      if (value != m_value) {
+        m_value = value;
+        m_dirty = true;
+      }
+    }
+
+    @Override
+    protected void write() {
+      m_publisher.setBoolean(m_value);
+    }
+  }
+
+  /** Double telemetry value */
+  public static final class DoubleSignal extends Signal {
+    private double m_value;
+
+    private DoubleSignal(Telemetry telemetry, GenericPublisher publisher, double initialValue) {
+      super(telemetry, publisher);
+      m_value = initialValue;
+    }
+
+    /**
+     * Sets the value, published at the next period of the signal rate if it changed
+     *
+     * @param value new value
+     */
+    public void set(double value) {
+      ++m_telemetry.m_setCount;
+      if (value != m_value) {
+        m_value = value;
+        m_dirty = true;
+      }
+    }
+
+    @Override
+    protected void write() {
+      m_publisher.setDouble(m_value);
+    }
+  }
+
+  // Publisher parameters
+  public static final double kHighRatePeriod = 0.1;
+  public static final double kLowRatePeriod = 1.0;
+  private static final String kSmartDashboardTable = "SmartDashboard";
+  private static final String kTableName = "Telemetry";
+
+  private static final Rate[] kRates = Rate.values();
+
+  private static Telemetry s_instance;
+
+  // Member objects
+  private final List<List<Signal>> m_signals = new ArrayList<>();
+  private final List<List<Runnable>> m_updates = new ArrayList<>();
+  private final double[] m_periods = {kHighRatePeriod, kLowRatePeriod};
+  private final double[] m_lastPublished = new double[kRates.length];
+  private final GenericPublisher m_setRatePublisher;
+  private final GenericPublisher m_writeRatePublisher;
+
+  // Process variables
+  private long m_setCount = 0;
+  private long m_writeCount = 0;
+  private double m_lastStatsTime = 0.0;
+
+  private Telemetry() {
+    for (int i = 0; i < kRates.length; ++i) {
+      m_signals.add(new ArrayList<>());
+      m_updates.add(new ArrayList<>());
+    }
+
+    final var table = NetworkTableInstance.getDefault().getTable(kTableName);
+    m_setRatePublisher = table.getTopic("Sets per second").genericPublish("double");
+    m_writeRatePublisher = table.getTopic("Writes per second").genericPublish("double");
+  }
+
+  /**
+   * Gets the telemetry publisher
+   *
+   * @return telemetry instance
+   */
+  public static Telemetry getInstance() {
+    if (s_instance == null) {
+      s_instance = new Telemetry();
+    }
+    return s_instance;
+  }
+
+  /**
+   * Sets the publishing period of a rate
+   *
+   * @param rate signal rate
+   * @param period publishing period (s)
+   */
+  public void setPeriod(Rate rate, double period) {
+    m_periods[rate.ordinal()] = period;
+  }
+
+  /**
+   * Registers a boolean signal published to the SmartDashboard table
+   *
+   * @param key SmartDashboard key
+   * @param rate publishing rate
+   * @return signal to set
+   */
+  public BooleanSignal addBoolean(String key, Rate rate) {
+    return this.addBoolean(this.smartDashboardPublisher(key, "boolean"), rate);
+  }
+
+  /**
+   * Registers a boolean signal on an existing publisher, like a Shuffleboard entry
+   *
+   * @param publisher publisher to write to
+   * @param rate publishing rate
+   * @return signal to set
+   */
+  public BooleanSignal addBoolean(GenericPublisher publisher, Rate rate) {
+    return this.add(new BooleanSignal(this, publisher, false), rate);
+  }
+
+  /**
+   * Registers a double signal published to the SmartDashboard table
+   *
+   * @param key SmartDashboard key
+   * @param rate publishing rate
+   * @return signal to set
+   */
+  public DoubleSignal addDouble(String key, Rate rate) {
+    return this.addDouble(this.smartDashboardPublisher(key, "double"), rate);
+  }
+
+  /**
+   * Registers a double signal on an existing publisher, like a Shuffleboard entry
+   *
+   * @param publisher publisher to write to
+   * @param rate publishing rate
+   * @return signal to set
+   */
+  public DoubleSignal addDouble(GenericPublisher publisher, Rate rate) {
+    return this.add(new DoubleSignal(this, publisher, 0.0), rate);
+  }
+
+  /**
+   * Registers an update run once per period of the rate, for outputs that are not plain topics
+   *
+   * <p>Updates run before the signals are written, so they can also sample values that are only
+   * needed for telemetry and set signals of the same rate.
+   *
+   * @param update publishes the output
+   * @param rate publishing rate
+   */
+  public void addPeriodic(Runnable update, Rate rate) {
+    m_updates.get(rate.ordinal()).add(update);
+  }
+
+  /** Publishes the signals due at this loop, call once per robot loop */
+  public void periodic() {
+    final double now = Timer.getFPGATimestamp();
+
+    for (int i = 0; i < kRates.length; ++i) {
+      if (now - m_lastPublished[i] < m_periods[i]) {
+        continue;
+      }
+      m_lastPublished[i] = now;
+
+      for (final var update : m_updates.get(i)) {
+        update.run();
+        ++m_writeCount;
+      }
+      for (final var signal : m_signals.get(i)) {
+        if (signal.m_dirty) {
+          signal.write();
+          signal.m_dirty = false;
+          ++m_writeCount;
+        }
+      }
+    }
+
+    final double elapsed = now - m_lastStatsTime;
+    if (elapsed >= kLowRatePeriod) {
+      m_setRatePublisher.setDouble(m_setCount / elapsed);
+      m_writeRatePublisher.setDouble(m_writeCount / elapsed);
+      m_setCount = 0;
+      m_writeCount = 0;
+      m_lastStatsTime = now;
+    }
+  }
+
+  private <T extends Signal> T add(T signal, Rate rate) {
+    m_signals.get(rate.ordinal()).add(signal);
+    return signal;
+  }
+
+  private GenericPublisher smartDashboardPublisher(String key, String typeString) {
+    return NetworkTableInstance.getDefault()
+        .getTable(kSmartDashboardTable)
+        .getTopic(key)
+        .genericPublish(typeString);
+  }
+}
@@ -0,0 +1,92 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
+
+/**
+ * Requests a trajectory from a background planner when initialized, then follows it as soon as it
+ * is ready. The scheduler never waits on trajectory generation.
+ *
+ * <p>The follower factory gets the time measured between the request and the trajectory being
+ * picked up, so it can re-anchor a trajectory projected from the robot state at the request.
+ */
+public class FollowAsyncPathCommand extends CommandBase {
+
+  private final Supplier<CompletableFuture<PathPlannerTrajectory>> m_planner;
+  private final BiFunction<PathPlannerTrajectory, Double, Command> m_followerFactory;
+
+  private CompletableFuture<PathPlannerTrajectory> m_trajectory = null;
+  private double m_requestTimestamp = 0.0;
+  private Command m_follower = null;
+  private boolean m_failed = false;
+
+  /**
+   * Creates a new FollowAsyncPathCommand
+   *
+   * @param planner starts the trajectory generation, called on initialize
+   * @param followerFactory creates the command following the generated trajectory, given the
+   *     time elapsed since the request (s)
+   * @param requirements subsystems required while waiting and following
+   */
+  public FollowAsyncPathCommand(
+      Supplier<CompletableFuture<PathPlannerTrajectory>> planner,
+      BiFunction<PathPlannerTrajectory, Double, Command> followerFactory,
+      Subsystem... requirements) {
+    m_planner = planner;
+    m_followerFactory = followerFactory;
+    addRequirements(requirements);
+  }
+
+  @Override
+  public void initialize() {
+    m_requestTimestamp = Timer.getFPGATimestamp();
+    m_trajectory = m_planner.get();
+    m_follower = null;
+    m_failed = false;
+  }
+
+  @Override
+  public void execute() {
+    if (m_follower == null) {
+      if (!m_trajectory.isDone()) {
+        return;
+      }
+
+      final var trajectory =
+          m_trajectory.isCompletedExceptionally() ? null : m_trajectory.getNow(null);
+      if (trajectory == null) {
+        m_failed = true;
+        return;
+      }
+
+      m_follower =
+          m_followerFactory.apply(trajectory, Timer.getFPGATimestamp() - m_requestTimestamp);
+      m_follower.initialize();
+    }
+    m_follower.execute();
+  }
+
+  @Override
+  public boolean isFinished() {
+    return m_failed || (m_follower != null && m_follower.isFinished());
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    if (m_follower != null) {
+      m_follower.end(interrupted);
+    } else {
+      m_trajectory.cancel(false);
+    }
+  }
+}
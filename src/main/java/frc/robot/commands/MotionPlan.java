@@ -0,0 +1,180 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.commands;
+
+import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.CommandBase;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.Subsystem;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Runs mechanism moves as soon as they are allowed to, instead of one after the other.
+ *
+ * <p>Each step names the steps that must end before it starts, and may add an interlock, a
+ * condition that must hold for it to start, e.g. the elevator being clear of the intake. Steps
+ * start in the loop their last dependency ends, so a plan never waits longer than its dependencies
+ * and interlocks require. Waits should end on sensors, like the elevator or intake reaching their
+ * target, rather than on fixed delays.
+ *
+ * <p>Steps sharing a subsystem must depend on each other, so concurrent steps never share
+ * requirements. The plan ends once every step ended.
+ */
+public class MotionPlan extends CommandBase {
+
+  /** Planned command and its start conditions */
+  private static final class Step {
+    private final Command m_command;
+    private final BooleanSupplier m_interlock;
+    private final List<Step> m_after;
+    private boolean m_started = false;
+    private boolean m_ended = false;
+
+    private Step(Command command, BooleanSupplier interlock, List<Step> after) {
+      m_command = command;
+      m_interlock = interlock;
+      m_after = after;
+    }
+
+    private boolean isReady() {
+      for (final var step : m_after) {
+        if (!step.m_ended) {
+          return false;
+        }
+      }
+      return m_interlock.getAsBoolean();
+    }
+
+    private boolean dependsOn(Step other) {
+      for (final var step : m_after) {
+        if (step == other || step.dependsOn(other)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+
+  // Member objects
+  private final Map<String, Step> m_steps = new LinkedHashMap<>();
+
+  /**
+   * Adds a step
+   *
+   * @param name step name, referenced by the steps depending on it
+   * @param command step command
+   * @param after names of the steps that must end before this one starts
+   * @return this plan
+   */
+  public MotionPlan step(String name, Command command, String... after) {
+    return this.step(name, command, () -> true, after);
+  }
+
+  /**
+   * Adds a step with an interlock
+   *
+   * @param name step name, referenced by the steps depending on it
+   * @param command step command
+   * @param interlock condition that must hold for the step to start
+   * @param after names of the steps that must end before this one starts
+   * @return this plan
+   */
+  public MotionPlan step(String name, Command command, BooleanSupplier interlock, String... after) {
+    if (m_steps.containsKey(name)) {
+      throw new IllegalArgumentException("Duplicate motion plan step " + name);
+    }
+
+    final var dependencies = new ArrayList<Step>();
+    for (final var dependency : after) {
+      final var step = m_steps.get(dependency);
+      if (step == null) {
+        throw new IllegalArgumentException(
+            "Motion plan step " + name + " depends on unknown step " + dependency);
+      }
+      dependencies.add(step);
+    }
+
+    final var step = new Step(command, interlock, dependencies);
+    for (final var other : m_steps.entrySet()) {
+      final var requirements = other.getValue().m_command.getRequirements();
+      final var shared = !Collections.disjoint(requirements, command.getRequirements());
+      if (shared && !step.dependsOn(other.getValue())) {
+        throw new IllegalArgumentException(
+            "Motion plan steps " + other.getKey() + " and " + name + " share a subsystem");
+      }
+    }
+
+    CommandScheduler.getInstance().registerComposedCommands(command);
+    addRequirements(command.getRequirements().toArray(new Subsystem[0]));
+    m_steps.put(name, step);
+    return this;
+  }
+
+  @Override
+  public void initialize() {
+    for (final var step : m_steps.values()) {
+      step.m_started = false;
+      step.m_ended = false;
+    }
+  }
+
+  @Override
+  public void execute() {
+    // Dependencies are added first, so a step can start in the loop its dependencies end
+    for (final var step : m_steps.values()) {
+      if (step.m_ended) {
+        continue;
+      }
+      if (!step.m_started) {
+        if (!step.isReady()) {
+          continue;
+        }
+        step.m_command.initialize();
+        step.m_started = true;
+      }
+
+      step.m_command.execute();
+      if (step.m_command.isFinished()) {
+        step.m_command.end(false);
+        step.m_ended = true;
+      }
+    }
+  }
+
+  @Override
+  public void end(boolean interrupted) {
+    for (final var step : m_steps.values()) {
+      if (step.m_started && !step.m_ended) {
+        step.m_command.end(true);
+        step.m_ended = true;
+      }
+    }
+  }
+
+  @Override
+  public boolean isFinished() {
+    for (final var step : m_steps.values()) {
+      if (!step.m_ended) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public boolean runsWhenDisabled() {
+    for (final var step : m_steps.values()) {
+      if (!step.m_command.runsWhenDisabled()) {
+        return false;
+      }
+    }
+    return true;
+  }
+}
@@ -38,8 +38,43 @@ public class Sequences {
         elevator.extendTo(Level.Down));
   }
 
+  /**
+   * Stows the cone mechanisms and retracts the intake, in the sequential order, each move starting
+   * on its interlock instead of a fixed delay
+   *
+   * <p>The intake only swings out with the elevator above the sequences height, the pivot only
+   * lowers with the elevator down and the intake out, and the intake only retracts once the pivot
+   * settled down.
+   *
+   * @return blocking command
+   */
   public static Command SwitchToCube(
       Elevator elevator, Intake intake, PivotArm pivotArm, Wheels wheels) {
+    return new MotionPlan()
+        .step("raise", elevator.extendTo(Level.Sequences))
+        .step(
+            "intake out",
+            intake.setAngle(Position.Pickup),
+            () -> elevator.isAbove(Level.Sequences),
+            "raise")
+        .step("lower", elevator.extendTo(Level.Down), "intake out")
+        .step(
+            "pivot down",
+            pivotArm.setPivotState(false).andThen(pivotArm.waitSettled()),
+            () -> elevator.isBelow(Level.Down),
+            "intake out")
+        .step(
+            "retract", intake.setAngle(Position.Retracted), pivotArm::isSettled, "pivot down")
+        .step("stop wheels", wheels.stop(), "retract");
+  }
+
+  /**
+   * Sequential baseline of {@link #SwitchToCube}, simulated to measure the motion plan savings
+   *
+   * @return blocking command
+   */
+  public static Command SwitchToCubeSequential(
+      Elevator elevator, Intake intake, PivotArm pivotArm, Wheels wheels) {
     return Commands.sequence(
         elevator.extendTo(Level.Sequences),
         intake.setAngle(Position.Pickup),
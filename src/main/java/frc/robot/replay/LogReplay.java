@@ -0,0 +1,249 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.replay;
+
+import edu.wpi.first.math.filter.LinearFilter;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+import edu.wpi.first.util.datalog.DataLogReader;
+import frc.robot.subsystems.DriveTrain;
+import frc.robot.subsystems.OdometryThread;
+import frc.robot.subsystems.PoseFusion;
+import frc.robot.subsystems.Vision.Vision;
+import frc.robot.subsystems.Vision.VisionGate;
+import frc.robot.subsystems.Vision.VisionMeasurement;
+import frc.robot.subsystems.Vision.VisionProcessor;
+import frc.robot.subsystems.WCPSwerveModule.WCPSwerveModuleFactory;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Replays the sensor inputs recorded in a match log through the pose estimation code.
+ *
+ * <p>Odometry inputs, raw vision samples, odometry resets and the accelerometer are read from a
+ * wpilog file and sorted by timestamp. Odometry inputs update the estimator as the odometry thread
+ * does, vision samples are processed as they are received, as the vision thread does, and each
+ * accelerometer record marks a robot loop where the pending measurements are fused, as in the
+ * DriveTrain periodic. No hardware, NetworkTables or timer is used and the samples are replayed as
+ * fast as possible, so a replay is deterministic and the fusion weights can be tuned offline.
+ */
+public class LogReplay {
+
+  /** Kind of recorded input */
+  private enum Input {
+    Odometry,
+    Position,
+    Rotation,
+    Accel,
+    Reset
+  }
+
+  /** Input record read from the log */
+  private static final class Sample {
+    private final Input m_input;
+    private final long m_timestamp;
+    private final double[] m_values;
+
+    private Sample(Input input, long timestamp, double[] values) {
+      m_input = input;
+      m_timestamp = timestamp;
+      m_values = values;
+    }
+  }
+
+  // Replay parameters, matching the DriveTrain accelerometer filter
+  private static final int kAccelFilterTaps = 30;
+
+  // Member objects
+  private final List<Sample> m_samples;
+  private final Sample m_firstOdometry;
+
+  /**
+   * Creates a new LogReplay
+   *
+   * @param samples input records sorted by timestamp
+   * @param firstOdometry first odometry inputs record
+   */
+  private LogReplay(List<Sample> samples, Sample firstOdometry) {
+    m_samples = samples;
+    m_firstOdometry = firstOdometry;
+  }
+
+  /**
+   * Reads the replayed inputs of a log file
+   *
+   * @param filename wpilog file
+   * @return replay of the log inputs
+   * @throws IOException if the file can't be read or holds no odometry inputs
+   */
+  public static LogReplay load(String filename) throws IOException {
+    final var reader = new DataLogReader(filename);
+    if (!reader.isValid()) {
+      throw new IOException("Not a data log: " + filename);
+    }
+
+    final var names = new HashMap<String, Input>();
+    names.put(OdometryThread.kInputsLogEntry, Input.Odometry);
+    names.put(Vision.kPositionLogEntry, Input.Position);
+    names.put(Vision.kRotationLogEntry, Input.Rotation);
+    names.put(DriveTrain.kAccelLogEntry, Input.Accel);
+    names.put(DriveTrain.kResetLogEntry, Input.Reset);
+
+    final Map<Integer, Input> entries = new HashMap<>();
+    final var samples = new ArrayList<Sample>();
+    for (final var record : reader) {
+      if (record.isStart()) {
+        final var start = record.getStartData();
+        final var input = names.get(start.name);
+        if (input != null) {
+          entries.put(start.entry, input);
+        }
+        continue;
+      }
+      if (record.isControl()) {
+        continue;
+      }
+
+      final var input = entries.get(record.getEntry());
+      if (input == null) {
+        continue;
+      }
+      final double[] values =
+          input == Input.Accel ? new double[] {record.getDouble()} : record.getDoubleArray();
+      samples.add(new Sample(input, record.getTimestamp(), values));
+    }
+
+    // Stable sort, records of the same timestamp keep the logged order
+    samples.sort(Comparator.comparingLong(sample -> sample.m_timestamp));
+
+    final var firstOdometry =
+        samples.stream().filter(sample -> sample.m_input == Input.Odometry).findFirst();
+    if (firstOdometry.isEmpty()) {
+      throw new IOException("No odometry inputs in " + filename);
+    }
+    return new LogReplay(samples, firstOdometry.get());
+  }
+
+  /**
+   * Gets the number of replayed records
+   *
+   * @return record count
+   */
+  public int getSampleCount() {
+    return m_samples.size();
+  }
+
+  /**
+   * Gets the recorded duration
+   *
+   * @return time between the first and the last replayed record (s)
+   */
+  public double getDuration() {
+    return (m_samples.get(m_samples.size() - 1).m_timestamp - m_samples.get(0).m_timestamp) * 1e-6;
+  }
+
+  /**
+   * Replays the inputs through a new estimator
+   *
+   * <p>Writes one {@code time (s), x (m), y (m), heading (deg), recent vision, filtered accel X}
+   * CSV row per robot loop.
+   *
+   * @param configure configures the fusion before the replay, e.g. sets tuned weights
+   * @param output estimated poses output
+   * @return fusion used for the replay, to read its gate counts
+   */
+  public PoseFusion run(Consumer<PoseFusion> configure, PrintWriter output) {
+    final int moduleCount = (m_firstOdometry.m_values.length - 1) / 3;
+    final var modules = new ReplaySwerveModule[moduleCount];
+    for (int i = 0; i < moduleCount; ++i) {
+      modules[i] = new ReplaySwerveModule();
+    }
+    final var gyro = new ReplayGyro();
+    setInputs(m_firstOdometry.m_values, modules, gyro);
+
+    final var kinematics = new SwerveDriveKinematics(new WCPSwerveModuleFactory().getLocations());
+    final var odometry = new OdometryThread(modules, gyro, kinematics);
+    final var fusion = new PoseFusion(odometry, new VisionGate(false));
+    configure.accept(fusion);
+
+    final var processor = new VisionProcessor();
+    final var accelFilter = LinearFilter.movingAverage(kAccelFilterTaps);
+    final var noSamples = new TimestampedDoubleArray[0];
+
+    output.println("time,x,y,heading,recent vision,filtered accel x");
+    for (final var sample : m_samples) {
+      switch (sample.m_input) {
+        case Odometry:
+          setInputs(sample.m_values, modules, gyro);
+          odometry.update(sample.m_timestamp * 1e-6);
+          break;
+        case Position:
+          processor.process(
+              new TimestampedDoubleArray[] {
+                new TimestampedDoubleArray(sample.m_timestamp, 0, sample.m_values)
+              },
+              noSamples);
+          break;
+        case Rotation:
+          processor.process(
+              noSamples,
+              new TimestampedDoubleArray[] {
+                new TimestampedDoubleArray(sample.m_timestamp, 0, sample.m_values)
+              });
+          break;
+        case Reset:
+          final var values = sample.m_values;
+          odometry.resetPosition(new Pose2d(values[0], values[1], new Rotation2d(values[2])));
+          break;
+        case Accel:
+          // DriveTrain periodic
+          VisionMeasurement visionMes;
+          while ((visionMes = processor.pollMeasurement()) != null) {
+            fusion.add(visionMes);
+          }
+
+          final double filteredX = accelFilter.calculate(sample.m_values[0]);
+          final var snapshot = odometry.getSnapshot();
+          output.println(
+              String.format(
+                  Locale.ROOT,
+                  "%.6f,%.4f,%.4f,%.3f,%b,%.4f",
+                  sample.m_timestamp * 1e-6,
+                  snapshot.m_pose.getX(),
+                  snapshot.m_pose.getY(),
+                  snapshot.m_pose.getRotation().getDegrees(),
+                  snapshot.m_hasRecentVision,
+                  filteredX));
+          break;
+      }
+    }
+    output.flush();
+
+    return fusion;
+  }
+
+  /**
+   * Sets the replayed sensors to an odometry inputs record
+   *
+   * @param values recorded inputs
+   * @param modules replayed modules
+   * @param gyro replayed gyro
+   */
+  private static void setInputs(double[] values, ReplaySwerveModule[] modules, ReplayGyro gyro) {
+    gyro.set(values[0]);
+    for (int i = 0; i < modules.length; ++i) {
+      modules[i].set(values[1 + 3 * i], values[2 + 3 * i], values[3 + 3 * i]);
+    }
+  }
+}
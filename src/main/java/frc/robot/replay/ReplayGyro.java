@@ -0,0 +1,48 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.replay;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+
+/** Gyro reporting the angle read from a log */
+public class ReplayGyro implements Gyro {
+
+  // Process variables
+  private Rotation2d m_rotation = new Rotation2d();
+
+  /**
+   * Sets the recorded gyro angle
+   *
+   * @param angle counter clockwise positive angle (rad)
+   */
+  public void set(double angle) {
+    m_rotation = new Rotation2d(angle);
+  }
+
+  @Override
+  public Rotation2d getRotation2d() {
+    return m_rotation;
+  }
+
+  @Override
+  public double getAngle() {
+    return -m_rotation.getDegrees();
+  }
+
+  @Override
+  public double getRate() {
+    return 0.0;
+  }
+
+  @Override
+  public void calibrate() {}
+
+  @Override
+  public void reset() {}
+
+  @Override
+  public void close() {}
+}
@@ -0,0 +1,72 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.replay;
+
+import frc.robot.subsystems.PoseFusion;
+import frc.robot.subsystems.Vision.VisionGate;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
+/**
+ * Replays a match log from the command line, run with {@code ./gradlew replay -Plog=<wpilog>}.
+ *
+ * <p>Estimated poses are written to a CSV file. Fusion weights default to the robot ones and can
+ * be overridden with the {@code replay.xyStdDev}, {@code replay.thetaStdDev}, {@code
+ * replay.transSpeedScale} and {@code replay.rotSpeedScale} system properties.
+ */
+public final class ReplayMain {
+  private ReplayMain() {}
+
+  /**
+   * Replays a log
+   *
+   * @param args wpilog file, then the output CSV file
+   * @throws IOException if the log can't be read or the output written
+   */
+  public static void main(String... args) throws IOException {
+    if (args.length < 2 || args[0].isEmpty()) {
+      System.err.println("Usage: ReplayMain <log.wpilog> <poses.csv>");
+      System.exit(1);
+    }
+
+    final long loadStart = System.nanoTime();
+    final var replay = LogReplay.load(args[0]);
+    final long runStart = System.nanoTime();
+
+    PoseFusion fusion;
+    try (final var output = new PrintWriter(new FileWriter(args[1]))) {
+      fusion =
+          replay.run(
+              f ->
+                  f.setWeights(
+                      property("replay.xyStdDev", PoseFusion.kVisionXYStdDev),
+                      property("replay.thetaStdDev", PoseFusion.kVisionThetaStdDev),
+                      property("replay.transSpeedScale", PoseFusion.kVisionTransSpeedScale),
+                      property("replay.rotSpeedScale", PoseFusion.kVisionRotSpeedScale)),
+              output);
+    }
+    final long runEnd = System.nanoTime();
+
+    final double runTime = (runEnd - runStart) * 1e-9;
+    System.out.println(
+        String.format(
+            "Replayed %d records, %.1f s of log in %.3f s (%.0fx real time, loaded in %.3f s)",
+            replay.getSampleCount(),
+            replay.getDuration(),
+            runTime,
+            replay.getDuration() / runTime,
+            (runStart - loadStart) * 1e-9));
+    for (final var result : VisionGate.Result.values()) {
+      System.out.println(String.format("Vision %s: %d", result, fusion.getGate().getCount(result)));
+    }
+    System.out.println("Poses written to " + args[1]);
+  }
+
+  private static double property(String key, double defaultValue) {
+    final var value = System.getProperty(key);
+    return value == null ? defaultValue : Double.parseDouble(value);
+  }
+}
@@ -0,0 +1,63 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.replay;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import frc.robot.subsystems.SwerveModule;
+
+/** Swerve module reporting the values read from a log */
+public class ReplaySwerveModule implements SwerveModule {
+
+  // Process variables
+  private double m_distance = 0.0;
+  private double m_speed = 0.0;
+  private Rotation2d m_angle = new Rotation2d();
+
+  /**
+   * Sets the recorded module sensor values
+   *
+   * @param distance driven distance (m)
+   * @param angle module angle (rad)
+   * @param speed wheel speed (m/s)
+   */
+  public void set(double distance, double angle, double speed) {
+    m_distance = distance;
+    m_angle = new Rotation2d(angle);
+    m_speed = speed;
+  }
+
+  @Override
+  public SwerveModuleState getState() {
+    return new SwerveModuleState(m_speed, m_angle);
+  }
+
+  @Override
+  public SwerveModulePosition getPosition() {
+    return new SwerveModulePosition(m_distance, m_angle);
+  }
+
+  @Override
+  public void updateState(SwerveModuleState state) {
+    state.speedMetersPerSecond = m_speed;
+    state.angle = m_angle;
+  }
+
+  @Override
+  public void updatePosition(SwerveModulePosition position) {
+    position.distanceMeters = m_distance;
+    position.angle = m_angle;
+  }
+
+  @Override
+  public void setDesiredState(SwerveModuleState desiredState) {}
+
+  @Override
+  public void setDriveVoltage(double driveVolts, Rotation2d angle) {}
+
+  @Override
+  public void periodic() {}
+}
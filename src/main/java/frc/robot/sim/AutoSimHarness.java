@@ -0,0 +1,328 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.sim;
+
+import frc.robot.RobotContainer;
+import java.io.BufferedReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Simulates every autonomous routine for both alliances with randomized sensor noise, run with
+ * {@code ./gradlew simulateAutos}.
+ *
+ * <p>Each run is an {@link AutoSimWorker} process, the HAL and the scheduler being process wide,
+ * and runs are spread over a pool of worker processes. The report gives, per routine and alliance,
+ * the auto duration, the final error between the estimated and the simulated pose, and how long
+ * each subsystem stayed idle. Routines offered with a sequential baseline in simulation are
+ * compared to it, to measure the cycle time their motion plans save. Every run is also written to a
+ * CSV file.
+ *
+ * <p>Options are system properties: {@code sim.runs} noise seeds per routine and alliance (default
+ * 4), {@code sim.noise} noise scale, 0 for exact sensors (default 1), {@code sim.workers} parallel
+ * processes (default one per processor) and {@code sim.output} CSV file (default
+ * build/autoSim.csv). Other {@code sim.} properties are passed on to the workers, like {@code
+ * sim.accelFeedforward=false} to measure the trajectory tracking without the drive acceleration
+ * feedforward, {@code sim.elevatorControl=SmartMotion} to compare the elevator third test move time
+ * and peak height with the onboard Smart Motion control, or {@code sim.intakeControl=Profiled} to
+ * compare the intake launch test transition time with the profiled pivot control. Arguments
+ * restrict the simulated routines to the given chooser names.
+ */
+public final class AutoSimHarness {
+
+  private static final String[] kAlliances = {"Blue", "Red"};
+
+  private AutoSimHarness() {}
+
+  /**
+   * Runs the simulations and prints the report
+   *
+   * @param args chooser names of the routines to simulate, all of them if empty
+   * @throws Exception if a worker can't be started or the CSV can't be written
+   */
+  public static void main(String... args) throws Exception {
+    final int runs = Integer.getInteger("sim.runs", 4);
+    final var noise = System.getProperty("sim.noise", "1.0");
+    final int workers =
+        Integer.getInteger("sim.workers", Runtime.getRuntime().availableProcessors());
+    final var output = System.getProperty("sim.output", "build/autoSim.csv");
+
+    final var autos = args.length > 0 ? List.of(args) : listAutos();
+    final var jobs = new ArrayList<String[]>();
+    for (final var auto : autos) {
+      for (final var alliance : kAlliances) {
+        for (int seed = 1; seed <= runs; ++seed) {
+          jobs.add(new String[] {auto, alliance, Integer.toString(seed), noise});
+        }
+      }
+    }
+
+    final long start = System.nanoTime();
+    final var pool = Executors.newFixedThreadPool(workers);
+    final var futures = new ArrayList<Future<List<String>>>();
+    for (final var job : jobs) {
+      futures.add(pool.submit(() -> runWorker(job)));
+    }
+
+    final var results = new ArrayList<AutoSimResult>();
+    for (int i = 0; i < futures.size(); ++i) {
+      final var result = parseResult(futures.get(i).get());
+      if (result == null) {
+        System.err.println("No result for " + String.join(" ", jobs.get(i)));
+      } else {
+        results.add(result);
+      }
+    }
+    pool.shutdown();
+    final double elapsed = (System.nanoTime() - start) * 1e-9;
+
+    writeCsv(results, output);
+    printReport(results);
+    System.out.println(
+        String.format(
+            Locale.ROOT,
+            "%d runs on %d workers in %.1f s, runs written to %s",
+            results.size(),
+            workers,
+            elapsed,
+            output));
+    if (results.size() != jobs.size()) {
+      System.exit(1);
+    }
+  }
+
+  /**
+   * Gets the chooser names from a worker
+   *
+   * @return autonomous chooser names
+   * @throws IOException if the worker fails
+   */
+  private static List<String> listAutos() throws IOException, InterruptedException {
+    final var autos = new ArrayList<String>();
+    for (final var line : runWorker(new String[] {AutoSimWorker.kListArg})) {
+      if (line.startsWith(AutoSimResult.kPrefix)) {
+        autos.add(line.substring(AutoSimResult.kPrefix.length()));
+      }
+    }
+    if (autos.isEmpty()) {
+      throw new IOException("The worker listed no autonomous routine");
+    }
+    return autos;
+  }
+
+  /**
+   * Runs a worker process with the harness class path and native libraries
+   *
+   * @param args worker arguments
+   * @return worker output lines, standard error included
+   * @throws IOException if the worker can't be started
+   */
+  private static List<String> runWorker(String[] args) throws IOException, InterruptedException {
+    final var command = new ArrayList<String>();
+    command.add(ProcessHandle.current().info().command().orElse("java"));
+    command.add("-Djava.library.path=" + System.getProperty("java.library.path"));
+    for (final var property : System.getProperties().stringPropertyNames()) {
+      if (property.startsWith("sim.")) {
+        command.add("-D" + property + "=" + System.getProperty(property));
+      }
+    }
+    command.add("-cp");
+    command.add(System.getProperty("java.class.path"));
+    command.add(AutoSimWorker.class.getName());
+    command.addAll(List.of(args));
+
+    final var process = new ProcessBuilder(command).redirectErrorStream(true).start();
+    final var lines = new ArrayList<String>();
+    try (final var reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        lines.add(line);
+      }
+    }
+    process.waitFor();
+    return lines;
+  }
+
+  /**
+   * Finds the result in a worker output, printing the output tail if there is none
+   *
+   * @param lines worker output lines
+   * @return result or null
+   */
+  private static AutoSimResult parseResult(List<String> lines) {
+    for (final var line : lines) {
+      final var result = AutoSimResult.parse(line);
+      if (result != null) {
+        return result;
+      }
+    }
+    lines.subList(Math.max(0, lines.size() - 20), lines.size()).forEach(System.err::println);
+    return null;
+  }
+
+  /**
+   * Writes one CSV row per run
+   *
+   * @param results run results
+   * @param filename output file
+   * @throws IOException if the file can't be written
+   */
+  private static void writeCsv(List<AutoSimResult> results, String filename) throws IOException {
+    try (final var output = new PrintWriter(new FileWriter(filename))) {
+      final var header =
+          new StringBuilder(
+              "auto,alliance,seed,finished,duration,pose error,heading error,tracking error,"
+                  + "max tracking error,final x,final y,elevator peak");
+      if (!results.isEmpty()) {
+        for (final var subsystem : results.get(0).m_idleTimes.keySet()) {
+          header.append(",").append(subsystem).append(" idle");
+        }
+      }
+      output.println(header);
+
+      for (final var result : results) {
+        final var row =
+            new StringBuilder(
+                String.format(
+                    Locale.ROOT,
+                    "%s,%s,%d,%b,%.3f,%.4f,%.3f,%.4f,%.4f,%.4f,%.4f,%.4f",
+                    result.m_auto,
+                    result.m_alliance,
+                    result.m_seed,
+                    result.m_finished,
+                    result.m_duration,
+                    result.m_poseError,
+                    result.m_headingError,
+                    result.m_trackingError,
+                    result.m_trackingMaxError,
+                    result.m_finalX,
+                    result.m_finalY,
+                    result.m_elevatorPeak));
+        for (final var idle : result.m_idleTimes.values()) {
+          row.append(String.format(Locale.ROOT, ",%.3f", idle));
+        }
+        output.println(row);
+      }
+    }
+  }
+
+  /**
+   * Prints the runs aggregated per routine and alliance
+   *
+   * @param results run results
+   */
+  private static void printReport(List<AutoSimResult> results) {
+    final var groups = new LinkedHashMap<String, List<AutoSimResult>>();
+    for (final var result : results) {
+      groups
+          .computeIfAbsent(groupName(result.m_auto, result.m_alliance), key -> new ArrayList<>())
+          .add(result);
+    }
+
+    for (final var group : groups.entrySet()) {
+      final var runs = group.getValue();
+      final long finished = runs.stream().filter(run -> run.m_finished).count();
+      final var duration = runs.stream().mapToDouble(run -> run.m_duration).summaryStatistics();
+      final var poseError = runs.stream().mapToDouble(run -> run.m_poseError).summaryStatistics();
+      final var headingError =
+          runs.stream().mapToDouble(run -> run.m_headingError).summaryStatistics();
+      final var trackingError =
+          runs.stream().mapToDouble(run -> run.m_trackingError).summaryStatistics();
+      final var trackingMaxError =
+          runs.stream().mapToDouble(run -> run.m_trackingMaxError).summaryStatistics();
+      final var finalX = runs.stream().mapToDouble(run -> run.m_finalX).summaryStatistics();
+      final var finalY = runs.stream().mapToDouble(run -> run.m_finalY).summaryStatistics();
+      final var elevatorPeak =
+          runs.stream().mapToDouble(run -> run.m_elevatorPeak).summaryStatistics();
+
+      System.out.println(group.getKey());
+      System.out.println(
+          String.format(
+              Locale.ROOT,
+              "  finished %d/%d, duration %.2f s (max %.2f s)",
+              finished,
+              runs.size(),
+              duration.getAverage(),
+              duration.getMax()));
+      System.out.println(
+          String.format(
+              Locale.ROOT,
+              "  final pose error %.3f m (max %.3f m), heading %.2f deg (max %.2f deg)",
+              poseError.getAverage(),
+              poseError.getMax(),
+              headingError.getAverage(),
+              headingError.getMax()));
+      System.out.println(
+          String.format(
+              Locale.ROOT,
+              "  trajectory tracking error %.3f m rms (max %.3f m)",
+              trackingError.getAverage(),
+              trackingMaxError.getMax()));
+      System.out.println(
+          String.format(
+              Locale.ROOT,
+              "  final simulated position (%.3f m, %.3f m), y from %.3f m to %.3f m",
+              finalX.getAverage(),
+              finalY.getAverage(),
+              finalY.getMin(),
+              finalY.getMax()));
+      System.out.println(
+          String.format(
+              Locale.ROOT,
+              "  elevator peak height %.3f m (max %.3f m)",
+              elevatorPeak.getAverage(),
+              elevatorPeak.getMax()));
+
+      final var idle = new StringBuilder("  idle");
+      for (final var subsystem : runs.get(0).m_idleTimes.keySet()) {
+        final double average =
+            runs.stream().mapToDouble(run -> run.m_idleTimes.get(subsystem)).average().orElse(0.0);
+        idle.append(String.format(Locale.ROOT, " %s %.2f s", subsystem, average));
+      }
+      System.out.println(idle);
+    }
+
+    // Cycle time saved by the motion plans over the sequential baselines
+    for (final var baseline : groups.values()) {
+      final var auto = baseline.get(0).m_auto;
+      final var alliance = baseline.get(0).m_alliance;
+      if (!auto.endsWith(RobotContainer.kSequentialSuffix)) {
+        continue;
+      }
+      final var plannedAuto =
+          auto.substring(0, auto.length() - RobotContainer.kSequentialSuffix.length());
+      final var planned = groups.get(groupName(plannedAuto, alliance));
+      if (planned == null) {
+        continue;
+      }
+
+      final double baselineDuration = averageDuration(baseline);
+      final double saved = baselineDuration - averageDuration(planned);
+      System.out.println(
+          String.format(
+              Locale.ROOT,
+              "%s saves %.2f s (%.0f %%) over the sequential baseline",
+              groupName(plannedAuto, alliance),
+              saved,
+              100.0 * saved / baselineDuration));
+    }
+  }
+
+  private static String groupName(String auto, String alliance) {
+    return auto + " (" + alliance + ")";
+  }
+
+  private static double averageDuration(List<AutoSimResult> runs) {
+    return runs.stream().mapToDouble(run -> run.m_duration).average().orElse(0.0);
+  }
+}
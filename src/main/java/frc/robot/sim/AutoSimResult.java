@@ -0,0 +1,141 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.sim;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Outcome of one simulated autonomous run.
+ *
+ * <p>Workers print the result as a single prefixed line on their standard output, the harness
+ * parses it back. Fields are separated by {@code |}, which chooser names don't use.
+ */
+public final class AutoSimResult {
+
+  public static final String kPrefix = "AUTOSIM|";
+  private static final String kSeparator = "\\|";
+
+  public final String m_auto;
+  public final String m_alliance;
+  public final long m_seed;
+  public final boolean m_finished;
+  public final double m_duration;
+  public final double m_poseError;
+  public final double m_headingError;
+  public final double m_trackingError;
+  public final double m_trackingMaxError;
+  public final double m_finalX;
+  public final double m_finalY;
+  public final double m_elevatorPeak;
+  public final Map<String, Double> m_idleTimes;
+
+  /**
+   * Creates a new AutoSimResult
+   *
+   * @param auto autonomous chooser name
+   * @param alliance simulated alliance
+   * @param seed sensor noise seed
+   * @param finished the routine ended before the autonomous period did
+   * @param duration time the routine ran (s)
+   * @param poseError final distance between the estimated and simulated poses (m)
+   * @param headingError final absolute heading error (deg)
+   * @param trackingError root mean square trajectory tracking error (m)
+   * @param trackingMaxError largest trajectory tracking error (m)
+   * @param finalX final simulated field x (m)
+   * @param finalY final simulated field y (m)
+   * @param elevatorPeak highest measured elevator height (m)
+   * @param idleTimes time each subsystem ran no command or its default one, by name (s)
+   */
+  public AutoSimResult(
+      String auto,
+      String alliance,
+      long seed,
+      boolean finished,
+      double duration,
+      double poseError,
+      double headingError,
+      double trackingError,
+      double trackingMaxError,
+      double finalX,
+      double finalY,
+      double elevatorPeak,
+      Map<String, Double> idleTimes) {
+    m_auto = auto;
+    m_alliance = alliance;
+    m_seed = seed;
+    m_finished = finished;
+    m_duration = duration;
+    m_poseError = poseError;
+    m_headingError = headingError;
+    m_trackingError = trackingError;
+    m_trackingMaxError = trackingMaxError;
+    m_finalX = finalX;
+    m_finalY = finalY;
+    m_elevatorPeak = elevatorPeak;
+    m_idleTimes = idleTimes;
+  }
+
+  /**
+   * Formats the result as a worker output line
+   *
+   * @return prefixed line
+   */
+  public String format() {
+    final var line = new StringBuilder(kPrefix);
+    line.append(String.join("|", m_auto, m_alliance, Long.toString(m_seed)));
+    line.append(
+        String.format(
+            Locale.ROOT,
+            "|%b|%.3f|%.4f|%.3f|%.4f|%.4f|%.4f|%.4f|%.4f",
+            m_finished,
+            m_duration,
+            m_poseError,
+            m_headingError,
+            m_trackingError,
+            m_trackingMaxError,
+            m_finalX,
+            m_finalY,
+            m_elevatorPeak));
+    for (final var idle : m_idleTimes.entrySet()) {
+      line.append(String.format(Locale.ROOT, "|%s=%.3f", idle.getKey(), idle.getValue()));
+    }
+    return line.toString();
+  }
+
+  /**
+   * Parses a worker output line
+   *
+   * @param line output line
+   * @return result, or null if the line is not a result
+   */
+  public static AutoSimResult parse(String line) {
+    if (!line.startsWith(kPrefix)) {
+      return null;
+    }
+
+    final var fields = line.substring(kPrefix.length()).split(kSeparator);
+    final var idleTimes = new LinkedHashMap<String, Double>();
+    for (int i = 12; i < fields.length; ++i) {
+      final var idle = fields[i].split("=");
+      idleTimes.put(idle[0], Double.parseDouble(idle[1]));
+    }
+    return new AutoSimResult(
+        fields[0],
+        fields[1],
+        Long.parseLong(fields[2]),
+        Boolean.parseBoolean(fields[3]),
+        Double.parseDouble(fields[4]),
+        Double.parseDouble(fields[5]),
+        Double.parseDouble(fields[6]),
+        Double.parseDouble(fields[7]),
+        Double.parseDouble(fields[8]),
+        Double.parseDouble(fields[9]),
+        Double.parseDouble(fields[10]),
+        Double.parseDouble(fields[11]),
+        idleTimes);
+  }
+}
@@ -0,0 +1,167 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.sim;
+
+import edu.wpi.first.hal.AllianceStationID;
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.RobotContainer;
+import frc.robot.SensorCache;
+import frc.robot.subsystems.Elevator;
+import frc.robot.subsystems.Intake;
+import java.util.LinkedHashMap;
+
+/**
+ * Runs one autonomous routine in the desktop simulation, faster than real time.
+ *
+ * <p>The HAL simulation clock is paused, then stepped one robot period at a time between scheduler
+ * runs, so a run takes as long as the robot code needs to compute it. Notifiers, like the odometry
+ * thread, fire on the simulated clock. The robot is first disabled for long enough to load the
+ * autonomous trajectories, then enabled in autonomous until the routine ends or the period does.
+ *
+ * <p>The drive acceleration feedforward is disabled when the {@code sim.accelFeedforward} system
+ * property is false, to compare the trajectory tracking with and without it. The elevator height
+ * control is selected by the {@code sim.elevatorControl} property, Profiled or SmartMotion, and the
+ * intake pivot control by the {@code sim.intakeControl} property, Quadratic or Profiled.
+ *
+ * <p>The HAL, the scheduler and the subsystems are process wide, so a worker process simulates a
+ * single run and prints its {@link AutoSimResult}. Started by {@link AutoSimHarness}.
+ */
+public final class AutoSimWorker {
+
+  // Simulation parameters
+  public static final double kPeriod = TimedRobot.kDefaultPeriod;
+  public static final double kDisabledTime = 3.0;
+  public static final double kAutoTime = 15.0;
+
+  /** Lists the autonomous chooser names, one per line */
+  public static final String kListArg = "--list";
+
+  private AutoSimWorker() {}
+
+  /**
+   * Simulates an autonomous routine
+   *
+   * @param args chooser name, alliance (Red or Blue), noise seed and noise scale, or {@code --list}
+   */
+  public static void main(String... args) {
+    if (!HAL.initialize(500, 0)) {
+      throw new IllegalStateException("Failed to initialize the HAL");
+    }
+    SimHooks.pauseTiming();
+
+    if (args.length == 1 && args[0].equals(kListArg)) {
+      for (final var auto : new RobotContainer().getAutonomousCommands().keySet()) {
+        System.out.println(AutoSimResult.kPrefix + auto);
+      }
+      System.exit(0);
+    }
+    if (args.length < 4) {
+      System.err.println("Usage: AutoSimWorker <auto> <Red|Blue> <seed> <noise scale>");
+      System.exit(1);
+    }
+
+    final var auto = args[0];
+    final var alliance = args[1];
+    final long seed = Long.parseLong(args[2]);
+    SimNoise.getInstance().configure(seed, Double.parseDouble(args[3]));
+
+    DriverStationSim.setAllianceStationId(
+        alliance.equals("Blue") ? AllianceStationID.Blue1 : AllianceStationID.Red1);
+    DriverStationSim.setDsAttached(true);
+    DriverStationSim.setAutonomous(true);
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+
+    final var container = new RobotContainer();
+    container
+        .getDriveTrain()
+        .setAccelerationFeedforward(
+            Boolean.parseBoolean(System.getProperty("sim.accelFeedforward", "true")));
+    container
+        .getElevator()
+        .setControl(
+            Elevator.Control.valueOf(
+                System.getProperty("sim.elevatorControl", Elevator.kDefaultControl.name())));
+    container
+        .getIntake()
+        .setControl(
+            Intake.Control.valueOf(
+                System.getProperty("sim.intakeControl", Intake.kDefaultControl.name())));
+    final var factory = container.getAutonomousCommands().get(auto);
+    if (factory == null) {
+      System.err.println("Unknown autonomous: " + auto);
+      System.exit(1);
+    }
+
+    // Disabled, trajectories are generated one per loop
+    for (double time = 0.0; time < kDisabledTime; time += kPeriod) {
+      container.loadAutonomousAssets();
+      step();
+    }
+
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+    DriverStation.refreshData();
+    final var command = factory.get();
+    command.schedule();
+
+    final var subsystems = container.getSubsystems();
+    final var idleTimes = new double[subsystems.size()];
+    double duration = 0.0;
+    double elevatorPeak = Double.NEGATIVE_INFINITY;
+    while (command.isScheduled() && duration < kAutoTime) {
+      step();
+      duration += kPeriod;
+      elevatorPeak = Math.max(elevatorPeak, container.getElevator().getHeight());
+
+      for (int i = 0; i < idleTimes.length; ++i) {
+        final var current = subsystems.get(i).getCurrentCommand();
+        if (current == null || current == subsystems.get(i).getDefaultCommand()) {
+          idleTimes[i] += kPeriod;
+        }
+      }
+    }
+    final boolean finished = !command.isScheduled();
+
+    final var drive = container.getDriveTrain();
+    final var estimated = drive.getPose();
+    final var simulated = drive.getSimulatedPose();
+    final var idleByName = new LinkedHashMap<String, Double>();
+    for (int i = 0; i < idleTimes.length; ++i) {
+      idleByName.put(subsystems.get(i).getClass().getSimpleName(), idleTimes[i]);
+    }
+
+    final var result =
+        new AutoSimResult(
+            auto,
+            alliance,
+            seed,
+            finished,
+            duration,
+            estimated.getTranslation().getDistance(simulated.getTranslation()),
+            Math.abs(estimated.getRotation().minus(simulated.getRotation()).getDegrees()),
+            drive.getTrackingRmsError(),
+            drive.getTrackingMaxError(),
+            simulated.getX(),
+            simulated.getY(),
+            elevatorPeak,
+            idleByName);
+    System.out.println(result.format());
+    System.exit(0);
+  }
+
+  /** Runs one robot loop, then advances the simulated clock by one period */
+  private static void step() {
+    DriverStation.refreshData();
+    SensorCache.getInstance().refresh();
+    CommandScheduler.getInstance().run();
+    SimHooks.stepTiming(kPeriod);
+  }
+}
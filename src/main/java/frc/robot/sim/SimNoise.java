@@ -0,0 +1,60 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.sim;
+
+import java.util.Random;
+
+/**
+ * Random sensor noise added by the simulated hardware.
+ *
+ * <p>Noise is disabled until {@link #configure} is called, so a plain simulation reads exact
+ * sensors. The standard deviations given by the simulated hardware are multiplied by the configured
+ * scale, and the seed makes a noisy run repeatable.
+ */
+public final class SimNoise {
+
+  private static SimNoise s_instance;
+
+  // Member objects
+  private Random m_random = new Random(0);
+
+  // Process variables
+  private double m_scale = 0.0;
+
+  private SimNoise() {}
+
+  /**
+   * Gets the simulation noise source
+   *
+   * @return noise instance
+   */
+  public static SimNoise getInstance() {
+    if (s_instance == null) {
+      s_instance = new SimNoise();
+    }
+    return s_instance;
+  }
+
+  /**
+   * Configures the noise, must be called before the simulated hardware is created
+   *
+   * @param seed random seed
+   * @param scale standard deviations multiplier, 0 disables the noise
+   */
+  public void configure(long seed, double scale) {
+    m_random = new Random(seed);
+    m_scale = scale;
+  }
+
+  /**
+   * Draws a normally distributed noise sample
+   *
+   * @param stdDev standard deviation at scale 1
+   * @return noise sample, 0 when the noise is disabled
+   */
+  public double gaussian(double stdDev) {
+    return m_scale == 0.0 ? 0.0 : m_random.nextGaussian() * stdDev * m_scale;
+  }
+}
@@ -0,0 +1,147 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import com.pathplanner.lib.PathPoint;
+import edu.wpi.first.math.trajectory.Trajectory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Generates PathPlanner trajectories on worker threads so spline and profile generation never runs
+ * on the main control loop.
+ *
+ * <p>On-the-fly requests have their own worker, background requests such as cache warm-ups run on
+ * a low priority worker and never delay them.
+ */
+public class AsyncPathPlanner {
+
+  // Planner parameters
+  private static final double kInitialLatency = 0.05;
+  private static final double kLatencyFilterGain = 0.2;
+
+  // Member objects
+  private final ExecutorService m_executor = newWorker("PathPlanning", Thread.NORM_PRIORITY);
+  private final ExecutorService m_backgroundExecutor =
+      newWorker("PathPlanningBackground", Thread.MIN_PRIORITY);
+
+  // Process variables
+  private volatile double m_expectedLatency = kInitialLatency;
+
+  /**
+   * Generates a trajectory through the given points on the on-the-fly worker thread
+   *
+   * @param constraints path velocity and acceleration constraints
+   * @param points path points, the first one being the start state
+   * @return future completed with the trajectory, or with null if there are no points
+   */
+  public CompletableFuture<PathPlannerTrajectory> generate(
+      PathConstraints constraints, List<PathPoint> points) {
+    if (points == null) {
+      return CompletableFuture.completedFuture(null);
+    }
+
+    // Measured from the request, so any wait behind a previous request is included
+    final long request = System.nanoTime();
+    return CompletableFuture.supplyAsync(
+        () -> {
+          final var trajectory = PathPlanner.generatePath(constraints, points);
+          final double latency = (System.nanoTime() - request) * 1e-9;
+          m_expectedLatency += kLatencyFilterGain * (latency - m_expectedLatency);
+          return trajectory;
+        },
+        m_executor);
+  }
+
+  /**
+   * Generates a trajectory through the given points on the low priority worker thread, for
+   * trajectories not needed right away
+   *
+   * @param constraints path velocity and acceleration constraints
+   * @param points path points, the first one being the start state
+   * @return future completed with the trajectory
+   */
+  public CompletableFuture<PathPlannerTrajectory> generateInBackground(
+      PathConstraints constraints, List<PathPoint> points) {
+    return CompletableFuture.supplyAsync(
+        () -> PathPlanner.generatePath(constraints, points), m_backgroundExecutor);
+  }
+
+  /**
+   * Gets the expected time between an on-the-fly request and the trajectory being available
+   *
+   * @return filtered request latency (s)
+   */
+  public double getExpectedLatency() {
+    return m_expectedLatency;
+  }
+
+  /**
+   * Drops the beginning of a trajectory the robot already drove through.
+   *
+   * <p>Used when a trajectory starting at a projected state arrives later than projected: the robot
+   * kept moving along the start velocity meanwhile, so following starts that much further.
+   *
+   * @param trajectory trajectory to skip into, left unchanged
+   * @param time time to skip from the start (s)
+   * @return trajectory starting at the given time, the same trajectory if there is nothing to skip
+   */
+  public static PathPlannerTrajectory skipAhead(PathPlannerTrajectory trajectory, double time) {
+    if (time <= 0.0) {
+      return trajectory;
+    }
+    time = Math.min(time, trajectory.getTotalTimeSeconds());
+
+    final var states = new ArrayList<Trajectory.State>();
+    states.add(shifted(trajectory.sample(time), time));
+    for (final var state : trajectory.getStates()) {
+      if (state.timeSeconds > time) {
+        states.add(shifted((PathPlannerState) state, time));
+      }
+    }
+    return new PathPlannerTrajectory(
+        states, Collections.emptyList(), new StopEvent(), new StopEvent(), false);
+  }
+
+  /**
+   * Copies a trajectory state earlier in time, the trajectory states are shared with its other
+   * users
+   *
+   * @param state state to copy
+   * @param time time to move the copy back by (s)
+   * @return moved copy
+   */
+  private static PathPlannerState shifted(PathPlannerState state, double time) {
+    final var copy = new PathPlannerState();
+    copy.timeSeconds = state.timeSeconds - time;
+    copy.poseMeters = state.poseMeters;
+    copy.velocityMetersPerSecond = state.velocityMetersPerSecond;
+    copy.accelerationMetersPerSecondSq = state.accelerationMetersPerSecondSq;
+    copy.curvatureRadPerMeter = state.curvatureRadPerMeter;
+    copy.holonomicRotation = state.holonomicRotation;
+    copy.angularVelocityRadPerSec = state.angularVelocityRadPerSec;
+    copy.holonomicAngularVelocityRadPerSec = state.holonomicAngularVelocityRadPerSec;
+    return copy;
+  }
+
+  private static ExecutorService newWorker(String name, int priority) {
+    return Executors.newSingleThreadExecutor(
+        runnable -> {
+          final var thread = new Thread(runnable, name);
+          thread.setDaemon(true);
+          thread.setPriority(priority);
+          return thread;
+        });
+  }
+}
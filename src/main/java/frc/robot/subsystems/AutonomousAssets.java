@@ -0,0 +1,237 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Filesystem;
+import frc.robot.RobotLogger;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Autonomous trajectories loaded ahead of time, for both alliances.
+ *
+ * <p>Every deployed path planner file and every registered generated path is parsed or generated
+ * while the robot is disabled, one asset per call to {@link #loadNext()}, and kept in memory
+ * already transformed for each alliance. Getting a loaded trajectory does no file access and no
+ * spline math.
+ */
+public class AutonomousAssets {
+
+  // Loader parameters
+  public static final PathConstraints kDeployedConstraints = new PathConstraints(2, 2);
+  static final String kPathExtension = ".path";
+  private static final String kPackedDirectory = "pathplanner/packed";
+  // Approximate heap size of one trajectory state with its pose and rotation objects (bytes)
+  private static final int kStateBytes = 232;
+
+  private static final Alliance[] kAlliances = {Alliance.Blue, Alliance.Red};
+
+  // Member objects
+  private final Map<String, Supplier<PathPlannerTrajectory[]>> m_loaders = new LinkedHashMap<>();
+  private final Queue<String> m_pending = new ArrayDeque<>();
+  private final Map<String, PathPlannerTrajectory[]> m_trajectories = new HashMap<>();
+  private final int m_logEntry = RobotLogger.getInstance().addString("AutonomousAssets");
+
+  // Process variables
+  private double m_totalLoadTime = 0.0;
+  private long m_totalBytes = 0;
+
+  /** Creates a new AutonomousAssets, queuing every path found in the deploy directory */
+  public AutonomousAssets() {
+    final var files = new File(Filesystem.getDeployDirectory(), "pathplanner").listFiles();
+    if (files == null) {
+      return;
+    }
+
+    for (final var file : files) {
+      final var fileName = file.getName();
+      if (fileName.endsWith(kPathExtension)) {
+        this.registerDeployed(fileName.substring(0, fileName.length() - kPathExtension.length()));
+      }
+    }
+  }
+
+  /**
+   * Queues a generated trajectory to be loaded, the generator is called once per alliance
+   *
+   * @param name trajectory name
+   * @param generator creates the trajectory for an alliance
+   */
+  public void register(String name, Function<Alliance, PathPlannerTrajectory> generator) {
+    this.queue(
+        name,
+        () -> {
+          final var trajectories = new PathPlannerTrajectory[kAlliances.length];
+          for (int i = 0; i < kAlliances.length; ++i) {
+            trajectories[i] = generator.apply(kAlliances[i]);
+          }
+          return trajectories;
+        });
+  }
+
+  /**
+   * Queues a deployed trajectory to be loaded, the file is read once then flipped for the red
+   * alliance
+   *
+   * <p>The packed trajectory generated at build time is used when deployed, sampled straight from
+   * the mapped file, otherwise the path planner file is parsed.
+   *
+   * @param name path planner file name without extension
+   */
+  public void registerDeployed(String name) {
+    this.queue(
+        name,
+        () -> {
+          final var packed = loadPacked(name);
+          final var trajectory =
+              packed == null ? PathPlanner.loadPath(name, kDeployedConstraints) : null;
+          final var trajectories = new PathPlannerTrajectory[kAlliances.length];
+          for (int i = 0; i < kAlliances.length; ++i) {
+            trajectories[i] =
+                packed != null
+                    ? packed.asTrajectory(kAlliances[i] == Alliance.Red)
+                    : PathPlannerTrajectory.transformTrajectoryForAlliance(
+                        trajectory, kAlliances[i]);
+          }
+          return trajectories;
+        });
+  }
+
+  /**
+   * Queues a trajectory loader
+   *
+   * @param name trajectory name
+   * @param loader creates the trajectories indexed like {@link #kAlliances}
+   */
+  private void queue(String name, Supplier<PathPlannerTrajectory[]> loader) {
+    if (m_loaders.put(name, loader) == null) {
+      m_pending.add(name);
+    }
+  }
+
+  /**
+   * Loads the next queued trajectory for both alliances
+   *
+   * @return true if every registered trajectory is loaded
+   */
+  public boolean loadNext() {
+    final var name = m_pending.poll();
+    if (name == null) {
+      return true;
+    }
+
+    final var start = System.nanoTime();
+    final var trajectories = m_loaders.get(name).get();
+    final var loadTime = (System.nanoTime() - start) * 1e-9;
+    m_trajectories.put(name, trajectories);
+
+    long bytes = 0;
+    for (final var trajectory : trajectories) {
+      if (!(trajectory instanceof PackedTrajectory.MappedTrajectory)) {
+        bytes += (long) trajectory.getStates().size() * kStateBytes;
+      }
+    }
+    m_totalLoadTime += loadTime;
+    m_totalBytes += bytes;
+
+    final var logger = RobotLogger.getInstance();
+    logger.log(
+        m_logEntry,
+        String.format(
+            Locale.ROOT,
+            "Loaded auto path \"%s\" in %.1f ms, %d states, ~%d kB on the heap",
+            name,
+            loadTime * 1e3,
+            trajectories[0].getStates().size(),
+            bytes / 1024));
+    if (m_pending.isEmpty()) {
+      logger.log(
+          m_logEntry,
+          String.format(
+              Locale.ROOT,
+              "Loaded %d auto paths in %.1f ms, ~%d kB on the heap",
+              m_trajectories.size(),
+              m_totalLoadTime * 1e3,
+              m_totalBytes / 1024));
+    }
+    return m_pending.isEmpty();
+  }
+
+  /**
+   * Gets a trajectory for the current alliance
+   *
+   * @param name trajectory name
+   * @return trajectory for the current alliance
+   */
+  public PathPlannerTrajectory get(String name) {
+    return this.get(name, DriverStation.getAlliance());
+  }
+
+  /**
+   * Gets a trajectory for an alliance, loading it immediately if it was not preloaded
+   *
+   * @param name trajectory name
+   * @param alliance alliance to get the trajectory for, invalid is treated as blue
+   * @return trajectory for the alliance
+   */
+  public PathPlannerTrajectory get(String name, Alliance alliance) {
+    var trajectories = m_trajectories.get(name);
+    if (trajectories == null) {
+      final var loader = m_loaders.get(name);
+      if (loader == null) {
+        throw new IllegalArgumentException("Unknown auto path: " + name);
+      }
+
+      DriverStation.reportWarning("Auto path \"" + name + "\" was not preloaded", false);
+      m_pending.remove(name);
+      trajectories = loader.get();
+      m_trajectories.put(name, trajectories);
+    }
+    return trajectories[alliance == Alliance.Red ? 1 : 0];
+  }
+
+  /**
+   * Maps the packed version of a deployed trajectory
+   *
+   * @param name path planner file name without extension
+   * @return packed trajectory, null if there is none generated with the deployed constraints
+   */
+  private static PackedTrajectory loadPacked(String name) {
+    final var packedFile =
+        new File(
+            Filesystem.getDeployDirectory(),
+            kPackedDirectory + "/" + name + PackedTrajectory.kExtension);
+    if (!packedFile.exists()) {
+      return null;
+    }
+
+    try {
+      final var packed = PackedTrajectory.load(packedFile);
+      final var constraints = packed.getConstraints();
+      if (constraints.maxVelocity == kDeployedConstraints.maxVelocity
+          && constraints.maxAcceleration == kDeployedConstraints.maxAcceleration) {
+        return packed;
+      }
+      DriverStation.reportWarning(
+          "Packed auto path \"" + name + "\" was generated with other constraints", false);
+    } catch (IOException e) {
+      DriverStation.reportError(e.getMessage(), false);
+    }
+    return null;
+  }
+}
@@ -4,60 +4,64 @@
 
 package frc.robot.subsystems;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import edu.wpi.first.wpilibj.Servo;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
+import frc.robot.LoopProfiler;
 import frc.robot.RobotContainer;
 import frc.robot.subsystems.Wheels.WheelLevel;
 
 public class BuddyClimb extends SubsystemBase {
 
-  private static final int buddyLeftId = 10;
-  private static final int buddyRightId = 9;
-
   private boolean m_isBuddyClimbActivated = false;
 
-  private CANSparkMax m_buddyLeft = new CANSparkMax(buddyLeftId, MotorType.kBrushless);
-  private CANSparkMax m_buddyRight = new CANSparkMax(buddyRightId, MotorType.kBrushless);
-
-  private Servo m_yeetScrew = new Servo(0);
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+  private final BuddyClimbIO m_io;
 
   private Intake m_intake;
   private Wheels m_wheels;
   private Elevator m_elevator;
 
-  /** Creates a new BuddyClimb. */
+  /** Creates a new BuddyClimb, simulated when not running on the robot. */
   public BuddyClimb(Intake intake, Wheels wheels, Elevator elevator) {
+    this(
+        intake,
+        wheels,
+        elevator,
+        RobotBase.isReal() ? new BuddyClimbIOSparkMax() : new BuddyClimbIOSim());
+  }
+
+  /**
+   * Creates a new BuddyClimb
+   *
+   * @param intake intake stopped when climbing
+   * @param wheels wheels stopped when climbing
+   * @param elevator elevator stopped when climbing
+   * @param io buddy climb hardware
+   */
+  public BuddyClimb(Intake intake, Wheels wheels, Elevator elevator, BuddyClimbIO io) {
 
     m_intake = intake;
     m_wheels = wheels;
     m_elevator = elevator;
-
-    m_buddyLeft.restoreFactoryDefaults();
-    m_buddyRight.restoreFactoryDefaults();
-
-    m_buddyLeft.setInverted(true);
-
-    m_buddyLeft.burnFlash();
-    m_buddyRight.burnFlash();
+    m_io = io;
   }
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
     // This method will be called once per scheduler run
 
     if (m_isBuddyClimbActivated) {
-      m_buddyLeft.set(
-          RobotContainer.getCoPilot().getLeftTriggerAxis()
-              - RobotContainer.getCoPilot().getRightTriggerAxis());
-      m_buddyRight.set(
+      m_io.set(
           RobotContainer.getCoPilot().getLeftTriggerAxis()
               - RobotContainer.getCoPilot().getRightTriggerAxis());
     }
+
+    m_profilerSection.end();
   }
 
   public Command activate() {
@@ -67,8 +71,8 @@ public class BuddyClimb extends SubsystemBase {
             () -> {
               m_isBuddyClimbActivated = true;
             }),
-        this.runOnce(() -> m_yeetScrew.setRaw(1))
-            .andThen(new WaitCommand(15).andThen(() -> m_yeetScrew.setRaw(0))));
+        this.runOnce(() -> m_io.setScrewRaw(1))
+            .andThen(new WaitCommand(15).andThen(() -> m_io.setScrewRaw(0))));
   }
 
   /**
@@ -0,0 +1,22 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/** Buddy climb hardware, two winches and the servo releasing the ramp screw */
+public interface BuddyClimbIO {
+  /**
+   * Sets both winch motors output
+   *
+   * @param percent output (-1, 1)
+   */
+  public void set(double percent);
+
+  /**
+   * Sets the screw servo raw PWM value
+   *
+   * @param value raw PWM value
+   */
+  public void setScrewRaw(int value);
+}
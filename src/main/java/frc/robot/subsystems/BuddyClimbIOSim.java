@@ -0,0 +1,31 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/** Simulated buddy climb, only keeps the commanded outputs since nothing is climbed */
+public class BuddyClimbIOSim implements BuddyClimbIO {
+
+  // Process variables
+  private double m_percent = 0.0;
+  private int m_screwRaw = 0;
+
+  @Override
+  public void set(double percent) {
+    m_percent = percent;
+  }
+
+  @Override
+  public void setScrewRaw(int value) {
+    m_screwRaw = value;
+  }
+
+  public double getPercent() {
+    return m_percent;
+  }
+
+  public int getScrewRaw() {
+    return m_screwRaw;
+  }
+}
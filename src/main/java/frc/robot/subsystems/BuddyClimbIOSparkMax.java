@@ -0,0 +1,51 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import edu.wpi.first.wpilibj.Servo;
+import frc.robot.CanBudget;
+
+/** Buddy climb winches driven by two Spark Max, with a servo on PWM 0 */
+public class BuddyClimbIOSparkMax implements BuddyClimbIO {
+
+  // Hardware parameters
+  private static final int buddyLeftId = 10;
+  private static final int buddyRightId = 9;
+
+  // Member objects
+  private CANSparkMax m_buddyLeft = new CANSparkMax(buddyLeftId, MotorType.kBrushless);
+  private CANSparkMax m_buddyRight = new CANSparkMax(buddyRightId, MotorType.kBrushless);
+
+  private Servo m_yeetScrew = new Servo(0);
+
+  /** Creates a new BuddyClimbIOSparkMax. */
+  public BuddyClimbIOSparkMax() {
+
+    m_buddyLeft.restoreFactoryDefaults();
+    m_buddyRight.restoreFactoryDefaults();
+
+    m_buddyLeft.setInverted(true);
+
+    // Winches run open loop, none of their signals are read
+    CanBudget.getInstance().configure(m_buddyLeft, CanBudget.kSparkMaxUnused, true);
+    CanBudget.getInstance().configure(m_buddyRight, CanBudget.kSparkMaxUnused, true);
+
+    m_buddyLeft.burnFlash();
+    m_buddyRight.burnFlash();
+  }
+
+  @Override
+  public void set(double percent) {
+    m_buddyLeft.set(percent);
+    m_buddyRight.set(percent);
+  }
+
+  @Override
+  public void setScrewRaw(int value) {
+    m_yeetScrew.setRaw(value);
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.numbers.N3;
+import java.util.Arrays;
+
+/**
+ * Fits the drive feedforward gains of each swerve module from voltage ramp and step samples.
+ *
+ * <p>Fits {@code V = kS sgn(v) + kV v + kA a} with a {@link FeedforwardFit} per module.
+ * Quasistatic ramps mostly constrain kS and kV, dynamic steps kA. Samples close to standstill are
+ * dropped, the static friction is not modeled there.
+ */
+public class DriveCharacterization {
+
+  // Characterization parameters
+  private static final double kMinSpeed = 0.05;
+
+  // Member objects
+  private final FeedforwardFit<N3>[] m_fits;
+
+  // Process variables, previous sample of each module
+  private final double[] m_lastVolts;
+  private final double[] m_lastSpeeds;
+  private final double[] m_lastTimes;
+
+  /**
+   * Creates a new DriveCharacterization
+   *
+   * @param moduleCount number of characterized modules
+   */
+  @SuppressWarnings("unchecked")
+  public DriveCharacterization(int moduleCount) {
+    m_fits = new FeedforwardFit[moduleCount];
+    m_lastVolts = new double[moduleCount];
+    m_lastSpeeds = new double[moduleCount];
+    m_lastTimes = new double[moduleCount];
+    for (int i = 0; i < moduleCount; ++i) {
+      m_fits[i] = new FeedforwardFit<>(Nat.N3());
+    }
+    this.restart();
+  }
+
+  /** Starts a new ramp or step, the next update of each module only records its state */
+  public void restart() {
+    Arrays.fill(m_lastTimes, -1.0);
+  }
+
+  /**
+   * Adds the sample since the previous update of a module, then records the applied voltage
+   *
+   * @param module module index
+   * @param speed measured wheel speed (m/s)
+   * @param timestamp measurement time (s)
+   * @param volts drive voltage applied until the next update
+   */
+  public void update(int module, double speed, double timestamp, double volts) {
+    final double dt = timestamp - m_lastTimes[module];
+    if (m_lastTimes[module] >= 0.0 && dt > 0.0) {
+      this.add(
+          module,
+          m_lastVolts[module],
+          0.5 * (speed + m_lastSpeeds[module]),
+          (speed - m_lastSpeeds[module]) / dt);
+    }
+    m_lastVolts[module] = volts;
+    m_lastSpeeds[module] = speed;
+    m_lastTimes[module] = timestamp;
+  }
+
+  /**
+   * Adds a sample
+   *
+   * @param module module index
+   * @param volts drive voltage applied over the sample
+   * @param speed mean wheel speed over the sample (m/s)
+   * @param accel wheel acceleration over the sample (m/s^2)
+   */
+  public void add(int module, double volts, double speed, double accel) {
+    if (Math.abs(speed) < kMinSpeed) {
+      return;
+    }
+
+    m_fits[module].add(volts, Math.signum(speed), speed, accel);
+  }
+
+  /**
+   * Gets the number of samples used by a module fit
+   *
+   * @param module module index
+   * @return sample count
+   */
+  public int getSampleCount(int module) {
+    return m_fits[module].getSampleCount();
+  }
+
+  /**
+   * Fits the drive feedforward of a module
+   *
+   * @param module module index
+   * @return fitted feedforward, or null if the samples don't constrain every gain
+   */
+  public SimpleMotorFeedforward fit(int module) {
+    final var gains = m_fits[module].solve();
+    if (gains == null) {
+      return null;
+    }
+    return new SimpleMotorFeedforward(gains.get(0, 0), gains.get(1, 0), gains.get(2, 0));
+  }
+}
@@ -12,32 +12,49 @@ import com.pathplanner.lib.commands.PPSwerveControllerCommand;
 import com.pathplanner.lib.server.PathPlannerServer;
 import edu.wpi.first.math.MathUtil;
 import edu.wpi.first.math.controller.PIDController;
-import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
 import edu.wpi.first.math.filter.LinearFilter;
 import edu.wpi.first.math.filter.SlewRateLimiter;
 import edu.wpi.first.math.geometry.Pose2d;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.geometry.Twist2d;
 import edu.wpi.first.math.kinematics.ChassisSpeeds;
 import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
-import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 import edu.wpi.first.wpilibj.ADXRS450_Gyro;
 import edu.wpi.first.wpilibj.BuiltInAccelerometer;
 import edu.wpi.first.wpilibj.DriverStation;
 import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.RobotBase;
 import edu.wpi.first.wpilibj.SPI.Port;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj.Timer;
 import edu.wpi.first.wpilibj.interfaces.Accelerometer;
+import edu.wpi.first.wpilibj.interfaces.Gyro;
 import edu.wpi.first.wpilibj.smartdashboard.Field2d;
 import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
+import edu.wpi.first.wpilibj2.command.ProxyCommand;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.LogRingBuffer;
+import frc.robot.LoopProfiler;
+import frc.robot.RobotLogger;
+import frc.robot.Telemetry;
+import frc.robot.Telemetry.Rate;
+import frc.robot.commands.FollowAsyncPathCommand;
+import frc.robot.subsystems.SimSwerveModule.SimSwerveModuleFactory;
 import frc.robot.subsystems.Vision.Vision;
+import frc.robot.subsystems.Vision.VisionGate;
 import frc.robot.subsystems.Vision.VisionMeasurement;
 import frc.robot.subsystems.WCPSwerveModule.WCPSwerveModuleFactory;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
 
 public class DriveTrain extends SubsystemBase {
 
@@ -59,6 +76,18 @@ public class DriveTrain extends SubsystemBase {
 
   public static final double kJoystickDeadband = 0.15;
 
+  // Chassis speeds are discretized over the loop period plus this steering lag (s), increase it if
+  // the robot still skews when translating while rotating because the modules steer too slowly
+  private static final double kSteerLag = 0.0;
+
+  // Drive characterization, quasistatic ramps then dynamic steps, forward then backward
+  private static final double kQuasistaticRampRate = 1.0;
+  private static final double kQuasistaticTime = 5.0;
+  private static final double kDynamicStepVolts = 4.0;
+  private static final double kDynamicTime = 1.5;
+  private static final double kCharacterizationRestTime = 1.0;
+  private static final Rotation2d kCharacterizationAngle = new Rotation2d();
+
   public static final double kHoloKP = 2.0;
   public static final double kHoloKI = 0.0;
   public static final double kHoloKD = 0.0;
@@ -79,16 +108,55 @@ public class DriveTrain extends SubsystemBase {
 
   public static final int kPathServerPort = 5811;
 
-  // Member objects
-  private final SwerveModuleFactory m_moduleFactory = new WCPSwerveModuleFactory();
-  private final SwerveModule[] m_modules = m_moduleFactory.createModules();
-  private final SwerveDriveKinematics m_kinematics =
-      new SwerveDriveKinematics(m_moduleFactory.getLocations());
+  public static final PathConstraints kIntakeConstraints = new PathConstraints(2, 2);
+  public static final PathConstraints kScoringConstraints = new PathConstraints(3, 3);
+
+  // Scoring trajectory cache, one entry per alliance, charge station side and grid slot
+  private static final double[] kScoringWaypointsY = {4.75, 0.75};
+  public static final int kScoringSlotCount = 9;
+  public static final double kScoringCacheEntrySpeed = 1.5;
 
-  private final ADXRS450_Gyro m_gyro = new ADXRS450_Gyro(Port.kOnboardCS0);
-  private final SwerveDrivePoseEstimator m_odometry =
-      new SwerveDrivePoseEstimator(
-          m_kinematics, m_gyro.getRotation2d(), this.getModulePositions(), new Pose2d());
+  // Generated autonomous trajectories, preloaded while disabled
+  public static final String kAutoBalancePath = "auto balance";
+  public static final String kAutoIntakeFirstPath = "auto intake first";
+  public static final String kAutoIntakeSecondPath = "auto intake second";
+
+  // Replayed log entries, odometry inputs are sampled at the odometry thread rate
+  public static final String kAccelLogEntry = "DriveTrain/Accel X";
+  public static final String kResetLogEntry = "DriveTrain/Reset";
+  private static final int kOdometryLogCapacity = 1024;
+
+  // ADXRS450 rate filter delay, the odometry extrapolates the gyro angle by it (s)
+  private static final double kGyroLatency = 0.002;
+
+  // Member objects
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+  private final LoopProfiler.Section m_modulesProfilerSection =
+      LoopProfiler.getInstance().register("DriveTrain modules");
+  private final Telemetry.BooleanSignal m_visionReadingSignal =
+      Telemetry.getInstance().addBoolean("vision reading", Rate.High);
+  private final int m_measuredStatesLogEntry =
+      RobotLogger.getInstance().addDoubleArray("DriveTrain/Measured states");
+  private final int m_commandedStatesLogEntry =
+      RobotLogger.getInstance().addDoubleArray("DriveTrain/Commanded states");
+  private final int m_gyroLogEntry = RobotLogger.getInstance().addDouble("DriveTrain/Gyro");
+  private final int m_poseLogEntry = RobotLogger.getInstance().addDoubleArray("DriveTrain/Pose");
+  private final int m_visionLogEntry = RobotLogger.getInstance().addDoubleArray("Vision/Samples");
+  private final int m_accelLogEntry = RobotLogger.getInstance().addDouble(kAccelLogEntry);
+  private final int m_resetLogEntry = RobotLogger.getInstance().addDoubleArray(kResetLogEntry);
+  private final int m_characterizationLogEntry =
+      RobotLogger.getInstance().addString("DriveTrain/Characterization");
+  private final int m_trackingLogEntry =
+      RobotLogger.getInstance().addDoubleArray("DriveTrain/Tracking error");
+  private final double[] m_logValues = new double[LogRingBuffer.kMaxValues];
+  private final SwerveModule[] m_modules;
+  private final SwerveModuleState[] m_measuredStates;
+  private final SwerveModuleState[] m_simulatedStates;
+  private final SwerveDriveKinematics m_kinematics;
+
+  private final Gyro m_gyro;
+  private final OdometryThread m_odometry;
 
   Accelerometer m_accelerometer = new BuiltInAccelerometer();
 
@@ -99,89 +167,193 @@ public class DriveTrain extends SubsystemBase {
   private Field2d m_field = new Field2d();
 
   private final Vision m_vision;
+  private final PoseFusion m_fusion;
+  private final AsyncPathPlanner m_planner = new AsyncPathPlanner();
+  private final TrajectoryCache m_scoringCache =
+      new TrajectoryCache(Alliance.values().length * kScoringWaypointsY.length * kScoringSlotCount);
+  private final AutonomousAssets m_autoAssets = new AutonomousAssets();
 
   LinearFilter m_xAccel = LinearFilter.movingAverage(30);
 
   // Process variables
-  private double m_lastVisionTimestamp = -1.0;
-  private Command m_scoringCommand = Commands.none();
-
-  /** Creates a new DriveTrain. */
+  private Alliance m_scoringCacheAlliance = Alliance.Invalid;
+  private Pose2d m_simulatedPose = new Pose2d();
+  private boolean m_accelFeedforward = true;
+  private double m_trackingSquareSum = 0.0;
+  private double m_trackingMaxError = 0.0;
+  private int m_trackingCount = 0;
+  // Planning latency the last on-the-fly start was projected by (s)
+  private double m_onTheFlyProjection = 0.0;
+
+  /** Creates a new DriveTrain, simulated when not running on the robot. */
   public DriveTrain(Vision vision) {
+    this(
+        vision,
+        RobotBase.isReal() ? new WCPSwerveModuleFactory() : new SimSwerveModuleFactory(),
+        RobotBase.isReal() ? new ADXRS450_Gyro(Port.kOnboardCS0) : new SimGyro());
+  }
+
+  /**
+   * Creates a new DriveTrain
+   *
+   * @param vision vision providing pose measurements
+   * @param moduleFactory creates the swerve modules
+   * @param gyro robot gyro
+   */
+  public DriveTrain(Vision vision, SwerveModuleFactory moduleFactory, Gyro gyro) {
 
     m_vision = vision;
+    m_modules = moduleFactory.createModules();
+    m_kinematics = new SwerveDriveKinematics(moduleFactory.getLocations());
+    m_gyro = gyro;
+    m_odometry = new OdometryThread(m_modules, m_gyro, m_kinematics);
+    if (gyro instanceof ADXRS450_Gyro) {
+      m_odometry.setGyroLatency(kGyroLatency);
+    }
+    m_fusion = new PoseFusion(m_odometry, new VisionGate());
+
+    m_measuredStates = new SwerveModuleState[m_modules.length];
+    m_simulatedStates = new SwerveModuleState[m_modules.length];
+    for (int i = 0; i < m_measuredStates.length; ++i) {
+      m_measuredStates[i] = new SwerveModuleState();
+      m_simulatedStates[i] = new SwerveModuleState();
+    }
 
     // Reset gyro on code startup (Required as odometry starts at 0)
     m_gyro.calibrate();
     m_gyro.reset();
+    m_odometry.recordInputs(
+        RobotLogger.getInstance().addProducer(kOdometryLogCapacity),
+        RobotLogger.getInstance().addDoubleArray(OdometryThread.kInputsLogEntry));
     // Run path planning server
     PathPlannerServer.startServer(kPathServerPort);
     SmartDashboard.putData("field", m_field);
+    PPSwerveControllerCommand.setLoggingCallbacks(null, null, null, this::logTrackingError);
+    Telemetry.getInstance().addPeriodic(() -> m_field.setRobotPose(this.getPose()), Rate.High);
+
+    m_autoAssets.register(kAutoBalancePath, DriveTrain::autoPathBalance);
+    m_autoAssets.register(kAutoIntakeFirstPath, alliance -> autoPathIntake(alliance, true));
+    m_autoAssets.register(kAutoIntakeSecondPath, alliance -> autoPathIntake(alliance, false));
   }
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
     // Call module periodic
-    filteredX = m_xAccel.calculate(m_accelerometer.getX());
+    final double accelX = m_accelerometer.getX();
+    filteredX = m_xAccel.calculate(accelX);
+    RobotLogger.getInstance().log(m_accelLogEntry, accelX);
 
+    m_modulesProfilerSection.begin();
     for (final var module : m_modules) {
       module.periodic();
     }
+    m_modulesProfilerSection.end();
 
-    // Update odometry on each code loop
-    m_odometry.update(m_gyro.getRotation2d(), this.getModulePositions());
-
-    // Add vision measurement if it's available
-    VisionMeasurement visionMes = m_vision.getMeasurement();
-    if (visionMes != null && visionMes.m_timestamp != m_lastVisionTimestamp) {
-      Pose2d visionPose;
-
-      if (m_odometry.getEstimatedPosition().getRotation().getDegrees() > 90
-          || m_odometry.getEstimatedPosition().getRotation().getDegrees() < -90) {
-        visionPose =
-            new Pose2d(
-                visionMes.m_pose.getTranslation(),
-                visionMes.m_pose.getRotation().rotateBy(Rotation2d.fromDegrees(180)));
-      } else {
-        visionPose = new Pose2d(visionMes.m_pose.getTranslation(), visionMes.m_pose.getRotation());
-      }
+    // Start sampling odometry once modules have homed on their first periodic
+    m_odometry.start();
 
-      if (m_lastVisionTimestamp < 0.0) {
-        // Reset odometry to vision measurement on first observation
-        m_odometry.resetPosition(m_gyro.getRotation2d(), this.getModulePositions(), visionPose);
-      } else {
-        m_odometry.addVisionMeasurement(visionPose, visionMes.m_timestamp);
-        m_odometry.addVisionMeasurement(visionPose, visionMes.m_timestamp);
-        m_odometry.addVisionMeasurement(visionPose, visionMes.m_timestamp);
-        m_odometry.addVisionMeasurement(visionPose, visionMes.m_timestamp);
-      }
-      m_lastVisionTimestamp = visionMes.m_timestamp;
+    // Pre-generate scoring trajectories while disabled, once the alliance is known
+    final var alliance = DriverStation.getAlliance();
+    if (DriverStation.isDisabled()
+        && alliance != Alliance.Invalid
+        && alliance != m_scoringCacheAlliance) {
+      this.warmUpScoringCache(alliance);
+      m_scoringCacheAlliance = alliance;
+    }
+
+    // Fuse every vision measurement received since the last loop
+    VisionMeasurement visionMes;
+    while ((visionMes = m_vision.pollMeasurement()) != null) {
+      this.addVisionMeasurement(visionMes);
+    }
+
+    final var snapshot = m_odometry.getSnapshot();
+    m_hadRecentVision = snapshot.m_hasRecentVision;
+
+    m_visionReadingSignal.set(m_hadRecentVision);
+
+    // Log measured module states, gyro and fused pose
+    for (int i = 0; i < m_modules.length; ++i) {
+      m_modules[i].updateState(m_measuredStates[i]);
+    }
+    this.logModuleStates(m_measuredStatesLogEntry, m_measuredStates);
+    RobotLogger.getInstance().log(m_gyroLogEntry, m_gyro.getAngle());
+    m_logValues[0] = snapshot.m_pose.getX();
+    m_logValues[1] = snapshot.m_pose.getY();
+    m_logValues[2] = snapshot.m_pose.getRotation().getRadians();
+    RobotLogger.getInstance().log(m_poseLogEntry, m_logValues, 3);
+
+    m_profilerSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    for (final var module : m_modules) {
+      module.simulate(TimedRobot.kDefaultPeriod);
     }
-    m_hadRecentVision = (Timer.getFPGATimestamp() - m_lastVisionTimestamp < 0.5);
 
-    SmartDashboard.putBoolean("vision reading", m_hadRecentVision);
+    // Integrate the simulated robot pose and gyro from the noise free module speeds
+    for (int i = 0; i < m_modules.length; ++i) {
+      m_modules[i].updateSimulatedState(m_simulatedStates[i]);
+    }
+    final var speeds = m_kinematics.toChassisSpeeds(m_simulatedStates);
+    final double dt = TimedRobot.kDefaultPeriod;
+    m_simulatedPose =
+        m_simulatedPose.exp(
+            new Twist2d(
+                speeds.vxMetersPerSecond * dt,
+                speeds.vyMetersPerSecond * dt,
+                speeds.omegaRadiansPerSecond * dt));
+    if (m_gyro instanceof SimGyro) {
+      ((SimGyro) m_gyro).simulate(dt, speeds.omegaRadiansPerSecond);
+    }
+  }
 
-    m_field.setRobotPose(m_odometry.getEstimatedPosition());
+  /**
+   * Gets the simulated robot pose, the ground truth the estimated pose can be compared to
+   *
+   * <p>Odometry resets from commands place the simulated robot, vision resets do not.
+   *
+   * @return Field relative simulated robot pose, the origin on hardware
+   */
+  public Pose2d getSimulatedPose() {
+    return m_simulatedPose;
   }
+
   /**
-   * Gets the current position of all modules
+   * Fuses a vision measurement into the pose estimator
    *
-   * @return array of module positions
+   * @param visionMes vision measurement
    */
-  private SwerveModulePosition[] getModulePositions() {
-    var positions = new SwerveModulePosition[m_modules.length];
-    for (int i = 0; i < positions.length; ++i) {
-      positions[i] = m_modules[i].getPosition();
-    }
-    return positions;
+  private void addVisionMeasurement(VisionMeasurement visionMes) {
+    final var result = m_fusion.add(visionMes);
+
+    // Log capture time, pose, tag distance and gate result
+    final var visionPose = m_fusion.getLastVisionPose();
+    m_logValues[0] = visionMes.m_timestamp;
+    m_logValues[1] = visionPose.getX();
+    m_logValues[2] = visionPose.getY();
+    m_logValues[3] = visionPose.getRotation().getRadians();
+    m_logValues[4] = visionMes.m_tagDistance;
+    m_logValues[5] = result.ordinal();
+    RobotLogger.getInstance().log(m_visionLogEntry, m_logValues, 6);
   }
 
-  private SwerveModuleState[] getModuleStates() {
-    var states = new SwerveModuleState[m_modules.length];
-    for (int i = 0; i < states.length; ++i) {
-      states[i] = m_modules[i].getState();
+  /**
+   * Resets the odometry to a pose, logged for replay
+   *
+   * @param pose field relative robot pose
+   */
+  private void resetOdometry(Pose2d pose) {
+    m_logValues[0] = pose.getX();
+    m_logValues[1] = pose.getY();
+    m_logValues[2] = pose.getRotation().getRadians();
+    RobotLogger.getInstance().log(m_resetLogEntry, m_logValues, 3);
+    m_odometry.resetPosition(pose);
+    if (RobotBase.isSimulation()) {
+      m_simulatedPose = pose;
     }
-    return states;
   }
 
   /**
@@ -194,17 +366,67 @@ public class DriveTrain extends SubsystemBase {
    */
   private void drive(double xSpeed, double ySpeed, double rotSpeed, boolean fieldRelative) {
     rotSpeed = Math.toRadians(rotSpeed);
+    this.drive(
+        fieldRelative
+            ? ChassisSpeeds.fromFieldRelativeSpeeds(
+                xSpeed, ySpeed, rotSpeed, m_odometry.getPose().getRotation())
+            : new ChassisSpeeds(xSpeed, ySpeed, rotSpeed));
+  }
+
+  /**
+   * Drives the robot in closed-loop velocity, discretizing the speeds over the loop period
+   *
+   * @param speeds Robot relative chassis speeds
+   */
+  public void drive(ChassisSpeeds speeds) {
+    this.drive(speeds, 0.0, 0.0);
+  }
+
+  /**
+   * Drives the robot in closed-loop velocity, discretizing the speeds over the loop period and
+   * feeding the chassis acceleration forward to the modules
+   *
+   * <p>Each wheel is fed the acceleration component along its direction, the rotation contribution
+   * is neglected.
+   *
+   * @param speeds Robot relative chassis speeds
+   * @param accelX Robot relative acceleration along x (m/s^2)
+   * @param accelY Robot relative acceleration along y (m/s^2)
+   */
+  public void drive(ChassisSpeeds speeds, double accelX, double accelY) {
     var moduleStates =
         m_kinematics.toSwerveModuleStates(
-            fieldRelative
-                ? ChassisSpeeds.fromFieldRelativeSpeeds(
-                    xSpeed, ySpeed, rotSpeed, m_odometry.getEstimatedPosition().getRotation())
-                : new ChassisSpeeds(xSpeed, ySpeed, rotSpeed));
+            discretize(speeds, TimedRobot.kDefaultPeriod + kSteerLag));
 
     SwerveDriveKinematics.desaturateWheelSpeeds(moduleStates, kMaxModuleSpeed);
     for (int i = 0; i < m_modules.length; ++i) {
-      m_modules[i].setDesiredState(moduleStates[i]);
+      final var state = moduleStates[i];
+      final double accel =
+          m_accelFeedforward ? accelX * state.angle.getCos() + accelY * state.angle.getSin() : 0.0;
+      m_modules[i].setDesiredState(state, accel);
     }
+    this.logModuleStates(m_commandedStatesLogEntry, moduleStates);
+  }
+
+  /**
+   * Converts chassis speeds into the constant speeds moving the robot to the same pose over a loop
+   *
+   * <p>Module states are held for a whole loop while the robot rotates, so commanding instantaneous
+   * speeds makes a robot translating and rotating skew towards the rotation. The twist reaching the
+   * pose the instantaneous speeds point to after a loop is commanded instead.
+   *
+   * @param speeds Robot relative chassis speeds
+   * @param dt Discretization period (s)
+   * @return Discretized robot relative chassis speeds
+   */
+  static ChassisSpeeds discretize(ChassisSpeeds speeds, double dt) {
+    final var target =
+        new Pose2d(
+            speeds.vxMetersPerSecond * dt,
+            speeds.vyMetersPerSecond * dt,
+            new Rotation2d(speeds.omegaRadiansPerSecond * dt));
+    final var twist = new Pose2d().log(target);
+    return new ChassisSpeeds(twist.dx / dt, twist.dy / dt, twist.dtheta / dt);
   }
 
   /**
@@ -216,6 +438,163 @@ public class DriveTrain extends SubsystemBase {
     for (int i = 0; i < m_modules.length; ++i) {
       m_modules[i].setDesiredState(moduleStates[i]);
     }
+    this.logModuleStates(m_commandedStatesLogEntry, moduleStates);
+  }
+
+  /**
+   * Enables the wheel acceleration feedforward, enabled by default
+   *
+   * <p>Disabled, the modules only feed the commanded velocity forward, to compare the trajectory
+   * tracking in simulation.
+   *
+   * @param enabled feed the trajectory accelerations forward
+   */
+  public void setAccelerationFeedforward(boolean enabled) {
+    m_accelFeedforward = enabled;
+  }
+
+  /**
+   * Logs the trajectory follower error and accumulates the tracking statistics
+   *
+   * @param translationError Field relative position error (m)
+   * @param rotationError Heading error
+   */
+  private void logTrackingError(Translation2d translationError, Rotation2d rotationError) {
+    m_logValues[0] = translationError.getX();
+    m_logValues[1] = translationError.getY();
+    m_logValues[2] = rotationError.getRadians();
+    RobotLogger.getInstance().log(m_trackingLogEntry, m_logValues, 3);
+
+    final double error = translationError.getNorm();
+    m_trackingSquareSum += error * error;
+    m_trackingMaxError = Math.max(m_trackingMaxError, error);
+    ++m_trackingCount;
+  }
+
+  /**
+   * Gets the root mean square trajectory tracking error, over every follower loop since startup
+   *
+   * @return Position error (m), 0 if no trajectory was followed
+   */
+  public double getTrackingRmsError() {
+    return m_trackingCount == 0 ? 0.0 : Math.sqrt(m_trackingSquareSum / m_trackingCount);
+  }
+
+  /**
+   * Gets the largest trajectory tracking error since startup
+   *
+   * @return Position error (m)
+   */
+  public double getTrackingMaxError() {
+    return m_trackingMaxError;
+  }
+
+  /**
+   * Command that characterizes the drive feedforward of each module
+   *
+   * <p>Runs a quasistatic voltage ramp then a dynamic voltage step, forward then backward, with the
+   * modules pointing forward, then logs the fitted gains of each module and publishes them to the
+   * dashboard. The robot travels up to about 5 m each way, so it needs a clear straight line.
+   *
+   * @return blocking command
+   */
+  public Command characterizeCommand() {
+    final var characterization = new DriveCharacterization(m_modules.length);
+    return Commands.sequence(
+        this.characterizationPhase(
+            characterization, time -> kQuasistaticRampRate * time, kQuasistaticTime),
+        this.characterizationPhase(
+            characterization, time -> -kQuasistaticRampRate * time, kQuasistaticTime),
+        this.characterizationPhase(characterization, time -> kDynamicStepVolts, kDynamicTime),
+        this.characterizationPhase(characterization, time -> -kDynamicStepVolts, kDynamicTime),
+        this.runOnce(() -> this.reportCharacterization(characterization)));
+  }
+
+  /**
+   * Command that applies a drive voltage profile while sampling the modules, then lets the robot
+   * stop
+   *
+   * @param characterization samples accumulator
+   * @param voltage drive voltage from the phase time (V)
+   * @param duration phase duration (s)
+   * @return blocking command
+   */
+  private Command characterizationPhase(
+      DriveCharacterization characterization, DoubleUnaryOperator voltage, double duration) {
+    final var timer = new Timer();
+    return this.runOnce(
+            () -> {
+              timer.restart();
+              characterization.restart();
+            })
+        .andThen(
+            this.run(
+                    () -> {
+                      final double volts = voltage.applyAsDouble(timer.get());
+                      final double now = Timer.getFPGATimestamp();
+                      for (int i = 0; i < m_modules.length; ++i) {
+                        m_modules[i].updateState(m_measuredStates[i]);
+                        characterization.update(
+                            i, m_measuredStates[i].speedMetersPerSecond, now, volts);
+                        m_modules[i].setDriveVoltage(volts, kCharacterizationAngle);
+                      }
+                    })
+                .withTimeout(duration))
+        .andThen(
+            this.run(
+                    () -> {
+                      for (final var module : m_modules) {
+                        module.setDriveVoltage(0.0, kCharacterizationAngle);
+                      }
+                    })
+                .withTimeout(kCharacterizationRestTime));
+  }
+
+  /**
+   * Logs the fitted feedforward of each module and publishes its gains to the dashboard
+   *
+   * @param characterization samples accumulator
+   */
+  private void reportCharacterization(DriveCharacterization characterization) {
+    for (int i = 0; i < m_modules.length; ++i) {
+      final var feedforward = characterization.fit(i);
+      if (feedforward == null) {
+        RobotLogger.getInstance()
+            .log(
+                m_characterizationLogEntry,
+                String.format(
+                    Locale.ROOT, "Drive module %d: not enough samples to characterize", i));
+        continue;
+      }
+      RobotLogger.getInstance()
+          .log(
+              m_characterizationLogEntry,
+              String.format(
+                  Locale.ROOT,
+                  "Drive module %d: kS %.4f V, kV %.4f V/(m/s), kA %.4f V/(m/s^2), %d samples",
+                  i,
+                  feedforward.ks,
+                  feedforward.kv,
+                  feedforward.ka,
+                  characterization.getSampleCount(i)));
+      SmartDashboard.putNumberArray(
+          "Characterization/Drive module " + i,
+          new double[] {feedforward.ks, feedforward.kv, feedforward.ka});
+    }
+  }
+
+  /**
+   * Logs module states as speed (m/s) and angle (rad) pairs
+   *
+   * @param entry log entry id
+   * @param moduleStates module states to log
+   */
+  private void logModuleStates(int entry, SwerveModuleState[] moduleStates) {
+    for (int i = 0; i < moduleStates.length; ++i) {
+      m_logValues[2 * i] = moduleStates[i].speedMetersPerSecond;
+      m_logValues[2 * i + 1] = moduleStates[i].angle.getRadians();
+    }
+    RobotLogger.getInstance().log(entry, m_logValues, 2 * moduleStates.length);
   }
 
   /**
@@ -224,7 +603,16 @@ public class DriveTrain extends SubsystemBase {
    * @return Field relative robot pose
    */
   public Pose2d getPose() {
-    return m_odometry.getEstimatedPosition();
+    return m_odometry.getPose();
+  }
+
+  /**
+   * Gets the latest fused robot state, safe to call from any thread
+   *
+   * @return latest pose snapshot
+   */
+  public PoseSnapshot getPoseSnapshot() {
+    return m_odometry.getSnapshot();
   }
 
   /**
@@ -235,7 +623,7 @@ public class DriveTrain extends SubsystemBase {
    * @param rateLimiter Slew rate limiter to limit rate of change
    * @return Scaled joystick value (physical units)
    */
-  private static double scaleJoystickInput(
+  static double scaleJoystickInput(
       DoubleSupplier valueSupplier, double maxValue, SlewRateLimiter rateLimiter) {
 
     double rawValue = valueSupplier.getAsDouble();
@@ -287,22 +675,88 @@ public class DriveTrain extends SubsystemBase {
 
     return this.runOnce(() -> this.resetOdometryToTrajectoryStart(trajectory))
         .unless(() -> !resetOdometry)
-        .andThen(
-            new PPSwerveControllerCommand(
-                trajectory,
-                this::getPose,
-                this.m_kinematics,
-                new PIDController(kHoloKP, kHoloKI, kHoloKD),
-                new PIDController(kHoloKP, kHoloKI, kHoloKD),
-                new PIDController(kRotKP, kRotKI, kRotKD),
-                this::drive,
-                useAllianceColour,
-                this));
+        .andThen(this.createPathFollower(trajectory, useAllianceColour));
   }
 
-  public PathPlannerTrajectory autoPathBalance() {
+  /**
+   * Command that generates a trajectory in the background and drives along it once ready
+   *
+   * <p>Path points are computed when the command is initialized, only the trajectory generation
+   * runs on the planner thread. On-the-fly starts are projected by the expected planning latency,
+   * if the trajectory is picked up later than that the robot already drove through its beginning,
+   * so following starts at the measured elapsed time instead.
+   *
+   * @param constraints path velocity and acceleration constraints
+   * @param points supplies the path points, or null if there is no path to follow
+   * @return blocking command
+   */
+  public Command followAsyncPathCommand(
+      PathConstraints constraints, Supplier<List<PathPoint>> points) {
+    return new FollowAsyncPathCommand(
+        () -> m_planner.generate(constraints, points.get()),
+        (trajectory, elapsed) ->
+            this.createPathFollower(
+                AsyncPathPlanner.skipAhead(trajectory, elapsed - m_onTheFlyProjection), false),
+        this);
+  }
+
+  /**
+   * Creates the controller command following a trajectory
+   *
+   * @param trajectory path planner generated trajectory
+   * @param useAllianceColour trajectory is flipped for the red alliance
+   * @return trajectory follower command
+   */
+  private Command createPathFollower(PathPlannerTrajectory trajectory, boolean useAllianceColour) {
+    // The follower only outputs speeds, the trajectory is sampled again at the follower time for
+    // the acceleration, tangential plus centripetal
+    final var timer = new Timer();
+    final PathPlannerTrajectory[] followed = {trajectory};
+    final Consumer<ChassisSpeeds> output =
+        speeds -> {
+          final var state = followed[0].sample(timer.get());
+          final double centripetal =
+              state.velocityMetersPerSecond
+                  * state.velocityMetersPerSecond
+                  * state.curvatureRadPerMeter;
+          final var accel =
+              new Translation2d(state.accelerationMetersPerSecondSq, centripetal)
+                  .rotateBy(state.poseMeters.getRotation().minus(this.getPose().getRotation()));
+          this.drive(speeds, accel.getX(), accel.getY());
+        };
+    return new PPSwerveControllerCommand(
+            trajectory,
+            this::getPose,
+            new PIDController(kHoloKP, kHoloKI, kHoloKD),
+            new PIDController(kHoloKP, kHoloKI, kHoloKD),
+            new PIDController(kRotKP, kRotKI, kRotKD),
+            output,
+            useAllianceColour,
+            this)
+        .beforeStarting(
+            () -> {
+              // Transformed like the follower does
+              followed[0] =
+                  useAllianceColour && trajectory.fromGUI
+                      ? PathPlannerTrajectory.transformTrajectoryForAlliance(
+                          trajectory, DriverStation.getAlliance())
+                      : trajectory;
+              timer.reset();
+              timer.start();
+            });
+  }
+
+  /**
+   * Loads the next autonomous trajectory, call periodically while disabled
+   *
+   * @return true if every autonomous trajectory is loaded
+   */
+  public boolean loadAutonomousAssets() {
+    return m_autoAssets.loadNext();
+  }
+
+  public static PathPlannerTrajectory autoPathBalance(Alliance alliance) {
 
-    final var alliance = DriverStation.getAlliance();
     final var moveDirDeg = alliance == Alliance.Blue ? 180.0 : 0.0;
     final var balanceX = alliance == Alliance.Blue ? 5.5 : 11.0;
     final var startX = alliance == Alliance.Blue ? 2.1 : 14.4;
@@ -331,9 +785,8 @@ public class DriveTrain extends SubsystemBase {
     return PathPlanner.generatePath(new PathConstraints(2, 2), startPoint, move1, balance);
   }
 
-  public PathPlannerTrajectory autoPathIntake(boolean firstMove) {
+  public static PathPlannerTrajectory autoPathIntake(Alliance alliance, boolean firstMove) {
 
-    final var alliance = DriverStation.getAlliance();
     final var intakeDirDeg = alliance == Alliance.Red ? 180.0 : 0.0;
     final var moveDirDeg = alliance == Alliance.Blue ? 180.0 : 0.0;
     final var intakeX = alliance == Alliance.Blue ? 6.8 : 9.7;
@@ -375,13 +828,13 @@ public class DriveTrain extends SubsystemBase {
     }
   }
 
-  private PathPlannerTrajectory onTheFlyToIntake() {
+  private List<PathPoint> onTheFlyToIntake() {
 
     final var alliance = DriverStation.getAlliance();
     final var scoringDirDeg = alliance == Alliance.Blue ? 0.0 : 180.0;
     final var intakeX = alliance == Alliance.Blue ? 15.3 : 1.2;
     final var intakeY = alliance == Alliance.Blue ? 7.4 : 6.15;
-    final var robotPos = m_odometry.getEstimatedPosition().getTranslation();
+    final var robotPos = m_odometry.getPose().getTranslation();
     double waypointX = alliance == Alliance.Blue ? 14.8 : 1.7;
 
     var waypoint1 =
@@ -397,11 +850,9 @@ public class DriveTrain extends SubsystemBase {
             Rotation2d.fromDegrees(scoringDirDeg));
 
     if (alliance == Alliance.Blue && robotPos.getX() > 13) {
-      return PathPlanner.generatePath(
-          new PathConstraints(2, 2), getOnTheFlyStart(false), waypoint1, intake);
+      return List.of(getOnTheFlyStart(false), waypoint1, intake);
     } else if (alliance == Alliance.Red && robotPos.getX() < 3.5) {
-      return PathPlanner.generatePath(
-          new PathConstraints(2, 2), getOnTheFlyStart(false), waypoint1, intake);
+      return List.of(getOnTheFlyStart(false), waypoint1, intake);
     } else return null;
   }
 
@@ -409,40 +860,147 @@ public class DriveTrain extends SubsystemBase {
    * More complex path with holonomic rotation. Non-zero starting velocity Max velocity of 4 m/s and
    * max accel of 3 m/s^2
    *
-   * @return a path to follow
+   * @return points of a path to follow
    */
-  private PathPlannerTrajectory onTheFlyToScoringPos() {
+  private List<PathPoint> onTheFlyToScoringPos() {
 
     final var alliance = DriverStation.getAlliance();
-    final var scoringDirDeg = alliance == Alliance.Blue ? 183.0 : 3.0;
-    final var scoringX = alliance == Alliance.Blue ? 2.1 : 14.4;
-    final var robotPos = m_odometry.getEstimatedPosition().getTranslation();
-    double waypointY = 4.75;
-    double waypoint2X = alliance == Alliance.Blue ? 2.3 : 14.1;
-    double waypointX = 5.5;
-    double scorePosY = this.YScoringPos;
-    var headingScore = Rotation2d.fromDegrees(90);
-    var headingWay = Rotation2d.fromDegrees(180);
+    final var robotPos = m_odometry.getPose().getTranslation();
+    final var waypointY = scoringWaypointY(robotPos);
+    final var scoringPos = scoringPoint(alliance, waypointY, this.YScoringPos);
 
-    // sets the right X coordinate according to color
-    if (alliance == Alliance.Red) {
-      waypointX = 13.0;
-      headingWay = Rotation2d.fromDegrees(0);
+    if (robotPos.getX() > 4.5 && robotPos.getX() < 12) {
+      return List.of(
+          getOnTheFlyStart(false),
+          scoringWaypoint1(alliance, waypointY),
+          scoringWaypoint2(alliance, waypointY, -1),
+          scoringPos);
+    } else if (robotPos.getX() > 2.5 && robotPos.getX() < 14) {
+      return List.of(
+          getOnTheFlyStart(false), scoringWaypoint2(alliance, waypointY, -1), scoringPos);
+    } else {
+      return List.of(getOnTheFlyStart(true), scoringPos);
     }
-    // decides if the robots goes around the left or right side
-    if (robotPos.getY() < 2.75) waypointY = 0.75;
+  }
 
-    var waypoint1 =
-        new PathPoint(
-            new Translation2d(waypointX, waypointY),
-            headingWay,
-            Rotation2d.fromDegrees(scoringDirDeg));
+  /**
+   * Command driving to the current scoring position.
+   *
+   * <p>When the segment from the last waypoint to the scoring slot is cached, only a short
+   * connector from the robot to that waypoint is generated.
+   *
+   * @return blocking command
+   */
+  private Command scoringPathCommand() {
 
-    var waypoint2 =
-        new PathPoint(
-            new Translation2d(waypoint2X, waypointY),
-            headingWay,
-            Rotation2d.fromDegrees(scoringDirDeg));
+    final var alliance = DriverStation.getAlliance();
+    final var robotPos = m_odometry.getPose().getTranslation();
+    final var waypointY = scoringWaypointY(robotPos);
+    final var cached =
+        m_scoringCache.get(scoringCacheKey(alliance, waypointY, this.getScoringSlot()));
+
+    if (cached == null || robotPos.getX() <= 2.5 || robotPos.getX() >= 14) {
+      return this.followAsyncPathCommand(kScoringConstraints, this::onTheFlyToScoringPos);
+    }
+
+    final var waypoint1 = scoringWaypoint1(alliance, waypointY);
+    final var waypoint2 = scoringWaypoint2(alliance, waypointY, kScoringCacheEntrySpeed);
+    final boolean farFromGrid = robotPos.getX() > 4.5 && robotPos.getX() < 12;
+    final Supplier<List<PathPoint>> connector =
+        () ->
+            farFromGrid
+                ? List.of(getOnTheFlyStart(false), waypoint1, waypoint2)
+                : List.of(getOnTheFlyStart(false), waypoint2);
+
+    return this.followAsyncPathCommand(kScoringConstraints, connector)
+        .andThen(this.createPathFollower(cached, false));
+  }
+
+  /**
+   * Pre-generates the segments from the last waypoint to every scoring slot for an alliance
+   *
+   * @param alliance alliance to generate segments for
+   */
+  private void warmUpScoringCache(Alliance alliance) {
+    for (final var waypointY : kScoringWaypointsY) {
+      for (int slot = 0; slot < kScoringSlotCount; ++slot) {
+        final int key = scoringCacheKey(alliance, waypointY, slot);
+        if (m_scoringCache.contains(key)) {
+          continue;
+        }
+
+        final var points =
+            List.of(
+                scoringWaypoint2(alliance, waypointY, kScoringCacheEntrySpeed),
+                scoringPoint(alliance, waypointY, minYScoringPos + slot * scoringGridIncrements));
+        m_planner
+            .generateInBackground(kScoringConstraints, points)
+            .thenAccept(trajectory -> m_scoringCache.put(key, trajectory));
+      }
+    }
+  }
+
+  /**
+   * Gets the index of the current scoring slot
+   *
+   * @return scoring slot (0 - 8)
+   */
+  private int getScoringSlot() {
+    return (int) Math.round((this.YScoringPos - minYScoringPos) / scoringGridIncrements);
+  }
+
+  private static int scoringCacheKey(Alliance alliance, double waypointY, int slot) {
+    final int side = waypointY == kScoringWaypointsY[0] ? 0 : 1;
+    return (alliance.ordinal() * kScoringWaypointsY.length + side) * kScoringSlotCount + slot;
+  }
+
+  /**
+   * Decides if the robots goes around the left or right side of the charge station
+   *
+   * @param robotPos field relative robot position
+   * @return waypoints Y coordinate (m)
+   */
+  private static double scoringWaypointY(Translation2d robotPos) {
+    return robotPos.getY() < 2.75 ? kScoringWaypointsY[1] : kScoringWaypointsY[0];
+  }
+
+  private static Rotation2d scoringHolonomicRotation(Alliance alliance) {
+    return Rotation2d.fromDegrees(alliance == Alliance.Blue ? 183.0 : 3.0);
+  }
+
+  private static Rotation2d scoringWaypointHeading(Alliance alliance) {
+    return Rotation2d.fromDegrees(alliance == Alliance.Blue ? 180.0 : 0.0);
+  }
+
+  private static PathPoint scoringWaypoint1(Alliance alliance, double waypointY) {
+    final var waypointX = alliance == Alliance.Blue ? 5.5 : 13.0;
+    return new PathPoint(
+        new Translation2d(waypointX, waypointY),
+        scoringWaypointHeading(alliance),
+        scoringHolonomicRotation(alliance));
+  }
+
+  /**
+   * Gets the last waypoint before the scoring position
+   *
+   * @param alliance current alliance
+   * @param waypointY waypoints Y coordinate (m)
+   * @param velocityOverride velocity at the waypoint (m/s), -1 for no override
+   * @return path point
+   */
+  private static PathPoint scoringWaypoint2(
+      Alliance alliance, double waypointY, double velocityOverride) {
+    final var waypoint2X = alliance == Alliance.Blue ? 2.3 : 14.1;
+    return new PathPoint(
+        new Translation2d(waypoint2X, waypointY),
+        scoringWaypointHeading(alliance),
+        scoringHolonomicRotation(alliance),
+        velocityOverride);
+  }
+
+  private static PathPoint scoringPoint(Alliance alliance, double waypointY, double scorePosY) {
+    final var scoringX = alliance == Alliance.Blue ? 2.1 : 14.4;
+    var headingScore = Rotation2d.fromDegrees(90);
 
     if (alliance == Alliance.Blue) {
       if (waypointY > scorePosY) headingScore = Rotation2d.fromDegrees(270);
@@ -450,32 +1008,30 @@ public class DriveTrain extends SubsystemBase {
     if (alliance == Alliance.Red) {
       if (waypointY < scorePosY) headingScore = Rotation2d.fromDegrees(270);
     }
-    var scoringPos =
-        new PathPoint(
-            new Translation2d(scoringX, this.YScoringPos),
-            headingScore,
-            Rotation2d.fromDegrees(scoringDirDeg));
-
-    if (robotPos.getX() > 4.5 && robotPos.getX() < 12) {
-      return PathPlanner.generatePath(
-          new PathConstraints(3, 3), getOnTheFlyStart(false), waypoint1, waypoint2, scoringPos);
-    } else if (robotPos.getX() > 2.5 && robotPos.getX() < 14) {
-      return PathPlanner.generatePath(
-          new PathConstraints(3, 3), getOnTheFlyStart(false), waypoint2, scoringPos);
-    } else {
-      return PathPlanner.generatePath(
-          new PathConstraints(3, 3), getOnTheFlyStart(true), scoringPos);
-    }
+    return new PathPoint(
+        new Translation2d(scoringX, scorePosY), headingScore, scoringHolonomicRotation(alliance));
   }
 
+  /**
+   * Gets the start point of an on-the-fly path.
+   *
+   * <p>The current state is projected forward by the expected planning latency, since the robot
+   * keeps moving while the trajectory is generated.
+   *
+   * @param headingOverride use a fixed heading instead of the velocity direction
+   * @return path start point
+   */
   private PathPoint getOnTheFlyStart(boolean headingOverride) {
-    var translation = m_odometry.getEstimatedPosition().getTranslation();
-    var holonomicRot = m_odometry.getEstimatedPosition().getRotation();
-    var chassisSpeed = m_kinematics.toChassisSpeeds(getModuleStates());
+    var snapshot = m_odometry.getSnapshot();
+    var latency = m_planner.getExpectedLatency();
+    m_onTheFlyProjection = latency;
 
-    var velocityVector =
-        new Translation2d(chassisSpeed.vxMetersPerSecond, chassisSpeed.vyMetersPerSecond);
-    var fieldSpeed = velocityVector.rotateBy(holonomicRot);
+    var velocityVector = new Translation2d(snapshot.m_vx, snapshot.m_vy);
+    var fieldSpeed = velocityVector.rotateBy(snapshot.m_pose.getRotation());
+
+    var rotationDelta = Rotation2d.fromRadians(snapshot.m_omega * latency);
+    var translation = snapshot.m_pose.getTranslation().plus(fieldSpeed.times(latency));
+    var holonomicRot = snapshot.m_pose.getRotation().plus(rotationDelta);
 
     var vx = fieldSpeed.getX();
     var vy = fieldSpeed.getY();
@@ -495,7 +1051,7 @@ public class DriveTrain extends SubsystemBase {
     final var start =
         PathPlannerTrajectory.transformStateForAlliance(
             trajectory.getInitialState(), DriverStation.getAlliance());
-    m_odometry.resetPosition(m_gyro.getRotation2d(), this.getModulePositions(), start.poseMeters);
+    this.resetOdometry(start.poseMeters);
   }
 
   public Command balance() {
@@ -520,35 +1076,37 @@ public class DriveTrain extends SubsystemBase {
    * @return commands that make the robot go to the right scoring pos
    */
   public Command goToTargetGoal() {
-    return this.runOnce(
-        () -> {
-          final var traj = this.onTheFlyToScoringPos();
-          m_scoringCommand = this.followPathCommand(traj, false, false);
-          m_scoringCommand.schedule();
-        });
+    return new ProxyCommand(this::scoringPathCommand);
   }
 
   public Command goToHpIntake() {
-    return this.runOnce(
-        () -> {
-          final var traj = this.onTheFlyToIntake();
-          if (traj != null) {
-            m_scoringCommand = this.followPathCommand(traj, false, false);
-            m_scoringCommand.schedule();
-          }
-        });
+    return this.followAsyncPathCommand(kIntakeConstraints, this::onTheFlyToIntake);
   }
 
   public Command runAuto1stMove() {
-    return this.followPathCommand(autoPathIntake(true), false, false);
+    return this.followAutonomousPathCommand(kAutoIntakeFirstPath);
   }
 
   public Command runAuto2ndMove() {
-    return this.followPathCommand(autoPathIntake(false), false, false);
+    return this.followAutonomousPathCommand(kAutoIntakeSecondPath);
   }
 
   public Command runAutoBalancePath() {
-    return this.followPathCommand(autoPathBalance(), false, false);
+    return this.followAutonomousPathCommand(kAutoBalancePath);
+  }
+
+  /**
+   * Command that drives along a preloaded autonomous trajectory, selected for the alliance when
+   * the command is initialized. Requires the drive train for the whole path.
+   *
+   * @param name autonomous trajectory name
+   * @return blocking command
+   */
+  public Command followAutonomousPathCommand(String name) {
+    return new FollowAsyncPathCommand(
+        () -> CompletableFuture.completedFuture(m_autoAssets.get(name)),
+        (trajectory, elapsed) -> this.createPathFollower(trajectory, false),
+        this);
   }
 
   public Command goToTargetCube() {
@@ -594,7 +1152,7 @@ public class DriveTrain extends SubsystemBase {
   public Command resetToCLosestScoringPos() {
     return this.runOnce(
         () -> {
-          double YCurrentPos = m_odometry.getEstimatedPosition().getY();
+          double YCurrentPos = m_odometry.getPose().getY();
           double YCurrentBox = (YCurrentPos - minYScoringPos) / scoringGridIncrements;
           YScoringPos = (Math.round(YCurrentBox) * scoringGridIncrements) + minYScoringPos;
         });
@@ -614,28 +1172,18 @@ public class DriveTrain extends SubsystemBase {
   }
 
   public boolean hasRecentTarget() {
-    return Timer.getFPGATimestamp() - m_lastVisionTimestamp < 0.25;
+    return Timer.getFPGATimestamp() - m_fusion.getLastTimestamp() < 0.25;
   }
 
   public double timeSinceLastTarget() {
-    return Timer.getFPGATimestamp() - m_lastVisionTimestamp;
+    return Timer.getFPGATimestamp() - m_fusion.getLastTimestamp();
   }
 
   public Command resetOdometryRedSideAuto() {
-    return this.runOnce(
-        () ->
-            m_odometry.resetPosition(
-                m_gyro.getRotation2d(),
-                getModulePositions(),
-                new Pose2d(14.4, 5, Rotation2d.fromDegrees(0))));
+    return this.runOnce(() -> this.resetOdometry(new Pose2d(14.4, 5, Rotation2d.fromDegrees(0))));
   }
 
   public Command resetOdometryBlueSideAuto() {
-    return this.runOnce(
-        () ->
-            m_odometry.resetPosition(
-                m_gyro.getRotation2d(),
-                getModulePositions(),
-                new Pose2d(2.1, 5, Rotation2d.fromDegrees(180))));
+    return this.runOnce(() -> this.resetOdometry(new Pose2d(2.1, 5, Rotation2d.fromDegrees(180))));
   }
 }
@@ -4,17 +4,23 @@
 
 package frc.robot.subsystems;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.RelativeEncoder;
 import edu.wpi.first.math.controller.ProfiledPIDController;
 import edu.wpi.first.math.trajectory.TrapezoidProfile.Constraints;
-import edu.wpi.first.wpilibj.DigitalInput;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SequentialCommandGroup;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.LoopProfiler;
+import frc.robot.RobotLogger;
+import frc.robot.SensorCache;
+import java.util.Locale;
+import java.util.function.BooleanSupplier;
+import java.util.function.DoubleUnaryOperator;
 
 public class Elevator extends SubsystemBase {
 
@@ -28,12 +34,17 @@ public class Elevator extends SubsystemBase {
     Sequences
   };
 
-  // Subsystem parameters
-  public static final int kLeadId = 14;
-  public static final int kFollowId = 13;
+  /** Height control, selectable at runtime */
+  public enum Control {
+    // Profile and position loop on the roboRIO, percent output sent every loop
+    Profiled,
+    // Smart Motion profile and velocity loop on the motor controller, with gravity feedforward
+    SmartMotion
+  }
 
-  private static final double kNativeToMeter = 1.46 / 109.97;
-  private static final double kNeutralMeter = 0.0;
+  // Subsystem parameters
+  static final double kNativeToMeter = 1.46 / 109.97;
+  static final double kNeutralMeter = 0.0;
   private static final double kDeadzone = 0.05;
 
   private static final double kP = 10.0;
@@ -48,53 +59,129 @@ public class Elevator extends SubsystemBase {
   private static final double kDownManualHeight = -0.02;
   private static final double kSequencesHeight = 0.8;
 
+  // Onboard Smart Motion, feedforward gains in volts computed from the simulated plant (two NEO,
+  // 12:1, 6 kg carriage), not measured, replace them with the characterization results
+  static final double kNominalVolt = 12.0;
+  static final double kG = 0.29;
+  static final double kV = 9.55;
+  static final double kSmartMotionVel = 1.0;
+  static final double kSmartMotionAcc = 6.0;
+  static final double kSmartMotionAllowedError = 0.005;
+  static final double kSmartMotionP = 0.2;
+  static final double kSmartMotionFF = kV / kNominalVolt;
+  public static final Control kDefaultControl = Control.Profiled;
+
+  // Characterization, quasistatic ramps then dynamic steps, up then down, within the travel
+  private static final double kQuasistaticRampRate = 0.5;
+  private static final double kQuasistaticTime = 10.0;
+  private static final double kDynamicUpVolts = 6.0;
+  private static final double kDynamicDownVolts = -3.0;
+  private static final double kDynamicTime = 3.0;
+  private static final double kCharacterizationTop = 1.2;
+  private static final double kCharacterizationBottom = 0.15;
+
   // Member objects
-  private final CANSparkMax m_lead = new CANSparkMax(kLeadId, MotorType.kBrushless);
-  private final CANSparkMax m_follow = new CANSparkMax(kFollowId, MotorType.kBrushless);
-  private final DigitalInput m_limitSwitch = new DigitalInput(9);
-  private final RelativeEncoder m_encoder = m_lead.getEncoder();
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+  private final int m_logEntry = RobotLogger.getInstance().addDoubleArray("Elevator");
+  private final double[] m_logValues = new double[2];
+  private final int m_characterizationLogEntry =
+      RobotLogger.getInstance().addString("Elevator/Characterization");
+  private final ElevatorIO m_io;
+  private final SensorCache.CachedDouble m_position;
+  private final SensorCache.CachedBoolean m_down;
   private final ProfiledPIDController m_pid =
       new ProfiledPIDController(kP, 0.0, 0.0, new Constraints(kVel, kAcc));
 
   // Process variables
   private double m_targetMeter = kNeutralMeter;
   private Level m_targetLevel = Level.Down;
+  private Control m_control = kDefaultControl;
+  private boolean m_characterizing = false;
 
-  /** Creates a new Elevator. */
+  /** Creates a new Elevator, simulated when not running on the robot. */
   public Elevator() {
+    this(RobotBase.isReal() ? new ElevatorIOSparkMax() : new ElevatorIOSim());
+  }
 
-    m_lead.restoreFactoryDefaults();
-    m_follow.restoreFactoryDefaults();
-
-    m_lead.setIdleMode(IdleMode.kCoast);
-    m_lead.setInverted(true);
-
-    m_encoder.setPosition(kNeutralMeter);
-    m_encoder.setPositionConversionFactor(kNativeToMeter);
-    m_encoder.setVelocityConversionFactor(kNativeToMeter);
-
-    m_follow.setIdleMode(IdleMode.kCoast);
-    m_follow.follow(m_lead, true);
-
-    m_lead.burnFlash();
-    m_follow.burnFlash();
+  /**
+   * Creates a new Elevator
+   *
+   * @param io elevator hardware
+   */
+  public Elevator(ElevatorIO io) {
+    m_io = io;
+    m_position = SensorCache.getInstance().addDouble(io::getPosition);
+    m_down = SensorCache.getInstance().addBoolean(io::isDown);
   }
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
     // This method will be called once per scheduler run
 
     // Reset encoder when bottom is reached
     if (isDown()) {
-      m_encoder.setPosition(kHeightDown);
+      m_io.resetPosition(kHeightDown);
+      m_position.set(kHeightDown);
     }
 
     // Set target to current when robot is disabled to preven sudden motion on enable
     if (DriverStation.isDisabled()) {
-      m_targetMeter = m_encoder.getPosition();
+      m_targetMeter = m_position.get();
       m_pid.reset(m_targetMeter);
     }
-    m_lead.set(motorSpeed());
+
+    // The characterization command sets the voltage along with each sample
+    if (!m_characterizing) {
+      if (m_control == Control.SmartMotion) {
+        m_io.setSmartMotion(m_targetMeter, kG);
+      } else {
+        m_io.set(motorSpeed());
+      }
+    }
+
+    // Log setpoint and measurement
+    m_logValues[0] = m_targetMeter;
+    m_logValues[1] = m_position.get();
+    RobotLogger.getInstance().log(m_logEntry, m_logValues, m_logValues.length);
+
+    m_profilerSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    m_io.simulate(TimedRobot.kDefaultPeriod);
+  }
+
+  /**
+   * Selects the height control, the roboRIO profile restarts from the current height
+   *
+   * @param control height control
+   */
+  public void setControl(Control control) {
+    if (control != m_control) {
+      m_pid.reset(m_position.get());
+      m_control = control;
+    }
+  }
+
+  /**
+   * Gets the selected height control
+   *
+   * @return height control
+   */
+  public Control getControl() {
+    return m_control;
+  }
+
+  /**
+   * Gets the carriage height read at the start of the loop
+   *
+   * @return height (m)
+   */
+  public double getHeight() {
+    return m_position.get();
   }
 
   /**
@@ -103,27 +190,32 @@ public class Elevator extends SubsystemBase {
    * @param level target level
    */
   private void setHeightFor(Level level) {
+    m_targetMeter = heightFor(level);
+  }
+
+  /**
+   * Gets the height of a given level
+   *
+   * @param level level
+   * @return level height (meter)
+   */
+  private static double heightFor(Level level) {
     switch (level) {
-      case Down:
-        m_targetMeter = kHeightDown;
-        break;
       case Feeder:
-        m_targetMeter = kHeightFeeder;
-        break;
+        return kHeightFeeder;
       case Second:
-        m_targetMeter = kHeightSecond;
-        break;
+        return kHeightSecond;
       case Third:
-        m_targetMeter = kHeightThird;
-        break;
+        return kHeightThird;
       case Manual:
-        m_targetMeter = kManualHeight;
-        break;
+        return kManualHeight;
       case DownManual:
-        m_targetMeter = kDownManualHeight;
-        break;
+        return kDownManualHeight;
       case Sequences:
-        m_targetMeter = kSequencesHeight;
+        return kSequencesHeight;
+      case Down:
+      default:
+        return kHeightDown;
     }
   }
 
@@ -137,7 +229,7 @@ public class Elevator extends SubsystemBase {
     return new SequentialCommandGroup(
         this.runOnce(
             () -> {
-              m_pid.reset(m_encoder.getPosition());
+              m_pid.reset(m_position.get());
               this.setHeightFor(level);
             }),
         this.run(() -> this.setHeightFor(level)).until(this::onTarget));
@@ -146,26 +238,46 @@ public class Elevator extends SubsystemBase {
   public Command stop() {
     return this.runOnce(
         () -> {
-          m_lead.set(0.0);
+          m_io.set(0.0);
         });
   }
 
   private double motorSpeed() {
-    return m_pid.calculate(m_encoder.getPosition(), m_targetMeter);
+    return m_pid.calculate(m_position.get(), m_targetMeter);
   }
 
   public boolean onTarget() {
-    return Math.abs(m_targetMeter - m_encoder.getPosition()) < kDeadzone;
+    return Math.abs(m_targetMeter - m_position.get()) < kDeadzone;
   }
 
   public boolean isDown() {
-    return !m_limitSwitch.get();
+    return m_down.get();
+  }
+
+  /**
+   * Check if the elevator is at or above a given level, within the target deadzone
+   *
+   * @param level level
+   * @return elevator is at or above the level
+   */
+  public boolean isAbove(Level level) {
+    return m_position.get() > heightFor(level) - kDeadzone;
+  }
+
+  /**
+   * Check if the elevator is at or below a given level, within the target deadzone
+   *
+   * @param level level
+   * @return elevator is at or below the level
+   */
+  public boolean isBelow(Level level) {
+    return m_position.get() < heightFor(level) + kDeadzone;
   }
 
   public Command extend() {
 
     return new SequentialCommandGroup(
-        this.runOnce(() -> m_pid.reset(m_encoder.getPosition())),
+        this.runOnce(() -> m_pid.reset(m_position.get())),
         this.run(() -> this.setHeightFor(m_targetLevel)).until(this::onTarget));
   }
 
@@ -174,4 +286,92 @@ public class Elevator extends SubsystemBase {
   }
 
   public void manualMode() {}
+
+  /**
+   * Command that characterizes the elevator feedforward
+   *
+   * <p>Runs a quasistatic voltage ramp then a dynamic voltage step, up then down, each until the
+   * carriage gets close to the end of its travel, then logs the fitted gains and publishes them to
+   * the dashboard. The gains are used by the Smart Motion control.
+   *
+   * @return blocking command
+   */
+  public Command characterizeCommand() {
+    final var characterization = new ElevatorCharacterization();
+    final BooleanSupplier top = () -> m_position.get() > kCharacterizationTop;
+    final BooleanSupplier bottom = () -> m_position.get() < kCharacterizationBottom;
+    return Commands.sequence(
+        this.extendTo(Level.Down),
+        this.characterizationPhase(
+            characterization, time -> kQuasistaticRampRate * time, kQuasistaticTime, top),
+        this.characterizationPhase(
+            characterization, time -> -kQuasistaticRampRate * time, kQuasistaticTime, bottom),
+        this.extendTo(Level.Down),
+        this.characterizationPhase(characterization, time -> kDynamicUpVolts, kDynamicTime, top),
+        this.characterizationPhase(
+            characterization, time -> kDynamicDownVolts, kDynamicTime, bottom),
+        this.extendTo(Level.Down),
+        this.runOnce(() -> this.reportCharacterization(characterization)));
+  }
+
+  /**
+   * Command that applies a voltage profile while sampling the height
+   *
+   * @param characterization samples accumulator
+   * @param voltage motor voltage from the phase time (V)
+   * @param duration longest phase duration (s)
+   * @param end ends the phase before the carriage reaches the end of its travel
+   * @return blocking command
+   */
+  private Command characterizationPhase(
+      ElevatorCharacterization characterization,
+      DoubleUnaryOperator voltage,
+      double duration,
+      BooleanSupplier end) {
+    final var timer = new Timer();
+    return this.runOnce(
+            () -> {
+              timer.restart();
+              characterization.restart();
+              m_characterizing = true;
+            })
+        .andThen(
+            this.run(
+                () -> {
+                  final double volts = voltage.applyAsDouble(timer.get());
+                  characterization.update(m_position.get(), Timer.getFPGATimestamp(), volts);
+                  m_io.setVoltage(volts);
+                }))
+        .until(end)
+        .withTimeout(duration)
+        .finallyDo(interrupted -> m_characterizing = false);
+  }
+
+  /**
+   * Logs the fitted feedforward and publishes its gains to the dashboard
+   *
+   * @param characterization samples accumulator
+   */
+  private void reportCharacterization(ElevatorCharacterization characterization) {
+    final var feedforward = characterization.fit();
+    if (feedforward == null) {
+      RobotLogger.getInstance()
+          .log(m_characterizationLogEntry, "Elevator: not enough samples to characterize");
+      return;
+    }
+    RobotLogger.getInstance()
+        .log(
+            m_characterizationLogEntry,
+            String.format(
+                Locale.ROOT,
+                "Elevator: kS %.4f V, kG %.4f V, kV %.4f V/(m/s), kA %.4f V/(m/s^2), %d samples",
+                feedforward.ks,
+                feedforward.kg,
+                feedforward.kv,
+                feedforward.ka,
+                characterization.getSampleCount()));
+    SmartDashboard.putNumberArray(
+        "Characterization/Elevator",
+        new double[] {feedforward.ks, feedforward.kg, feedforward.kv, feedforward.ka});
+  }
 }
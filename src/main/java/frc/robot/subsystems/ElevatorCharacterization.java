@@ -0,0 +1,107 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.controller.ElevatorFeedforward;
+import edu.wpi.first.math.numbers.N4;
+
+/**
+ * Fits the elevator feedforward gains from voltage ramp and step samples.
+ *
+ * <p>Fits {@code V = kS sgn(v) + kG + kV v + kA a} with a {@link FeedforwardFit}. Speeds and
+ * accelerations are differentiated from the position, whose status frame is fast, rather than read
+ * from the slow velocity frame. Carriage speeds below 5 cm/s, where static friction dominates, are
+ * left out.
+ */
+public class ElevatorCharacterization {
+
+  // Characterization parameters
+  private static final double kMinSpeed = 0.05;
+
+  // Member objects
+  private final FeedforwardFit<N4> m_fit = new FeedforwardFit<>(Nat.N4());
+
+  // Process variables, previous position sample and previous differentiated speed
+  private double m_lastPosition = 0.0;
+  private double m_lastTime = -1.0;
+  private double m_lastVolts = 0.0;
+  private double m_lastSpeed = 0.0;
+  private double m_lastSpeedTime = -1.0;
+  private double m_lastSpeedVolts = 0.0;
+
+  /** Starts a new ramp or step, the next two updates only record the state */
+  public void restart() {
+    m_lastTime = -1.0;
+    m_lastSpeedTime = -1.0;
+  }
+
+  /**
+   * Adds the sample since the previous updates, then records the applied voltage
+   *
+   * @param position measured height (m)
+   * @param timestamp measurement time (s)
+   * @param volts motor voltage applied until the next update
+   */
+  public void update(double position, double timestamp, double volts) {
+    final double dt = timestamp - m_lastTime;
+    if (m_lastTime >= 0.0 && dt > 0.0) {
+      // Mean speed over the last interval, dated at its middle
+      final double speed = (position - m_lastPosition) / dt;
+      final double speedTime = timestamp - 0.5 * dt;
+
+      if (m_lastSpeedTime >= 0.0) {
+        this.add(
+            0.5 * (m_lastVolts + m_lastSpeedVolts),
+            0.5 * (speed + m_lastSpeed),
+            (speed - m_lastSpeed) / (speedTime - m_lastSpeedTime));
+      }
+      m_lastSpeed = speed;
+      m_lastSpeedTime = speedTime;
+      m_lastSpeedVolts = m_lastVolts;
+    }
+    m_lastPosition = position;
+    m_lastTime = timestamp;
+    m_lastVolts = volts;
+  }
+
+  /**
+   * Adds a sample
+   *
+   * @param volts motor voltage applied over the sample
+   * @param speed mean carriage speed over the sample (m/s)
+   * @param accel carriage acceleration over the sample (m/s^2)
+   */
+  public void add(double volts, double speed, double accel) {
+    if (Math.abs(speed) < kMinSpeed) {
+      return;
+    }
+
+    m_fit.add(volts, Math.signum(speed), 1.0, speed, accel);
+  }
+
+  /**
+   * Gets the number of samples used by the fit
+   *
+   * @return sample count
+   */
+  public int getSampleCount() {
+    return m_fit.getSampleCount();
+  }
+
+  /**
+   * Fits the elevator feedforward
+   *
+   * @return fitted feedforward, or null if the samples don't constrain every gain
+   */
+  public ElevatorFeedforward fit() {
+    final var gains = m_fit.solve();
+    if (gains == null) {
+      return null;
+    }
+    return new ElevatorFeedforward(
+        gains.get(0, 0), gains.get(1, 0), gains.get(2, 0), gains.get(3, 0));
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/** Elevator hardware, heights are measured from the bottom of the carriage travel */
+public interface ElevatorIO {
+  /**
+   * Gets the carriage height
+   *
+   * @return height (m)
+   */
+  public double getPosition();
+
+  /**
+   * Sets the current carriage height, the mechanism does not move
+   *
+   * @param meters current height (m)
+   */
+  public void resetPosition(double meters);
+
+  /**
+   * Sets the motors output
+   *
+   * @param percent output (-1, 1), positive extends
+   */
+  public void set(double percent);
+
+  /**
+   * Runs the motor controller Smart Motion profile to a height
+   *
+   * @param targetMeters target height (m)
+   * @param ffVolts arbitrary feedforward added to the loop output, holds against gravity (V)
+   */
+  public void setSmartMotion(double targetMeters, double ffVolts);
+
+  /**
+   * Sets the motors voltage, used by the characterization
+   *
+   * @param volts voltage, positive extends (V)
+   */
+  public void setVoltage(double volts);
+
+  /**
+   * Checks if the carriage is at the bottom
+   *
+   * @return bottom limit switch is pressed
+   */
+  public boolean isDown();
+
+  /**
+   * Advances the simulated mechanism, only called in simulation
+   *
+   * @param dt simulated time step (s)
+   */
+  public default void simulate(double dt) {}
+}
@@ -0,0 +1,111 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.ElevatorSim;
+import frc.robot.sim.SimNoise;
+
+/**
+ * Simulated elevator, two NEO lifting the carriage against gravity.
+ *
+ * <p>The motor controller Smart Motion is emulated at the controller rate: a trapezoid profile,
+ * planned again from the measured state when the target changes, followed by a velocity loop with
+ * the same gains, plus the arbitrary feedforward. The measured velocity has no filter delay.
+ */
+public class ElevatorIOSim implements ElevatorIO {
+
+  // Simulation parameters
+  private static final double kGearing = 12.0;
+  private static final double kDrumRadius = Elevator.kNativeToMeter * kGearing / (2.0 * Math.PI);
+  private static final double kCarriageMass = 6.0;
+  private static final double kMaxHeight = 1.45;
+  private static final double kLimitSwitchHeight = 0.005;
+  private static final double kPositionNoise = 0.002;
+  private static final double kControllerPeriod = 0.001;
+  private static final TrapezoidProfile.Constraints kSmartMotionConstraints =
+      new TrapezoidProfile.Constraints(Elevator.kSmartMotionVel, Elevator.kSmartMotionAcc);
+
+  // Member objects
+  private final ElevatorSim m_sim =
+      new ElevatorSim(
+          DCMotor.getNEO(2), kGearing, kCarriageMass, kDrumRadius, 0.0, kMaxHeight, true);
+
+  // Process variables
+  private double m_percent = 0.0;
+  private double m_encoderOffset = 0.0;
+  private boolean m_smartMotion = false;
+  private double m_ffVolts = 0.0;
+  private TrapezoidProfile.State m_goal = new TrapezoidProfile.State();
+  private TrapezoidProfile.State m_setpoint = new TrapezoidProfile.State();
+
+  @Override
+  public double getPosition() {
+    return m_sim.getPositionMeters()
+        - m_encoderOffset
+        + SimNoise.getInstance().gaussian(kPositionNoise);
+  }
+
+  @Override
+  public void resetPosition(double meters) {
+    final double previousOffset = m_encoderOffset;
+    m_encoderOffset = m_sim.getPositionMeters() - meters;
+
+    // The profile follows the encoder frame
+    m_setpoint.position += previousOffset - m_encoderOffset;
+  }
+
+  @Override
+  public void set(double percent) {
+    m_smartMotion = false;
+    m_percent = MathUtil.clamp(percent, -1.0, 1.0);
+  }
+
+  @Override
+  public void setSmartMotion(double targetMeters, double ffVolts) {
+    if (!m_smartMotion || targetMeters != m_goal.position) {
+      m_setpoint =
+          new TrapezoidProfile.State(
+              m_sim.getPositionMeters() - m_encoderOffset, m_sim.getVelocityMetersPerSecond());
+      m_goal = new TrapezoidProfile.State(targetMeters, 0.0);
+    }
+    m_smartMotion = true;
+    m_ffVolts = ffVolts;
+  }
+
+  @Override
+  public void setVoltage(double volts) {
+    this.set(volts / RobotController.getBatteryVoltage());
+  }
+
+  @Override
+  public boolean isDown() {
+    return m_sim.getPositionMeters() <= kLimitSwitchHeight;
+  }
+
+  @Override
+  public void simulate(double dt) {
+    final double battery = RobotController.getBatteryVoltage();
+    if (!m_smartMotion) {
+      m_sim.setInputVoltage(m_percent * battery);
+      m_sim.update(dt);
+      return;
+    }
+
+    for (double time = 0.0; time < dt - 1e-9; time += kControllerPeriod) {
+      m_setpoint =
+          new TrapezoidProfile(kSmartMotionConstraints, m_goal, m_setpoint)
+              .calculate(kControllerPeriod);
+      final double velocityError = m_setpoint.velocity - m_sim.getVelocityMetersPerSecond();
+      final double percent =
+          Elevator.kSmartMotionFF * m_setpoint.velocity + Elevator.kSmartMotionP * velocityError;
+      m_sim.setInputVoltage(MathUtil.clamp(percent * battery + m_ffVolts, -battery, battery));
+      m_sim.update(kControllerPeriod);
+    }
+  }
+}
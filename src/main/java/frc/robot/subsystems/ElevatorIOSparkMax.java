@@ -0,0 +1,97 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.ControlType;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+import edu.wpi.first.wpilibj.DigitalInput;
+import frc.robot.CanBudget;
+
+/** Elevator driven by two Spark Max with a bottom limit switch, running onboard Smart Motion */
+public class ElevatorIOSparkMax implements ElevatorIO {
+
+  // Hardware parameters
+  public static final int kLeadId = 14;
+  public static final int kFollowId = 13;
+  private static final int kLimitSwitchChannel = 9;
+  // Position is read every loop, applied output is sent to the follower
+  private static final int kLeadFramePeriod = 10;
+
+  // Member objects
+  private final CANSparkMax m_lead = new CANSparkMax(kLeadId, MotorType.kBrushless);
+  private final CANSparkMax m_follow = new CANSparkMax(kFollowId, MotorType.kBrushless);
+  private final DigitalInput m_limitSwitch = new DigitalInput(kLimitSwitchChannel);
+  private final RelativeEncoder m_encoder = m_lead.getEncoder();
+  private final SparkMaxPIDController m_pid = m_lead.getPIDController();
+
+  /** Creates a new ElevatorIOSparkMax. */
+  public ElevatorIOSparkMax() {
+
+    m_lead.restoreFactoryDefaults();
+    m_follow.restoreFactoryDefaults();
+
+    m_lead.setIdleMode(IdleMode.kCoast);
+    m_lead.setInverted(true);
+
+    m_encoder.setPosition(Elevator.kNeutralMeter);
+    m_encoder.setPositionConversionFactor(Elevator.kNativeToMeter);
+    m_encoder.setVelocityConversionFactor(Elevator.kNativeToMeter / 60.0);
+
+    // Smart Motion profile, followed by a velocity loop with a velocity feedforward
+    m_pid.setSmartMotionMaxVelocity(Elevator.kSmartMotionVel, 0);
+    m_pid.setSmartMotionMaxAccel(Elevator.kSmartMotionAcc, 0);
+    m_pid.setSmartMotionAllowedClosedLoopError(Elevator.kSmartMotionAllowedError, 0);
+    m_pid.setP(Elevator.kSmartMotionP);
+    m_pid.setFF(Elevator.kSmartMotionFF);
+
+    m_follow.setIdleMode(IdleMode.kCoast);
+    m_follow.follow(m_lead, true);
+
+    CanBudget.getInstance()
+        .configure(
+            m_lead,
+            CanBudget.kSparkMaxUnused.withStatus0(kLeadFramePeriod).withStatus2(kLeadFramePeriod),
+            true);
+    CanBudget.getInstance().configure(m_follow, CanBudget.kSparkMaxUnused, false);
+
+    m_lead.burnFlash();
+    m_follow.burnFlash();
+  }
+
+  @Override
+  public double getPosition() {
+    return m_encoder.getPosition();
+  }
+
+  @Override
+  public void resetPosition(double meters) {
+    m_encoder.setPosition(meters);
+  }
+
+  @Override
+  public void set(double percent) {
+    m_lead.set(percent);
+  }
+
+  @Override
+  public void setSmartMotion(double targetMeters, double ffVolts) {
+    m_pid.setReference(targetMeters, ControlType.kSmartMotion, 0, ffVolts, ArbFFUnits.kVoltage);
+  }
+
+  @Override
+  public void setVoltage(double volts) {
+    m_lead.setVoltage(volts);
+  }
+
+  @Override
+  public boolean isDown() {
+    return !m_limitSwitch.get();
+  }
+}
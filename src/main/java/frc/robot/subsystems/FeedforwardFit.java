@@ -0,0 +1,74 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.Nat;
+import edu.wpi.first.math.Num;
+import edu.wpi.first.math.numbers.N1;
+
+/**
+ * Least squares fit of feedforward gains, the voltage being the sum of each gain times its term.
+ *
+ * <p>The normal equations are accumulated as samples are added, so samples are not stored.
+ *
+ * @param <N> number of gains
+ */
+public class FeedforwardFit<N extends Num> {
+
+  // Member objects
+  private final Matrix<N, N> m_normal;
+  private final Matrix<N, N1> m_moment;
+  private final int m_size;
+  private int m_sampleCount = 0;
+
+  /**
+   * Creates a new FeedforwardFit
+   *
+   * @param size number of gains
+   */
+  public FeedforwardFit(Nat<N> size) {
+    m_normal = new Matrix<>(size, size);
+    m_moment = new Matrix<>(size, Nat.N1());
+    m_size = size.getNum();
+  }
+
+  /**
+   * Adds a sample
+   *
+   * @param volts voltage applied over the sample
+   * @param terms term multiplying each gain over the sample, in gain order
+   */
+  public void add(double volts, double... terms) {
+    for (int row = 0; row < m_size; ++row) {
+      for (int col = 0; col < m_size; ++col) {
+        m_normal.set(row, col, m_normal.get(row, col) + terms[row] * terms[col]);
+      }
+      m_moment.set(row, 0, m_moment.get(row, 0) + terms[row] * volts);
+    }
+    ++m_sampleCount;
+  }
+
+  /**
+   * Gets the number of samples added
+   *
+   * @return sample count
+   */
+  public int getSampleCount() {
+    return m_sampleCount;
+  }
+
+  /**
+   * Solves the gains
+   *
+   * @return gains in term order, or null if the samples don't constrain every gain
+   */
+  public Matrix<N, N1> solve() {
+    if (Math.abs(m_normal.det()) < 1e-9) {
+      return null;
+    }
+    return m_normal.solve(m_moment);
+  }
+}
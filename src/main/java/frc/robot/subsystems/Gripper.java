@@ -4,54 +4,73 @@
 
 package frc.robot.subsystems;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
 import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.LoopProfiler;
+import frc.robot.SensorCache;
 
 public class Gripper extends SubsystemBase {
 
   // Subsystem parameters
-  private static final int kGripperId = 15;
-
   private static final double kOpenPosition = 55;
   private static final double kClosePositionCone = 0;
   private static final double kCloseUpPositionCone = kClosePositionCone - 15;
+  private static final double kOpenTolerance = 5;
 
   private static final double kp = 0.05;
   private double err = 0;
   private double cmd = 0;
-  private static final int kMaxCurrent = 10;
 
   private double m_target = kClosePositionCone;
   private boolean m_open = false;
   private boolean m_isReseting = false;
 
   // Member objects
-  private final CANSparkMax m_gripper = new CANSparkMax(kGripperId, MotorType.kBrushless);
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+  private final GripperIO m_io;
+  private final SensorCache.CachedDouble m_position;
   private PivotArm m_pivot;
 
-  /** Creates a new Gripper. */
+  /** Creates a new Gripper, simulated when not running on the robot. */
   public Gripper(PivotArm pivot) {
+    this(pivot, RobotBase.isReal() ? new GripperIOSparkMax() : new GripperIOSim());
+  }
 
-    m_gripper.restoreFactoryDefaults();
-    m_gripper.setSmartCurrentLimit(kMaxCurrent);
-    m_gripper.burnFlash();
+  /**
+   * Creates a new Gripper
+   *
+   * @param pivot pivot holding the gripper
+   * @param io gripper hardware
+   */
+  public Gripper(PivotArm pivot, GripperIO io) {
+    m_io = io;
+    m_position = SensorCache.getInstance().addDouble(io::getPosition);
     m_pivot = pivot;
   }
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
     // This method will be called once per scheduler run
     if (!m_isReseting) {
       setTarget();
-      err = m_target - m_gripper.getEncoder().getPosition();
+      err = m_target - m_position.get();
       cmd = err * kp;
-      m_gripper.set(MathUtil.clamp(cmd, -0.7, 0.7));
+      m_io.set(MathUtil.clamp(cmd, -0.7, 0.7));
     } else {
-      m_gripper.set(-0.4);
+      m_io.set(-0.4);
     }
+
+    m_profilerSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    m_io.simulate(TimedRobot.kDefaultPeriod);
   }
 
   /**
@@ -91,16 +110,30 @@ public class Gripper extends SubsystemBase {
   public Command defaultWinch() {
     return this.run(() -> this.reset(true))
         .withTimeout(1)
-        .andThen(this.runOnce(() -> m_gripper.getEncoder().setPosition(0.0)))
+        .andThen(
+            this.runOnce(
+                () -> {
+                  m_io.resetPosition(0.0);
+                  m_position.set(0.0);
+                }))
         .andThen(this.runOnce(() -> this.reset(false)))
         .andThen(runOnce(() -> m_open = false));
   }
 
   public Command setTargetCurrent() {
-    return this.runOnce(() -> m_target = m_gripper.getEncoder().getPosition());
+    return this.runOnce(() -> m_target = m_position.get());
   }
 
   public boolean gripperState() {
     return m_open;
   }
+
+  /**
+   * Check if the gripper is opened far enough to release the cone
+   *
+   * @return gripper is open
+   */
+  public boolean isOpen() {
+    return m_open && m_position.get() > kOpenPosition - kOpenTolerance;
+  }
 }
@@ -0,0 +1,36 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/** Gripper winch hardware, positions are in motor rotations from the closed position */
+public interface GripperIO {
+  /**
+   * Gets the winch position
+   *
+   * @return position (rotations)
+   */
+  public double getPosition();
+
+  /**
+   * Sets the current winch position, the mechanism does not move
+   *
+   * @param rotations current position (rotations)
+   */
+  public void resetPosition(double rotations);
+
+  /**
+   * Sets the motor output
+   *
+   * @param percent output (-1, 1), positive opens
+   */
+  public void set(double percent);
+
+  /**
+   * Advances the simulated mechanism, only called in simulation
+   *
+   * @param dt simulated time step (s)
+   */
+  public default void simulate(double dt) {}
+}
@@ -0,0 +1,65 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+
+/**
+ * Simulated gripper winch, a NEO winding the gripper cable.
+ *
+ * <p>The winch stops at both ends of the cable travel, where the real motor stalls at its current
+ * limit.
+ */
+public class GripperIOSim implements GripperIO {
+
+  // Simulation parameters
+  private static final double kGearing = 25.0;
+  private static final double kMoi = 0.001;
+  private static final double kMinRotations = -20.0;
+  private static final double kMaxRotations = 60.0;
+
+  // Member objects
+  private final DCMotorSim m_sim = new DCMotorSim(DCMotor.getNEO(1), kGearing, kMoi);
+
+  // Process variables
+  private double m_percent = 0.0;
+  private double m_encoderOffset = 0.0;
+
+  @Override
+  public double getPosition() {
+    return this.getMotorRotations() - m_encoderOffset;
+  }
+
+  @Override
+  public void resetPosition(double rotations) {
+    m_encoderOffset = this.getMotorRotations() - rotations;
+  }
+
+  @Override
+  public void set(double percent) {
+    m_percent = MathUtil.clamp(percent, -1.0, 1.0);
+  }
+
+  @Override
+  public void simulate(double dt) {
+    m_sim.setInputVoltage(m_percent * RobotController.getBatteryVoltage());
+    m_sim.update(dt);
+
+    // Cable fully wound or unwound
+    final double rotations = this.getMotorRotations();
+    if (rotations < kMinRotations || rotations > kMaxRotations) {
+      final double stop = MathUtil.clamp(rotations, kMinRotations, kMaxRotations);
+      m_sim.setState(VecBuilder.fill(stop * 2.0 * Math.PI / kGearing, 0.0));
+    }
+  }
+
+  private double getMotorRotations() {
+    return m_sim.getAngularPositionRad() * kGearing / (2.0 * Math.PI);
+  }
+}
@@ -0,0 +1,48 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.RelativeEncoder;
+import frc.robot.CanBudget;
+
+/** Gripper winch driven by a current limited Spark Max */
+public class GripperIOSparkMax implements GripperIO {
+
+  // Hardware parameters
+  private static final int kGripperId = 15;
+  private static final int kMaxCurrent = 10;
+  private static final int kPositionFramePeriod = 20;
+
+  // Member objects
+  private final CANSparkMax m_gripper = new CANSparkMax(kGripperId, MotorType.kBrushless);
+  private final RelativeEncoder m_encoder = m_gripper.getEncoder();
+
+  /** Creates a new GripperIOSparkMax. */
+  public GripperIOSparkMax() {
+
+    m_gripper.restoreFactoryDefaults();
+    m_gripper.setSmartCurrentLimit(kMaxCurrent);
+    CanBudget.getInstance()
+        .configure(m_gripper, CanBudget.kSparkMaxUnused.withStatus2(kPositionFramePeriod), true);
+    m_gripper.burnFlash();
+  }
+
+  @Override
+  public double getPosition() {
+    return m_encoder.getPosition();
+  }
+
+  @Override
+  public void resetPosition(double rotations) {
+    m_encoder.setPosition(rotations);
+  }
+
+  @Override
+  public void set(double percent) {
+    m_gripper.set(percent);
+  }
+}
@@ -85,9 +85,23 @@ public class HyperionSwerveModule implements SwerveModule {
     // Drive command
     m_driveMotor.set(ControlMode.Velocity, optimizedState.speedMetersPerSecond * kMeterPerSToTick);
 
+    this.setAngle(optimizedState.angle);
+  }
+
+  @Override
+  public void setDriveVoltage(double driveVolts, Rotation2d angle) {
+    m_driveMotor.setVoltage(driveVolts);
+    this.setAngle(angle);
+  }
+
+  /**
+   * Turns the module to a given angle
+   *
+   * @param angle Module angle
+   */
+  private void setAngle(Rotation2d angle) {
     // Turn target in degree
-    final double turnTarget =
-        optimizedState.angle.unaryMinus().getDegrees() * kDegToAnalog + m_analogZero;
+    final double turnTarget = angle.unaryMinus().getDegrees() * kDegToAnalog + m_analogZero;
 
     // Turn command
     final double turnCommand = m_turnPid.calculate(this.getTurnEncoderValue(), turnTarget);
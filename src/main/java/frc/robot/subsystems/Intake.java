@@ -4,15 +4,20 @@
 
 package frc.robot.subsystems;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import edu.wpi.first.wpilibj.DigitalInput;
+import edu.wpi.first.math.controller.ArmFeedforward;
+import edu.wpi.first.math.trajectory.TrapezoidProfile;
+import edu.wpi.first.math.trajectory.TrapezoidProfile.Constraints;
+import edu.wpi.first.math.util.Units;
 import edu.wpi.first.wpilibj.DriverStation;
-import edu.wpi.first.wpilibj.DutyCycleEncoder;
-import edu.wpi.first.wpilibj.smartdashboard.SmartDashboard;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.LoopProfiler;
+import frc.robot.RobotLogger;
+import frc.robot.SensorCache;
+import frc.robot.Telemetry;
+import frc.robot.Telemetry.Rate;
 
 public class Intake extends SubsystemBase {
 
@@ -23,60 +28,112 @@ public class Intake extends SubsystemBase {
     Launch
   };
 
-  // Subsystem parameters
-  private static final int kPivot = 12;
+  /** Pivot control, selectable at runtime */
+  public enum Control {
+    // Quadratic percent law on the absolute angle, sent every loop
+    Quadratic,
+    // Profile and gravity feedforward on the roboRIO, position loop on the motor controller
+    Profiled
+  }
 
-  private static final int kEncoder = 7;
-  private static final double kTurnPerRotation = 0.25;
-  private static final double kOffset = 0.28;
+  // Subsystem parameters
   private static final double kP = 3.0;
+  public static final Control kDefaultControl = Control.Quadratic;
 
-  private static final double kStoredRad = 0.45;
-  public final double kInsideRad = 0.30;
-  private static final double kOutsideRad = 0.01;
-  private static final double kLaunchRad = 0.2;
-  private static double kDeadzoneRad = 0.07;
+  // Angles were tuned in absolute encoder turns
+  private static final double kStoredRad = Units.rotationsToRadians(0.45);
+  public final double kInsideRad = Units.rotationsToRadians(0.30);
+  private static final double kOutsideRad = Units.rotationsToRadians(0.01);
+  private static final double kLaunchRad = Units.rotationsToRadians(0.2);
+  private static double kDeadzoneRad = Units.rotationsToRadians(0.07);
+  private static final double kSettledRad = Units.rotationsToRadians(0.02);
+
+  // Profiled control, feedforward gains in volts from the simulated arm, angle 0 about horizontal.
+  // Speeds are capped to what the quadratic law reaches at its output clamp.
+  static final double kPositionP = 3.0;
+  private static final double kS = 0.0;
+  private static final double kG = 0.40;
+  private static final double kV = 1.21;
+  private static final double kA = 0.01;
+  private static final Constraints kMoveConstraints = new Constraints(4.0, 40.0);
+  private static final Constraints kStowConstraints = new Constraints(3.0, 20.0);
 
   // Member objects
-  private final CANSparkMax m_pivot = new CANSparkMax(kPivot, MotorType.kBrushless);
-  private final DutyCycleEncoder m_dutyEncoder = new DutyCycleEncoder(kEncoder);
-  private final DigitalInput m_limitSwitch = new DigitalInput(8);
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+  private final int m_logEntry = RobotLogger.getInstance().addDoubleArray("Intake");
+  private final double[] m_logValues = new double[2];
+  private final Telemetry.BooleanSignal m_hasCubeSignal =
+      Telemetry.getInstance().addBoolean("HAS CUBE :", Rate.High);
+  private final IntakeIO m_io;
+  private final SensorCache.CachedDouble m_angleRad;
+  private final SensorCache.CachedBoolean m_hasCube;
+  private final ArmFeedforward m_feedforward = new ArmFeedforward(kS, kG, kV, kA);
 
   // Process variables
   private double m_targetRad = kOutsideRad;
   private boolean isStopped = false;
+  private Control m_control = kDefaultControl;
+  private Constraints m_constraints = kMoveConstraints;
+  private TrapezoidProfile.State m_setpoint = new TrapezoidProfile.State();
+  private boolean m_seeded = false;
 
-  /** Creates a new Intake. */
+  /** Creates a new Intake, simulated when not running on the robot. */
   public Intake() {
+    this(RobotBase.isReal() ? new IntakeIOSparkMax() : new IntakeIOSim());
+  }
 
-    m_pivot.restoreFactoryDefaults();
-    m_pivot.setIdleMode(IdleMode.kBrake);
-    m_pivot.setInverted(true);
-
-    m_dutyEncoder.setDistancePerRotation(kTurnPerRotation);
-    m_dutyEncoder.reset();
-    m_pivot.burnFlash();
+  /**
+   * Creates a new Intake
+   *
+   * @param io intake hardware
+   */
+  public Intake(IntakeIO io) {
+    m_io = io;
+    m_angleRad = SensorCache.getInstance().addDouble(io::getAngleRad);
+    m_hasCube = SensorCache.getInstance().addBoolean(io::hasCube);
   }
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
     // Set target to current when robot is disabled to prevent sudden motion on enable
     if (DriverStation.isDisabled()) {
       m_targetRad = (getAngleRad());
+      m_setpoint = new TrapezoidProfile.State(m_targetRad, 0.0);
+      m_seeded = false;
     }
 
     // for pivot operation
-    if (!isStopped) m_pivot.set(computePivotPercent());
-    SmartDashboard.putBoolean("HAS CUBE :", hasCube());
+    if (!isStopped) {
+      if (m_control == Control.Profiled) {
+        this.runProfile();
+      } else {
+        m_io.set(computePivotPercent());
+      }
+    }
+    m_hasCubeSignal.set(hasCube());
+
+    // Log setpoint and measurement
+    m_logValues[0] = m_targetRad;
+    m_logValues[1] = this.getAngleRad();
+    RobotLogger.getInstance().log(m_logEntry, m_logValues, m_logValues.length);
+
+    m_profilerSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    m_io.simulate(TimedRobot.kDefaultPeriod);
   }
 
   /**
-   * Gets the value of the left encoder between 0 and 0.45
+   * Gets the pivot angle, between 0 and 2.83
    *
    * @return A value of 0 when the intake is down
    */
   private double getAngleRad() {
-    return 1.0 - m_dutyEncoder.getAbsolutePosition() - kOffset;
+    return m_angleRad.get();
   }
 
   /**
@@ -85,7 +142,8 @@ public class Intake extends SubsystemBase {
    * @return pivot motor percent
    */
   private double computePivotPercent() {
-    final double errRad = (m_targetRad - this.getAngleRad()) * 10;
+    // The law was tuned on the error in absolute encoder turns
+    final double errRad = Units.radiansToRotations(m_targetRad - this.getAngleRad()) * 10;
     double correctedSpeed;
     if (errRad > 0) correctedSpeed = 3 * kP * (errRad * errRad) / 10;
     else correctedSpeed = -(kP * (errRad * errRad) / 10);
@@ -94,6 +152,50 @@ public class Intake extends SubsystemBase {
     return correctedSpeed;
   }
 
+  /**
+   * Advances the profile toward the target and sends the setpoint with its feedforward to the motor
+   * controller. The motor encoder is seeded from the absolute angle on the first enabled loop, the
+   * pivot being still after the robot was disabled.
+   */
+  private void runProfile() {
+    if (!m_seeded) {
+      m_io.seedPosition();
+      m_seeded = true;
+    }
+
+    final double lastVelocity = m_setpoint.velocity;
+    m_setpoint =
+        new TrapezoidProfile(
+                m_constraints, new TrapezoidProfile.State(m_targetRad, 0.0), m_setpoint)
+            .calculate(TimedRobot.kDefaultPeriod);
+    final double acceleration = (m_setpoint.velocity - lastVelocity) / TimedRobot.kDefaultPeriod;
+    m_io.setPosition(
+        m_setpoint.position,
+        m_feedforward.calculate(m_setpoint.position, m_setpoint.velocity, acceleration));
+  }
+
+  /**
+   * Selects the pivot control, the profile restarts from the current angle
+   *
+   * @param control pivot control
+   */
+  public void setControl(Control control) {
+    if (control != m_control) {
+      m_setpoint = new TrapezoidProfile.State(this.getAngleRad(), 0.0);
+      m_seeded = false;
+      m_control = control;
+    }
+  }
+
+  /**
+   * Gets the selected pivot control
+   *
+   * @return pivot control
+   */
+  public Control getControl() {
+    return m_control;
+  }
+
   /**
    * Set the target angle in rad corresponding to a position
    *
@@ -104,15 +206,19 @@ public class Intake extends SubsystemBase {
     switch (position) {
       case Stored:
         m_targetRad = kStoredRad;
+        m_constraints = kStowConstraints;
         break;
       case Retracted:
         m_targetRad = kInsideRad;
+        m_constraints = kStowConstraints;
         break;
       case Pickup:
         m_targetRad = kOutsideRad;
+        m_constraints = kMoveConstraints;
         break;
       case Launch:
         m_targetRad = kLaunchRad;
+        m_constraints = kMoveConstraints;
         break;
     }
   }
@@ -137,13 +243,22 @@ public class Intake extends SubsystemBase {
     return Math.abs(m_targetRad - this.getAngleRad()) < kDeadzoneRad;
   }
 
+  /**
+   * Check if the intake is close to the target angle, tighter than {@link #onTarget()}
+   *
+   * @return intake is settled at the target angle
+   */
+  public boolean isSettled() {
+    return Math.abs(m_targetRad - this.getAngleRad()) < kSettledRad;
+  }
+
   /**
    * Check if the intake holds cube
    *
    * @return cube is in intake
    */
   public boolean hasCube() {
-    return !m_limitSwitch.get();
+    return m_hasCube.get();
   }
 
   public double getPosition() {
@@ -0,0 +1,47 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/** Intake pivot hardware, angles are measured from the pickup position */
+public interface IntakeIO {
+  /**
+   * Gets the pivot angle
+   *
+   * @return angle (rad), 0 when the intake is down
+   */
+  public double getAngleRad();
+
+  /**
+   * Sets the pivot motor output
+   *
+   * @param percent output (-1, 1), positive raises the intake
+   */
+  public void set(double percent);
+
+  /**
+   * Runs the motor controller position loop on the motor encoder
+   *
+   * @param targetRad target angle (rad)
+   * @param ffVolts arbitrary feedforward added to the loop output (V)
+   */
+  public void setPosition(double targetRad, double ffVolts);
+
+  /** Sets the motor encoder to the absolute angle, the pivot must be still */
+  public void seedPosition();
+
+  /**
+   * Checks if a cube is held
+   *
+   * @return cube limit switch is pressed
+   */
+  public boolean hasCube();
+
+  /**
+   * Advances the simulated mechanism, only called in simulation
+   *
+   * @param dt simulated time step (s)
+   */
+  public default void simulate(double dt) {}
+}
@@ -0,0 +1,105 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+import frc.robot.sim.SimNoise;
+
+/**
+ * Simulated intake pivot, a NEO raising the intake arm against gravity.
+ *
+ * <p>The motor controller position loop is emulated at the controller rate with the same
+ * proportional gain, plus the arbitrary feedforward. The motor encoder is exact but seeded from the
+ * noisy absolute angle, so it keeps the seeding error.
+ *
+ * <p>There is no game piece model, the cube limit switch is set with {@link #setHasCube}.
+ */
+public class IntakeIOSim implements IntakeIO {
+
+  // Simulation parameters
+  private static final double kGearing = 60.0;
+  private static final double kArmLength = 0.35;
+  private static final double kArmMass = 3.0;
+  private static final double kMinAngle = 0.0;
+  private static final double kMaxAngle = Math.PI;
+  private static final double kAngleNoise = 0.005;
+  private static final double kControllerPeriod = 0.001;
+
+  // Member objects
+  private final SingleJointedArmSim m_sim =
+      new SingleJointedArmSim(
+          DCMotor.getNEO(1),
+          kGearing,
+          SingleJointedArmSim.estimateMOI(kArmLength, kArmMass),
+          kArmLength,
+          kMinAngle,
+          kMaxAngle,
+          true);
+
+  // Process variables
+  private double m_percent = 0.0;
+  private boolean m_hasCube = false;
+  private boolean m_closedLoop = false;
+  private double m_targetRad = 0.0;
+  private double m_ffVolts = 0.0;
+  private double m_encoderOffset = 0.0;
+
+  @Override
+  public double getAngleRad() {
+    return m_sim.getAngleRads() + SimNoise.getInstance().gaussian(kAngleNoise);
+  }
+
+  @Override
+  public void set(double percent) {
+    m_closedLoop = false;
+    m_percent = MathUtil.clamp(percent, -1.0, 1.0);
+  }
+
+  @Override
+  public void setPosition(double targetRad, double ffVolts) {
+    m_closedLoop = true;
+    m_targetRad = targetRad;
+    m_ffVolts = ffVolts;
+  }
+
+  @Override
+  public void seedPosition() {
+    m_encoderOffset = m_sim.getAngleRads() - this.getAngleRad();
+  }
+
+  @Override
+  public boolean hasCube() {
+    return m_hasCube;
+  }
+
+  /**
+   * Sets the simulated cube limit switch
+   *
+   * @param hasCube a cube is held
+   */
+  public void setHasCube(boolean hasCube) {
+    m_hasCube = hasCube;
+  }
+
+  @Override
+  public void simulate(double dt) {
+    final double battery = RobotController.getBatteryVoltage();
+    if (!m_closedLoop) {
+      m_sim.setInputVoltage(m_percent * battery);
+      m_sim.update(dt);
+      return;
+    }
+
+    for (double time = 0.0; time < dt - 1e-9; time += kControllerPeriod) {
+      final double error = m_targetRad - (m_sim.getAngleRads() - m_encoderOffset);
+      m_sim.setInputVoltage(
+          MathUtil.clamp(Intake.kPositionP * error * battery + m_ffVolts, -battery, battery));
+      m_sim.update(kControllerPeriod);
+    }
+  }
+}
@@ -0,0 +1,90 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.ControlType;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+import edu.wpi.first.math.util.Units;
+import edu.wpi.first.wpilibj.DigitalInput;
+import edu.wpi.first.wpilibj.DutyCycleEncoder;
+import frc.robot.CanBudget;
+
+/** Intake pivot driven by a Spark Max, with an absolute encoder and a cube limit switch */
+public class IntakeIOSparkMax implements IntakeIO {
+
+  // Hardware parameters
+  private static final int kPivot = 12;
+  private static final int kEncoder = 7;
+  private static final int kLimitSwitchChannel = 8;
+  private static final double kTurnPerRotation = 0.25;
+  private static final double kOffset = 0.28;
+  // Motor rotations per pivot rotation, to be confirmed on the robot
+  private static final double kGearing = 60.0;
+
+  // Member objects
+  private final CANSparkMax m_pivot = new CANSparkMax(kPivot, MotorType.kBrushless);
+  private final DutyCycleEncoder m_dutyEncoder = new DutyCycleEncoder(kEncoder);
+  private final DigitalInput m_limitSwitch = new DigitalInput(kLimitSwitchChannel);
+  private final RelativeEncoder m_encoder = m_pivot.getEncoder();
+  private final SparkMaxPIDController m_pid = m_pivot.getPIDController();
+
+  /** Creates a new IntakeIOSparkMax. */
+  public IntakeIOSparkMax() {
+
+    m_pivot.restoreFactoryDefaults();
+    m_pivot.setIdleMode(IdleMode.kBrake);
+    // Inverting the motor also inverts its encoder, so a positive output raises the intake and
+    // increases the encoder position with the absolute angle, the position loop stays negative
+    // feedback. The encoder reads the pivot angle in radians, like the loop target.
+    m_pivot.setInverted(true);
+    m_encoder.setPositionConversionFactor(2.0 * Math.PI / kGearing);
+    m_pid.setP(Intake.kPositionP);
+    m_pid.setI(0.0);
+    m_pid.setD(0.0);
+    m_pid.setFF(0.0);
+    // The pivot angle is read from the roboRIO encoder, the motor encoder is only used onboard
+    CanBudget.getInstance().configure(m_pivot, CanBudget.kSparkMaxUnused, true);
+
+    m_dutyEncoder.setDistancePerRotation(kTurnPerRotation);
+    m_dutyEncoder.reset();
+    m_pivot.burnFlash();
+    this.seedPosition();
+  }
+
+  /**
+   * Gets the pivot angle from the absolute encoder, between 0 and 2.83
+   *
+   * @return A value of 0 when the intake is down (rad)
+   */
+  @Override
+  public double getAngleRad() {
+    return Units.rotationsToRadians(1.0 - m_dutyEncoder.getAbsolutePosition() - kOffset);
+  }
+
+  @Override
+  public void set(double percent) {
+    m_pivot.set(percent);
+  }
+
+  @Override
+  public void setPosition(double targetRad, double ffVolts) {
+    m_pid.setReference(targetRad, ControlType.kPosition, 0, ffVolts, ArbFFUnits.kVoltage);
+  }
+
+  @Override
+  public void seedPosition() {
+    m_encoder.setPosition(this.getAngleRad());
+  }
+
+  @Override
+  public boolean hasCube() {
+    return !m_limitSwitch.get();
+  }
+}
@@ -0,0 +1,306 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.estimator.SwerveDrivePoseEstimator;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Transform2d;
+import edu.wpi.first.math.interpolation.TimeInterpolatableBuffer;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveDriveOdometry;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.Notifier;
+import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+import frc.robot.LogRingBuffer;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Samples the swerve modules and the gyro on a dedicated thread, faster than the scheduler loop,
+ * and feeds the samples to the pose estimator.
+ *
+ * <p>Each module reports when its sensors were measured. The modules and the gyro are extrapolated
+ * to the update time with their measured rates before each estimator update, so the samples fed
+ * to the estimator are aligned even though the devices measured them at different times.
+ *
+ * <p>Sampling fills preallocated buffers. The loop is not allocation free: turned angles, the
+ * WPILib estimator update and the published snapshot still allocate on every update.
+ *
+ * <p>A wheel and gyro only odometry runs next to the estimator and keeps a short history, so the
+ * estimated pose at a past time, such as a vision capture, can be recovered with {@link
+ * #getPosesAt}.
+ *
+ * <p>All estimator accesses are done under a lock. After each update the fused state is published
+ * as an immutable {@link PoseSnapshot}, so readers on any thread get a consistent view without
+ * waiting on the sampling thread.
+ *
+ * <p>Sensor inputs can be recorded with {@link #recordInputs}, one {@code [gyro (rad), distance
+ * (m), angle (rad), speed (m/s)...]} record per update with one triplet per module, so the
+ * estimator can be replayed offline.
+ */
+public class OdometryThread {
+
+  // Thread parameters
+  public static final double kPeriod = 1.0 / 250.0;
+  public static final double kVisionFreshness = 0.5;
+  public static final String kInputsLogEntry = "Odometry/Inputs";
+  public static final double kHistoryDuration = 1.5;
+
+  // Member objects
+  private final SwerveModule[] m_modules;
+  private final Gyro m_gyro;
+  private final SwerveDriveKinematics m_kinematics;
+  private final SwerveDrivePoseEstimator m_estimator;
+  private final SwerveDriveOdometry m_odometry;
+  private final TimeInterpolatableBuffer<Pose2d> m_odometryHistory =
+      TimeInterpolatableBuffer.createBuffer(kHistoryDuration);
+  private final SwerveModuleSample[] m_moduleSamples;
+  private final SwerveModulePosition[] m_modulePositions;
+  private final SwerveModuleState[] m_moduleStates;
+  private final Object m_lock = new Object();
+  private final AtomicReference<PoseSnapshot> m_snapshot;
+  private Notifier m_notifier = null;
+  private LogRingBuffer m_inputsBuffer = null;
+  private double[] m_inputs = null;
+  private int m_inputsEntry = 0;
+
+  // Process variables
+  private double m_lastVisionTimestamp = Double.NEGATIVE_INFINITY;
+  private double m_gyroLatency = 0.0;
+  private Rotation2d m_gyroAngle = new Rotation2d();
+
+  /**
+   * Creates a new OdometryThread, sampling is not started until {@link #start()} is called
+   *
+   * @param modules swerve modules to sample
+   * @param gyro robot gyro
+   * @param kinematics drive kinematics matching the module order
+   */
+  public OdometryThread(SwerveModule[] modules, Gyro gyro, SwerveDriveKinematics kinematics) {
+    m_modules = modules;
+    m_gyro = gyro;
+    m_kinematics = kinematics;
+
+    m_moduleSamples = new SwerveModuleSample[modules.length];
+    m_modulePositions = new SwerveModulePosition[modules.length];
+    m_moduleStates = new SwerveModuleState[modules.length];
+    for (int i = 0; i < modules.length; ++i) {
+      m_moduleSamples[i] = new SwerveModuleSample();
+      m_modulePositions[i] = new SwerveModulePosition();
+      m_moduleStates[i] = new SwerveModuleState();
+    }
+
+    // Samples are aligned relative to the read time, no clock is needed before the first update
+    this.sample(0.0);
+    m_estimator =
+        new SwerveDrivePoseEstimator(kinematics, m_gyroAngle, m_modulePositions, new Pose2d());
+    m_odometry = new SwerveDriveOdometry(kinematics, m_gyroAngle, m_modulePositions);
+    m_snapshot =
+        new AtomicReference<>(
+            new PoseSnapshot(0.0, m_estimator.getEstimatedPosition(), new ChassisSpeeds(), false));
+  }
+
+  /**
+   * Sets the time between the gyro measuring its angle and the angle being read, must be called
+   * before {@link #start()}
+   *
+   * @param latency gyro latency (s)
+   */
+  public void setGyroLatency(double latency) {
+    m_gyroLatency = latency;
+  }
+
+  /**
+   * Records the sensor inputs of every update, must be called before {@link #start()}
+   *
+   * @param buffer log buffer written by the sampling thread only
+   * @param entry double array log entry id
+   */
+  public void recordInputs(LogRingBuffer buffer, int entry) {
+    m_inputs = new double[1 + 3 * m_modules.length];
+    m_inputsEntry = entry;
+    m_inputsBuffer = buffer;
+  }
+
+  /** Starts periodic sampling, does nothing if already started */
+  public void start() {
+    if (m_notifier == null) {
+      m_notifier = new Notifier(this::update);
+      m_notifier.setName("Odometry");
+      m_notifier.startPeriodic(kPeriod);
+    }
+  }
+
+  /** Samples the sensors and updates the estimator with the current FPGA time */
+  private void update() {
+    this.update(Timer.getFPGATimestamp());
+  }
+
+  /**
+   * Samples the sensors and updates the estimator
+   *
+   * @param timestamp sample timestamp (s)
+   */
+  public void update(double timestamp) {
+    synchronized (m_lock) {
+      this.sample(timestamp);
+      m_estimator.updateWithTime(timestamp, m_gyroAngle, m_modulePositions);
+      m_odometryHistory.addSample(timestamp, m_odometry.update(m_gyroAngle, m_modulePositions));
+      this.publish(timestamp, m_kinematics.toChassisSpeeds(m_moduleStates));
+
+      if (m_inputsBuffer != null) {
+        this.recordInputs(timestamp, m_gyroAngle);
+      }
+    }
+  }
+
+  /**
+   * Logs the last sampled sensor inputs
+   *
+   * @param timestamp sample timestamp (s)
+   * @param gyroAngle sampled gyro angle
+   */
+  private void recordInputs(double timestamp, Rotation2d gyroAngle) {
+    m_inputs[0] = gyroAngle.getRadians();
+    for (int i = 0; i < m_modules.length; ++i) {
+      m_inputs[1 + 3 * i] = m_modulePositions[i].distanceMeters;
+      m_inputs[2 + 3 * i] = m_modulePositions[i].angle.getRadians();
+      m_inputs[3 + 3 * i] = m_moduleStates[i].speedMetersPerSecond;
+    }
+    m_inputsBuffer.offer(m_inputsEntry, (long) (timestamp * 1e6), m_inputs, m_inputs.length);
+  }
+
+  /**
+   * Gets the latest published robot state, never blocks on the sampling thread
+   *
+   * @return latest snapshot
+   */
+  public PoseSnapshot getSnapshot() {
+    return m_snapshot.get();
+  }
+
+  /**
+   * Gets the latest estimated pose, never blocks on the sampling thread
+   *
+   * @return Field relative robot pose
+   */
+  public Pose2d getPose() {
+    return m_snapshot.get().m_pose;
+  }
+
+  /**
+   * Gets the estimated poses at past times, all taken from the same estimate under one lock.
+   *
+   * <p>The current estimate is moved back by the odometry travel since each time, so corrections
+   * fused after it are kept. Times older than the history get the oldest pose kept.
+   *
+   * @param timestamps past times (s)
+   * @return Field relative robot pose at each time, null before the first update
+   */
+  public Pose2d[] getPosesAt(double... timestamps) {
+    synchronized (m_lock) {
+      final var current = m_odometry.getPoseMeters();
+      final var estimate = m_estimator.getEstimatedPosition();
+      final var poses = new Pose2d[timestamps.length];
+      for (int i = 0; i < timestamps.length; ++i) {
+        final var past = m_odometryHistory.getSample(timestamps[i]);
+        if (past.isEmpty()) {
+          return null;
+        }
+        poses[i] = estimate.transformBy(new Transform2d(current, past.get()));
+      }
+      return poses;
+    }
+  }
+
+  /**
+   * Fuses a vision pose measurement into the estimator
+   *
+   * @param visionPose field relative robot pose measured by vision
+   * @param timestamp image capture timestamp (s)
+   * @param stdDevs measurement standard deviations (x (m), y (m), heading (rad))
+   */
+  public void addVisionMeasurement(Pose2d visionPose, double timestamp, Matrix<N3, N1> stdDevs) {
+    synchronized (m_lock) {
+      m_estimator.addVisionMeasurement(visionPose, timestamp, stdDevs);
+      m_lastVisionTimestamp = timestamp;
+      this.republish();
+    }
+  }
+
+  /**
+   * Resets the estimator to the given pose
+   *
+   * @param pose field relative robot pose
+   */
+  public void resetPosition(Pose2d pose) {
+    synchronized (m_lock) {
+      this.sample(m_snapshot.get().m_timestamp);
+      m_estimator.resetPosition(m_gyroAngle, m_modulePositions, pose);
+      this.republish();
+    }
+  }
+
+  /**
+   * Publishes the current estimate, must be called with the lock held
+   *
+   * @param timestamp sample timestamp (s)
+   * @param speeds robot relative chassis speeds
+   */
+  private void publish(double timestamp, ChassisSpeeds speeds) {
+    m_snapshot.set(
+        new PoseSnapshot(
+            timestamp,
+            m_estimator.getEstimatedPosition(),
+            speeds,
+            timestamp - m_lastVisionTimestamp < kVisionFreshness));
+  }
+
+  /** Publishes the current estimate with the last sampled time and speeds */
+  private void republish() {
+    final var last = m_snapshot.get();
+    this.publish(last.m_timestamp, last.getSpeeds());
+  }
+
+  /**
+   * Samples the gyro and the modules, and aligns them to a common time
+   *
+   * <p>Each module sample is extrapolated from the time its device measured it to the given time,
+   * with the wheel speed and turn rate sampled along. The gyro is extrapolated by its latency with
+   * its rate. Refreshes the gyro angle and the module position and state buffers in place.
+   *
+   * @param timestamp time the sensors are read, common time of the aligned samples (s)
+   */
+  private void sample(double timestamp) {
+    m_gyroAngle = m_gyro.getRotation2d();
+    if (m_gyroLatency > 0.0) {
+      // Gyro rate is clockwise positive (deg/s)
+      final double gyroCorrection = -Math.toRadians(m_gyro.getRate()) * m_gyroLatency;
+      m_gyroAngle = m_gyroAngle.plus(new Rotation2d(gyroCorrection));
+    }
+
+    for (int i = 0; i < m_modules.length; ++i) {
+      final var sample = m_moduleSamples[i];
+      m_modules[i].sample(sample, timestamp);
+
+      final double age = timestamp - sample.m_timestamp;
+      final double speed = sample.m_state.speedMetersPerSecond;
+      final double turn = sample.m_turnRate * age;
+      final var angle = sample.m_position.angle;
+      final var alignedAngle = turn == 0.0 ? angle : angle.plus(new Rotation2d(turn));
+
+      m_modulePositions[i].distanceMeters = sample.m_position.distanceMeters + speed * age;
+      m_modulePositions[i].angle = alignedAngle;
+      m_moduleStates[i].speedMetersPerSecond = speed;
+      m_moduleStates[i].angle = alignedAngle;
+    }
+  }
+}
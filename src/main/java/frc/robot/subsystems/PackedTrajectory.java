@@ -0,0 +1,354 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import com.pathplanner.lib.PathPlannerTrajectory.StopEvent;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.trajectory.Trajectory;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.AbstractList;
+import java.util.Collections;
+
+/**
+ * Trajectory sampled at build time and stored as primitive columns in a memory mapped file.
+ *
+ * <p>Files are written by the {@code packTrajectories} Gradle task from the deployed path planner
+ * files, generated with the constraints used at runtime. The layout is a big endian header (magic,
+ * version, state count, max velocity (m/s), max acceleration (m/s^2)) followed by one column of
+ * doubles per state field: time (s), x (m), y (m), heading (rad), velocity (m/s), acceleration
+ * (m/s^2), curvature (rad/m), holonomic rotation (rad), angular velocity (rad/s) and holonomic
+ * angular velocity (rad/s).
+ */
+public class PackedTrajectory {
+
+  // File format
+  public static final int kMagic = 0x50545241;
+  public static final int kVersion = 2;
+  public static final String kExtension = ".traj";
+  private static final int kHeaderBytes = 3 * Integer.BYTES + 2 * Double.BYTES;
+
+  // Column indices
+  private static final int kTime = 0;
+  private static final int kX = 1;
+  private static final int kY = 2;
+  private static final int kHeading = 3;
+  private static final int kVelocity = 4;
+  private static final int kAcceleration = 5;
+  private static final int kCurvature = 6;
+  private static final int kHolonomicRotation = 7;
+  private static final int kAngularVelocity = 8;
+  private static final int kHolonomicAngularVelocity = 9;
+  private static final int kColumnCount = 10;
+
+  // Red alliance trajectories are mirrored across the field width, as path planner does (m)
+  private static final double kFieldWidth = 8.02;
+
+  // Member objects
+  private final DoubleBuffer m_data;
+  private final int m_length;
+  private final PathConstraints m_constraints;
+
+  /**
+   * Creates a new PackedTrajectory
+   *
+   * @param data state columns, one after the other
+   * @param length number of states
+   * @param constraints constraints the trajectory was generated with
+   */
+  private PackedTrajectory(DoubleBuffer data, int length, PathConstraints constraints) {
+    m_data = data;
+    m_length = length;
+    m_constraints = constraints;
+  }
+
+  /**
+   * Maps a packed trajectory file
+   *
+   * @param file packed trajectory file
+   * @return mapped trajectory
+   * @throws IOException if the file can't be read or is not a packed trajectory
+   */
+  public static PackedTrajectory load(File file) throws IOException {
+    try (final var channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      final var buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+      if (buffer.remaining() < kHeaderBytes
+          || buffer.getInt() != kMagic
+          || buffer.getInt() != kVersion) {
+        throw new IOException("Not a packed trajectory: " + file);
+      }
+
+      final int length = buffer.getInt();
+      final var constraints = new PathConstraints(buffer.getDouble(), buffer.getDouble());
+      if (length < 1 || buffer.remaining() < (long) length * kColumnCount * Double.BYTES) {
+        throw new IOException("Truncated packed trajectory: " + file);
+      }
+
+      // The mapping stays valid once the channel is closed
+      return new PackedTrajectory(buffer.asDoubleBuffer(), length, constraints);
+    }
+  }
+
+  /**
+   * Writes a trajectory to a packed trajectory file
+   *
+   * @param trajectory path planner trajectory
+   * @param constraints constraints the trajectory was generated with
+   * @param file packed trajectory file
+   * @throws IOException if the file can't be written
+   */
+  public static void write(PathPlannerTrajectory trajectory, PathConstraints constraints, File file)
+      throws IOException {
+    final var states = trajectory.getStates();
+    try (final var out =
+        new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+      out.writeInt(kMagic);
+      out.writeInt(kVersion);
+      out.writeInt(states.size());
+      out.writeDouble(constraints.maxVelocity);
+      out.writeDouble(constraints.maxAcceleration);
+      for (int column = 0; column < kColumnCount; ++column) {
+        for (final var state : states) {
+          out.writeDouble(value((PathPlannerState) state, column));
+        }
+      }
+    }
+  }
+
+  /**
+   * Gets the number of states
+   *
+   * @return number of states
+   */
+  public int getLength() {
+    return m_length;
+  }
+
+  /**
+   * Gets the constraints the trajectory was generated with
+   *
+   * @return path constraints
+   */
+  public PathConstraints getConstraints() {
+    return m_constraints;
+  }
+
+  /**
+   * Gets the trajectory duration
+   *
+   * @return duration (s)
+   */
+  public double getTotalTimeSeconds() {
+    return this.get(kTime, m_length - 1);
+  }
+
+  /**
+   * Gets a stored state
+   *
+   * @param index state index
+   * @return new state
+   */
+  public PathPlannerState getState(int index) {
+    final var state = new PathPlannerState();
+    state.timeSeconds = this.get(kTime, index);
+    state.poseMeters =
+        new Pose2d(
+            this.get(kX, index), this.get(kY, index), new Rotation2d(this.get(kHeading, index)));
+    state.velocityMetersPerSecond = this.get(kVelocity, index);
+    state.accelerationMetersPerSecondSq = this.get(kAcceleration, index);
+    state.curvatureRadPerMeter = this.get(kCurvature, index);
+    state.holonomicRotation = new Rotation2d(this.get(kHolonomicRotation, index));
+    state.angularVelocityRadPerSec = this.get(kAngularVelocity, index);
+    state.holonomicAngularVelocityRadPerSec = this.get(kHolonomicAngularVelocity, index);
+    return state;
+  }
+
+  /**
+   * Samples the trajectory, interpolating between the stored states like path planner does
+   *
+   * @param time time since the start of the trajectory (s)
+   * @return new state
+   */
+  public PathPlannerState sample(double time) {
+    if (time <= this.get(kTime, 0)) {
+      return this.getState(0);
+    }
+    if (time >= this.getTotalTimeSeconds()) {
+      return this.getState(m_length - 1);
+    }
+
+    // Find the first state after the sample time
+    int low = 1;
+    int high = m_length - 1;
+    while (low != high) {
+      final int mid = (low + high) / 2;
+      if (this.get(kTime, mid) < time) {
+        low = mid + 1;
+      } else {
+        high = mid;
+      }
+    }
+
+    // Interpolate the columns directly, no intermediate states
+    final int previous = low - 1;
+    final double startTime = this.get(kTime, previous);
+    final double t = (time - startTime) / (this.get(kTime, low) - startTime);
+
+    final var state = new PathPlannerState();
+    state.timeSeconds = time;
+    state.poseMeters =
+        new Pose2d(
+            this.lerp(kX, previous, t),
+            this.lerp(kY, previous, t),
+            new Rotation2d(this.lerpAngle(kHeading, previous, t)));
+    state.velocityMetersPerSecond = this.lerp(kVelocity, previous, t);
+    state.accelerationMetersPerSecondSq = this.lerp(kAcceleration, previous, t);
+    state.curvatureRadPerMeter = this.lerp(kCurvature, previous, t);
+    state.holonomicRotation = new Rotation2d(this.lerpAngle(kHolonomicRotation, previous, t));
+    state.angularVelocityRadPerSec = this.lerp(kAngularVelocity, previous, t);
+    state.holonomicAngularVelocityRadPerSec = this.lerp(kHolonomicAngularVelocity, previous, t);
+    return state;
+  }
+
+  /**
+   * Gets a path planner trajectory reading its states from the mapped file, without event markers.
+   * States are only created when sampled or read, nothing is copied on the heap.
+   *
+   * @param mirrored mirror the trajectory for the red alliance
+   * @return trajectory backed by the mapped file
+   */
+  public PathPlannerTrajectory asTrajectory(boolean mirrored) {
+    return new MappedTrajectory(this, mirrored);
+  }
+
+  /** Path planner trajectory view of a packed trajectory */
+  public static final class MappedTrajectory extends PathPlannerTrajectory {
+    private final PackedTrajectory m_packed;
+    private final boolean m_mirrored;
+
+    private MappedTrajectory(PackedTrajectory packed, boolean mirrored) {
+      super(
+          new StateList(packed, mirrored),
+          Collections.emptyList(),
+          new StopEvent(),
+          new StopEvent(),
+          true);
+      m_packed = packed;
+      m_mirrored = mirrored;
+    }
+
+    @Override
+    public PathPlannerState sample(double time) {
+      return mirror(m_packed.sample(time), m_mirrored);
+    }
+  }
+
+  /** States of a packed trajectory, created on access */
+  private static final class StateList extends AbstractList<Trajectory.State> {
+    private final PackedTrajectory m_packed;
+    private final boolean m_mirrored;
+
+    StateList(PackedTrajectory packed, boolean mirrored) {
+      m_packed = packed;
+      m_mirrored = mirrored;
+    }
+
+    @Override
+    public Trajectory.State get(int index) {
+      return mirror(m_packed.getState(index), m_mirrored);
+    }
+
+    @Override
+    public int size() {
+      return m_packed.getLength();
+    }
+  }
+
+  /**
+   * Mirrors a new state in place for the red alliance, as path planner transforms states
+   *
+   * @param state new state
+   * @param mirrored mirror the state
+   * @return the same state
+   */
+  private static PathPlannerState mirror(PathPlannerState state, boolean mirrored) {
+    if (mirrored) {
+      state.poseMeters =
+          new Pose2d(
+              state.poseMeters.getX(),
+              kFieldWidth - state.poseMeters.getY(),
+              state.poseMeters.getRotation().times(-1));
+      state.holonomicRotation = state.holonomicRotation.times(-1);
+      state.curvatureRadPerMeter = -state.curvatureRadPerMeter;
+      state.angularVelocityRadPerSec = -state.angularVelocityRadPerSec;
+      state.holonomicAngularVelocityRadPerSec = -state.holonomicAngularVelocityRadPerSec;
+    }
+    return state;
+  }
+
+  /**
+   * Gets the value of a state stored in a column
+   *
+   * @param state path planner state
+   * @param column column index
+   * @return column value
+   */
+  private static double value(PathPlannerState state, int column) {
+    switch (column) {
+      case kTime:
+        return state.timeSeconds;
+      case kX:
+        return state.poseMeters.getX();
+      case kY:
+        return state.poseMeters.getY();
+      case kHeading:
+        return state.poseMeters.getRotation().getRadians();
+      case kVelocity:
+        return state.velocityMetersPerSecond;
+      case kAcceleration:
+        return state.accelerationMetersPerSecondSq;
+      case kCurvature:
+        return state.curvatureRadPerMeter;
+      case kHolonomicRotation:
+        return state.holonomicRotation.getRadians();
+      case kAngularVelocity:
+        return state.angularVelocityRadPerSec;
+      default:
+        return state.holonomicAngularVelocityRadPerSec;
+    }
+  }
+
+  /**
+   * Reads a stored value
+   *
+   * @param column column index
+   * @param index state index
+   * @return stored value
+   */
+  private double get(int column, int index) {
+    return m_data.get(column * m_length + index);
+  }
+
+  private double lerp(int column, int index, double t) {
+    final double start = this.get(column, index);
+    return start + (this.get(column, index + 1) - start) * t;
+  }
+
+  private double lerpAngle(int column, int index, double t) {
+    final double start = this.get(column, index);
+    return start + MathUtil.angleModulus(this.get(column, index + 1) - start) * t;
+  }
+}
@@ -4,69 +4,100 @@
 
 package frc.robot.subsystems;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMax.ControlType;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
-import com.revrobotics.RelativeEncoder;
-import com.revrobotics.SparkMaxPIDController;
-import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+import edu.wpi.first.math.filter.Debouncer;
+import edu.wpi.first.math.filter.Debouncer.DebounceType;
 import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
+import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.LoopProfiler;
+import frc.robot.RobotLogger;
+import frc.robot.SensorCache;
 
 public class PivotArm extends SubsystemBase {
 
   // Subsystem parameters
-  private static final int kPivotId = 16;
-  private static final double kNativeToRad = 1.0;
-  private static final double kNominalVolt = 10.0;
+  static final double kNativeToRad = 1.0;
+  static final double kNominalVolt = 10.0;
   private static final double kHorizontalPercent = 0.02;
-  private static final double kNeutralRad = 1.1;
+  static final double kNeutralRad = 1.1;
 
   public final double kUp = 2.2; // when the gripper is PARRALLEL to the ground
   public final double kDown = 0.0; // when the gripper is PERPENDICULAR to the ground
   private double m_target = kNeutralRad;
   private boolean m_targetUp = false;
   private boolean m_targetDown = false;
-  private static final double kP = 0.15;
-  private static final double kMaxVel = 1.8;
-  private static final double kMaxAcc = 0.5 * kMaxVel;
+  static final double kP = 0.15;
+  static final double kMaxVel = 1.8;
+  static final double kMaxAcc = 0.5 * kMaxVel;
   private static final double deadzone = 0.01;
   private static final double maxResistance = 15;
+  private static final double kSettledRad = 0.1;
+  private static final double kSettleTimeout = 1.0;
+  // Stalled against a hard stop close to the commanded state, for long enough to not be a spike
+  private static final double kStallRad = 0.3;
+  private static final double kStallVel = 0.05;
+  private static final double kStallTime = 0.2;
   private boolean hasSetZero = false;
+  private boolean m_stalled = false;
 
   // Member objects
-  private final CANSparkMax m_pivot = new CANSparkMax(kPivotId, MotorType.kBrushless);
-  private final RelativeEncoder m_encoder = m_pivot.getEncoder();
-  private final SparkMaxPIDController m_pid = m_pivot.getPIDController();
-
-  /** Creates a new PivotArm. */
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+  private final int m_logEntry = RobotLogger.getInstance().addDoubleArray("PivotArm");
+  private final double[] m_logValues = new double[2];
+  private final PivotArmIO m_io;
+  private final SensorCache.CachedDouble m_position;
+  private final SensorCache.CachedDouble m_velocity;
+  private final SensorCache.CachedDouble m_current;
+  private final Debouncer m_stallDebouncer = new Debouncer(kStallTime, DebounceType.kRising);
+
+  /** Creates a new PivotArm, simulated when not running on the robot. */
   public PivotArm() {
+    this(RobotBase.isReal() ? new PivotArmIOSparkMax() : new PivotArmIOSim());
+  }
 
-    m_pivot.restoreFactoryDefaults();
-    m_pivot.enableVoltageCompensation(kNominalVolt);
-
-    m_encoder.setPositionConversionFactor(kNativeToRad);
-    m_encoder.setVelocityConversionFactor(kNativeToRad);
-    m_encoder.setPosition(kNeutralRad);
-
-    m_pid.setSmartMotionMaxVelocity(kMaxVel, 0);
-    m_pid.setSmartMotionMaxAccel(kMaxAcc, 0);
-    m_pid.setP(kP);
-
-    m_pivot.burnFlash();
+  /**
+   * Creates a new PivotArm
+   *
+   * @param io pivot hardware
+   */
+  public PivotArm(PivotArmIO io) {
+    m_io = io;
+    m_position = SensorCache.getInstance().addDouble(io::getPosition);
+    m_velocity = SensorCache.getInstance().addDouble(io::getVelocity);
+    m_current = SensorCache.getInstance().addDouble(io::getOutputCurrent);
   }
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
 
-    if (DriverStation.isDisabled()) m_target = m_encoder.getPosition();
-    else if (m_targetUp) m_target = kUp;
-    else if (m_targetDown) m_target = kDown;
-    else m_target = kNeutralRad;
+    if (DriverStation.isDisabled()) m_target = m_position.get();
+    else m_target = commandedTarget();
 
-    final var ff = kHorizontalPercent * Math.sin(m_encoder.getPosition());
-    m_pid.setReference(m_target, ControlType.kPosition, 0, ff, ArbFFUnits.kPercentOut);
+    final var ff = kHorizontalPercent * Math.sin(m_position.get());
+    m_io.setPosition(m_target, ff);
+
+    m_stalled =
+        m_stallDebouncer.calculate(
+            maxResReached()
+                && Math.abs(m_velocity.get()) < kStallVel
+                && Math.abs(m_position.get() - commandedTarget()) < kStallRad);
+
+    // Log setpoint and measurement
+    m_logValues[0] = m_target;
+    m_logValues[1] = m_position.get();
+    RobotLogger.getInstance().log(m_logEntry, m_logValues, m_logValues.length);
+
+    m_profilerSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    m_io.simulate(TimedRobot.kDefaultPeriod);
   }
 
   public boolean isClawUp() {
@@ -86,12 +117,33 @@ public class PivotArm extends SubsystemBase {
   }
 
   public boolean isOnTarget() {
-    return m_encoder.getPosition() > deadzone + m_target
-        && m_encoder.getPosition() < m_target - deadzone;
+    return Math.abs(m_position.get() - m_target) < deadzone;
+  }
+
+  /**
+   * Check if the pivot reached the commanded state, or stalls against a hard stop close to it
+   *
+   * <p>Uses the commanded state rather than the target, which is only updated on the next periodic.
+   * A stall only counts once the current stayed high with the pivot stopped for {@link
+   * #kStallTime}, a current spike while moving does not.
+   *
+   * @return pivot settled
+   */
+  public boolean isSettled() {
+    return Math.abs(m_position.get() - commandedTarget()) < kSettledRad || m_stalled;
+  }
+
+  /**
+   * Waits for the pivot to settle, at most {@link #kSettleTimeout} in case it never does
+   *
+   * @return wait command, requiring no subsystem
+   */
+  public Command waitSettled() {
+    return Commands.waitUntil(this::isSettled).withTimeout(kSettleTimeout);
   }
 
   public boolean maxResReached() {
-    return m_pivot.getOutputCurrent() > maxResistance;
+    return m_current.get() > maxResistance;
   }
 
   public void setZero() {
@@ -101,7 +153,13 @@ public class PivotArm extends SubsystemBase {
     }
   }
 
+  private double commandedTarget() {
+    if (m_targetUp) return kUp;
+    if (m_targetDown) return kDown;
+    return kNeutralRad;
+  }
+
   private Command setSpeed(double speed) {
-    return this.run(() -> m_pivot.set(speed));
+    return this.run(() -> m_io.set(speed));
   }
 }
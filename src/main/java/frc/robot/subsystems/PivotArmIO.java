@@ -0,0 +1,58 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/** Gripper pivot hardware, angles are measured from the gripper pointing down */
+public interface PivotArmIO {
+  /**
+   * Gets the pivot angle
+   *
+   * @return angle (rad)
+   */
+  public double getPosition();
+
+  /**
+   * Gets the pivot angular velocity
+   *
+   * @return velocity (rad/s)
+   */
+  public double getVelocity();
+
+  /**
+   * Sets the current pivot angle, the mechanism does not move
+   *
+   * @param rad current angle (rad)
+   */
+  public void resetPosition(double rad);
+
+  /**
+   * Runs the motor controller position loop
+   *
+   * @param targetRad target angle (rad)
+   * @param ffPercent arbitrary feedforward added to the loop output (-1, 1)
+   */
+  public void setPosition(double targetRad, double ffPercent);
+
+  /**
+   * Sets the motor output in open loop
+   *
+   * @param percent output (-1, 1)
+   */
+  public void set(double percent);
+
+  /**
+   * Gets the motor current
+   *
+   * @return output current (A)
+   */
+  public double getOutputCurrent();
+
+  /**
+   * Advances the simulated mechanism, only called in simulation
+   *
+   * @param dt simulated time step (s)
+   */
+  public default void simulate(double dt) {}
+}
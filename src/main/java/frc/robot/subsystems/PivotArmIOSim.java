@@ -0,0 +1,92 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.simulation.SingleJointedArmSim;
+
+/**
+ * Simulated gripper pivot, a NEO swinging the gripper against gravity.
+ *
+ * <p>The motor controller position loop is emulated with the same proportional gain, on a voltage
+ * compensated output. The arm model angle is measured from horizontal, so it is offset by a quarter
+ * turn from the pivot angle.
+ */
+public class PivotArmIOSim implements PivotArmIO {
+
+  // Simulation parameters
+  private static final double kGearing = 100.0;
+  private static final double kArmLength = 0.4;
+  private static final double kArmMass = 4.0;
+  private static final double kMaxAngle = 2.4;
+  private static final double kAngleOffset = -Math.PI / 2.0;
+
+  // Member objects
+  private final SingleJointedArmSim m_sim =
+      new SingleJointedArmSim(
+          DCMotor.getNEO(1),
+          kGearing,
+          SingleJointedArmSim.estimateMOI(kArmLength, kArmMass),
+          kArmLength,
+          kAngleOffset,
+          kMaxAngle + kAngleOffset,
+          true);
+
+  // Process variables
+  private boolean m_closedLoop = false;
+  private double m_percent = 0.0;
+  private double m_targetRad = 0.0;
+  private double m_encoderOffset = 0.0;
+
+  /** Creates a new PivotArmIOSim, starting at the neutral angle. */
+  public PivotArmIOSim() {
+    m_sim.setState(VecBuilder.fill(PivotArm.kNeutralRad + kAngleOffset, 0.0));
+  }
+
+  @Override
+  public double getPosition() {
+    return m_sim.getAngleRads() - kAngleOffset - m_encoderOffset;
+  }
+
+  @Override
+  public double getVelocity() {
+    return m_sim.getVelocityRadPerSec();
+  }
+
+  @Override
+  public void resetPosition(double rad) {
+    m_encoderOffset = m_sim.getAngleRads() - kAngleOffset - rad;
+  }
+
+  @Override
+  public void setPosition(double targetRad, double ffPercent) {
+    m_closedLoop = true;
+    m_targetRad = targetRad;
+    m_percent = ffPercent;
+  }
+
+  @Override
+  public void set(double percent) {
+    m_closedLoop = false;
+    m_percent = percent;
+  }
+
+  @Override
+  public double getOutputCurrent() {
+    return m_sim.getCurrentDrawAmps();
+  }
+
+  @Override
+  public void simulate(double dt) {
+    double percent = m_percent;
+    if (m_closedLoop) {
+      percent += PivotArm.kP * (m_targetRad - this.getPosition());
+    }
+    m_sim.setInputVoltage(MathUtil.clamp(percent, -1.0, 1.0) * PivotArm.kNominalVolt);
+    m_sim.update(dt);
+  }
+}
@@ -0,0 +1,80 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.ControlType;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.RelativeEncoder;
+import com.revrobotics.SparkMaxPIDController;
+import com.revrobotics.SparkMaxPIDController.ArbFFUnits;
+import frc.robot.CanBudget;
+
+/** Gripper pivot driven by a Spark Max running its onboard position loop */
+public class PivotArmIOSparkMax implements PivotArmIO {
+
+  // Hardware parameters
+  private static final int kPivotId = 16;
+  // Position, velocity and stall current are read every loop
+  private static final int kFramePeriod = 20;
+
+  // Member objects
+  private final CANSparkMax m_pivot = new CANSparkMax(kPivotId, MotorType.kBrushless);
+  private final RelativeEncoder m_encoder = m_pivot.getEncoder();
+  private final SparkMaxPIDController m_pid = m_pivot.getPIDController();
+
+  /** Creates a new PivotArmIOSparkMax. */
+  public PivotArmIOSparkMax() {
+
+    m_pivot.restoreFactoryDefaults();
+    m_pivot.enableVoltageCompensation(PivotArm.kNominalVolt);
+    CanBudget.getInstance()
+        .configure(
+            m_pivot,
+            CanBudget.kSparkMaxUnused.withStatus1(kFramePeriod).withStatus2(kFramePeriod),
+            true);
+
+    m_encoder.setPositionConversionFactor(PivotArm.kNativeToRad);
+    m_encoder.setVelocityConversionFactor(PivotArm.kNativeToRad);
+    m_encoder.setPosition(PivotArm.kNeutralRad);
+
+    m_pid.setSmartMotionMaxVelocity(PivotArm.kMaxVel, 0);
+    m_pid.setSmartMotionMaxAccel(PivotArm.kMaxAcc, 0);
+    m_pid.setP(PivotArm.kP);
+
+    m_pivot.burnFlash();
+  }
+
+  @Override
+  public double getPosition() {
+    return m_encoder.getPosition();
+  }
+
+  @Override
+  public double getVelocity() {
+    // Encoder velocity is per minute
+    return m_encoder.getVelocity() / 60.0;
+  }
+
+  @Override
+  public void resetPosition(double rad) {
+    m_encoder.setPosition(rad);
+  }
+
+  @Override
+  public void setPosition(double targetRad, double ffPercent) {
+    m_pid.setReference(targetRad, ControlType.kPosition, 0, ffPercent, ArbFFUnits.kPercentOut);
+  }
+
+  @Override
+  public void set(double percent) {
+    m_pivot.set(percent);
+  }
+
+  @Override
+  public double getOutputCurrent() {
+    return m_pivot.getOutputCurrent();
+  }
+}
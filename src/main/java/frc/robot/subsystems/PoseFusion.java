@@ -0,0 +1,167 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import frc.robot.subsystems.Vision.VisionGate;
+import frc.robot.subsystems.Vision.VisionMeasurement;
+
+/**
+ * Fuses vision measurements into the odometry pose estimate.
+ *
+ * <p>Measurements are weighted from the tag distance and the robot speed, gated, then either reset
+ * the estimate on the first observation or are added to the estimator. Does not use any hardware,
+ * so the same fusion runs on the robot and in log replay where the weights can be tuned.
+ */
+public class PoseFusion {
+
+  // Vision standard deviations at 1 m from a tag while stopped (m, m, rad)
+  public static final double kVisionXYStdDev = 0.1;
+  public static final double kVisionThetaStdDev = 0.2;
+  // Vision standard deviation growth per robot speed unit (per m/s, per rad/s)
+  public static final double kVisionTransSpeedScale = 0.5;
+  public static final double kVisionRotSpeedScale = 0.3;
+
+  // Member objects
+  private final OdometryThread m_odometry;
+  private final VisionGate m_gate;
+
+  // Fusion parameters
+  private double m_xyStdDev = kVisionXYStdDev;
+  private double m_thetaStdDev = kVisionThetaStdDev;
+  private double m_transSpeedScale = kVisionTransSpeedScale;
+  private double m_rotSpeedScale = kVisionRotSpeedScale;
+
+  // Process variables
+  private double m_lastVisionTimestamp = -1.0;
+  private Pose2d m_lastVisionPose = null;
+
+  /**
+   * Creates a new PoseFusion
+   *
+   * @param odometry odometry estimating the robot pose
+   * @param gate gate rejecting untrusted measurements
+   */
+  public PoseFusion(OdometryThread odometry, VisionGate gate) {
+    m_odometry = odometry;
+    m_gate = gate;
+  }
+
+  /**
+   * Sets the vision weights
+   *
+   * @param xyStdDev translation standard deviation at 1 m from a tag while stopped (m)
+   * @param thetaStdDev heading standard deviation at 1 m from a tag while stopped (rad)
+   * @param transSpeedScale standard deviation growth per translation speed (per m/s)
+   * @param rotSpeedScale standard deviation growth per rotation speed (per rad/s)
+   */
+  public void setWeights(
+      double xyStdDev, double thetaStdDev, double transSpeedScale, double rotSpeedScale) {
+    m_xyStdDev = xyStdDev;
+    m_thetaStdDev = thetaStdDev;
+    m_transSpeedScale = transSpeedScale;
+    m_rotSpeedScale = rotSpeedScale;
+  }
+
+  /**
+   * Fuses a vision measurement into the pose estimator
+   *
+   * @param visionMes vision measurement
+   * @return gate decision
+   */
+  public VisionGate.Result add(VisionMeasurement visionMes) {
+    final var snapshot = m_odometry.getSnapshot();
+    Pose2d visionPose;
+
+    final var heading = snapshot.m_pose.getRotation();
+    if (heading.getDegrees() > 90 || heading.getDegrees() < -90) {
+      visionPose =
+          new Pose2d(
+              visionMes.m_pose.getTranslation(),
+              visionMes.m_pose.getRotation().rotateBy(Rotation2d.fromDegrees(180)));
+    } else {
+      visionPose = new Pose2d(visionMes.m_pose.getTranslation(), visionMes.m_pose.getRotation());
+    }
+    m_lastVisionPose = visionPose;
+
+    // Reject measurements that cannot be trusted, compared with the estimate when each image was
+    // captured, no prediction on first observation
+    final boolean firstObservation = m_lastVisionTimestamp < 0.0;
+    final var stdDevs = this.visionStdDevs(visionMes, snapshot.getSpeeds());
+    final var predicted =
+        firstObservation
+            ? null
+            : m_odometry.getPosesAt(visionMes.m_timestamp, m_lastVisionTimestamp);
+    final var result =
+        m_gate.check(
+            visionMes.m_timestamp,
+            visionPose,
+            predicted == null ? null : predicted[0],
+            predicted == null ? null : predicted[1],
+            stdDevs);
+
+    if (result != VisionGate.Result.Accepted) {
+      return result;
+    }
+
+    if (firstObservation) {
+      // Reset odometry to vision measurement on first observation
+      m_odometry.resetPosition(visionPose);
+    } else {
+      m_odometry.addVisionMeasurement(visionPose, visionMes.m_timestamp, stdDevs);
+    }
+    m_lastVisionTimestamp = visionMes.m_timestamp;
+    return result;
+  }
+
+  /**
+   * Gets the capture timestamp of the last fused measurement
+   *
+   * @return capture timestamp (s), negative if no measurement was fused yet
+   */
+  public double getLastTimestamp() {
+    return m_lastVisionTimestamp;
+  }
+
+  /**
+   * Gets the robot pose of the last gated measurement, flipped to the estimated heading side
+   *
+   * @return field relative robot pose or null
+   */
+  public Pose2d getLastVisionPose() {
+    return m_lastVisionPose;
+  }
+
+  public VisionGate getGate() {
+    return m_gate;
+  }
+
+  /**
+   * Computes how much a vision measurement should be trusted.
+   *
+   * <p>Trust decreases with the square of the tag distance and with the robot speed (motion blur
+   * and timestamp error).
+   *
+   * @param visionMes vision measurement
+   * @param speeds current robot relative chassis speeds
+   * @return standard deviations (x (m), y (m), heading (rad))
+   */
+  private Matrix<N3, N1> visionStdDevs(VisionMeasurement visionMes, ChassisSpeeds speeds) {
+    final double transSpeed = Math.hypot(speeds.vxMetersPerSecond, speeds.vyMetersPerSecond);
+    final double rotSpeed = Math.abs(speeds.omegaRadiansPerSecond);
+    final double speedScale = 1.0 + m_transSpeedScale * transSpeed + m_rotSpeedScale * rotSpeed;
+    final double distanceScale = 1.0 + visionMes.m_tagDistance * visionMes.m_tagDistance;
+    final double scale = distanceScale * speedScale;
+
+    final double xyStdDev = m_xyStdDev * scale;
+    return VecBuilder.fill(xyStdDev, xyStdDev, m_thetaStdDev * scale);
+  }
+}
@@ -0,0 +1,62 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+
+/**
+ * Immutable view of the latest fused robot state, published once per odometry update and safe to
+ * share between threads
+ *
+ * <p>{@link ChassisSpeeds} is mutable, so the speeds are copied in and out of primitive fields.
+ */
+public final class PoseSnapshot {
+
+  /** Sample timestamp (s) */
+  public final double m_timestamp;
+
+  /** Field relative robot pose (m) */
+  public final Pose2d m_pose;
+
+  /** Robot relative forward speed (m/s) */
+  public final double m_vx;
+
+  /** Robot relative left speed (m/s) */
+  public final double m_vy;
+
+  /** Counter clockwise rotation speed (rad/s) */
+  public final double m_omega;
+
+  /** A vision measurement was fused recently */
+  public final boolean m_hasRecentVision;
+
+  /**
+   * Creates a new PoseSnapshot
+   *
+   * @param timestamp sample timestamp (s)
+   * @param pose field relative robot pose (m)
+   * @param speeds robot relative chassis speeds (m/s, rad/s)
+   * @param hasRecentVision a vision measurement was fused recently
+   */
+  public PoseSnapshot(
+      double timestamp, Pose2d pose, ChassisSpeeds speeds, boolean hasRecentVision) {
+    m_timestamp = timestamp;
+    m_pose = pose;
+    m_vx = speeds.vxMetersPerSecond;
+    m_vy = speeds.vyMetersPerSecond;
+    m_omega = speeds.omegaRadiansPerSecond;
+    m_hasRecentVision = hasRecentVision;
+  }
+
+  /**
+   * Gets a copy of the chassis speeds, the caller may modify it
+   *
+   * @return robot relative chassis speeds (m/s, rad/s)
+   */
+  public ChassisSpeeds getSpeeds() {
+    return new ChassisSpeeds(m_vx, m_vy, m_omega);
+  }
+}
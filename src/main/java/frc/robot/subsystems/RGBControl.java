@@ -15,6 +15,7 @@ import edu.wpi.first.wpilibj.PowerDistribution.ModuleType;
 import edu.wpi.first.wpilibj.Solenoid;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
+import frc.robot.LoopProfiler;
 
 /** Subsystem for the RGBPanel */
 public class RGBControl extends SubsystemBase {
@@ -33,14 +34,20 @@ public class RGBControl extends SubsystemBase {
   private static Solenoid blue = new Solenoid(0, PneumaticsModuleType.CTREPCM, blueChannel);
   private static Solenoid common = new Solenoid(0, PneumaticsModuleType.CTREPCM, commonChannel);
 
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+
   /** Creates a new RGBControl. */
   public RGBControl() {}
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
     // This method will be called once per scheduler run
 
     m_pdp.setSwitchableChannel(DriverStation.isEnabled());
+
+    m_profilerSection.end();
   }
 
   public Command Command3360() {
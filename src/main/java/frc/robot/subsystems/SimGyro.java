@@ -0,0 +1,69 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+import frc.robot.sim.SimNoise;
+
+/**
+ * Simulated gyro integrating the robot rotation speed.
+ *
+ * <p>Read by the odometry thread, so the angle is published through a volatile field. With {@link
+ * SimNoise} enabled, the angle drifts at a constant rate and its readings are noisy.
+ */
+public class SimGyro implements Gyro {
+
+  // Sensor noise standard deviations (rad/s, rad)
+  private static final double kDriftNoise = 0.002;
+  private static final double kAngleNoise = 0.002;
+
+  // Member objects
+  private final double m_drift = SimNoise.getInstance().gaussian(kDriftNoise);
+
+  // Process variables
+  private double m_angle = 0.0;
+  private volatile double m_reading = 0.0;
+  private volatile double m_rate = 0.0;
+
+  /**
+   * Advances the simulated gyro
+   *
+   * @param dt simulated time step (s)
+   * @param rate counter clockwise positive robot rotation speed (rad/s)
+   */
+  public void simulate(double dt, double rate) {
+    m_rate = rate + m_drift;
+    m_angle += m_rate * dt;
+    m_reading = m_angle + SimNoise.getInstance().gaussian(kAngleNoise);
+  }
+
+  @Override
+  public Rotation2d getRotation2d() {
+    return new Rotation2d(m_reading);
+  }
+
+  @Override
+  public double getAngle() {
+    return -Math.toDegrees(m_reading);
+  }
+
+  @Override
+  public double getRate() {
+    return -Math.toDegrees(m_rate);
+  }
+
+  @Override
+  public void calibrate() {}
+
+  @Override
+  public void reset() {
+    m_angle = 0.0;
+    m_reading = 0.0;
+  }
+
+  @Override
+  public void close() {}
+}
@@ -0,0 +1,160 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.SimSwerveModule;
+
+import static frc.robot.Constants.WCPSwerveModule.*;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.controller.PIDController;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.simulation.DCMotorSim;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+import frc.robot.sim.SimNoise;
+import frc.robot.subsystems.SwerveModule;
+
+/**
+ * Simulated swerve module with the WCP module gearing and Falcon 500 motors.
+ *
+ * <p>The drive wheel is modeled as a flywheel loaded with a share of the robot inertia, the motor
+ * controller velocity loop as the velocity and acceleration feedforward of that plant plus a
+ * proportional voltage. The steering is modeled as
+ * a DC motor with a position loop. Sensor values are read by the odometry thread, so they are
+ * published through volatile fields.
+ *
+ * <p>With {@link SimNoise} enabled, the measured distance drifts from the simulated one by a
+ * constant wheel slip plus random steps, and the measured speed and angle are noisy.
+ */
+public class SimSwerveModule implements SwerveModule {
+
+  // Simulation parameters
+  private static final double kNominalVolt = 10.0;
+  private static final double kWheelRadius = 0.0508;
+  private static final double kFalconTicksPerRotation = 2048.0;
+  private static final double kDriveGearing =
+      2.0 * Math.PI * kWheelRadius / (kTickToMeter * kFalconTicksPerRotation);
+  private static final double kDriveMoi = 0.03;
+  private static final double kTurnGearing = 150.0 / 7.0;
+  private static final double kTurnMoi = 0.004;
+
+  private static final DCMotor kDriveMotor = DCMotor.getFalcon500(1);
+  private static final double kDriveFreeSpeed =
+      kDriveMotor.freeSpeedRadPerSec / kDriveGearing * kWheelRadius;
+  private static final double kDriveKv = 12.0 / kDriveFreeSpeed;
+  private static final double kDriveKa =
+      kDriveMoi * kDriveMotor.rOhms / (kDriveGearing * kDriveMotor.KtNMPerAmp * kWheelRadius);
+  private static final double kDriveKp = 2.0;
+  private static final double kTurnKp = 8.0;
+
+  // Sensor noise standard deviations (ratio, m per step, m/s, rad)
+  private static final double kSlipNoise = 0.02;
+  private static final double kDistanceNoise = 0.0005;
+  private static final double kSpeedNoise = 0.02;
+  private static final double kAngleNoise = 0.005;
+
+  // Member objects
+  private final FlywheelSim m_driveSim = new FlywheelSim(kDriveMotor, kDriveGearing, kDriveMoi);
+  private final DCMotorSim m_turnSim =
+      new DCMotorSim(DCMotor.getFalcon500(1), kTurnGearing, kTurnMoi);
+  private final PIDController m_turnPid = new PIDController(kTurnKp, 0.0, 0.0);
+  private final SimpleMotorFeedforward m_driveFeedforward =
+      new SimpleMotorFeedforward(0.0, kDriveKv, kDriveKa);
+  private final double m_slip = SimNoise.getInstance().gaussian(kSlipNoise);
+
+  // Process variables
+  private SwerveModuleState m_desiredState = new SwerveModuleState();
+  private double m_desiredAccel = 0.0;
+  private boolean m_openLoop = false;
+  private double m_openLoopVolts = 0.0;
+  private volatile double m_distance = 0.0;
+  private volatile double m_speed = 0.0;
+  private volatile Rotation2d m_angle = new Rotation2d();
+  private double m_simSpeed = 0.0;
+  private Rotation2d m_simAngle = new Rotation2d();
+
+  SimSwerveModule() {
+    m_turnPid.enableContinuousInput(-Math.PI, Math.PI);
+  }
+
+  @Override
+  public void periodic() {}
+
+  @Override
+  public SwerveModuleState getState() {
+    return new SwerveModuleState(m_speed, m_angle);
+  }
+
+  @Override
+  public SwerveModulePosition getPosition() {
+    return new SwerveModulePosition(m_distance, m_angle);
+  }
+
+  @Override
+  public void updateState(SwerveModuleState state) {
+    state.speedMetersPerSecond = m_speed;
+    state.angle = m_angle;
+  }
+
+  @Override
+  public void updatePosition(SwerveModulePosition position) {
+    position.distanceMeters = m_distance;
+    position.angle = m_angle;
+  }
+
+  @Override
+  public void updateSimulatedState(SwerveModuleState state) {
+    state.speedMetersPerSecond = m_simSpeed;
+    state.angle = m_simAngle;
+  }
+
+  @Override
+  public void setDesiredState(SwerveModuleState desiredState) {
+    this.setDesiredState(desiredState, 0.0);
+  }
+
+  @Override
+  public void setDesiredState(SwerveModuleState desiredState, double accelMetersPerSecondSq) {
+    m_desiredState = SwerveModuleState.optimize(desiredState, m_angle);
+    m_desiredAccel =
+        m_desiredState.angle.equals(desiredState.angle)
+            ? accelMetersPerSecondSq
+            : -accelMetersPerSecondSq;
+    m_openLoop = false;
+  }
+
+  @Override
+  public void setDriveVoltage(double driveVolts, Rotation2d angle) {
+    m_desiredState = new SwerveModuleState(0.0, angle);
+    m_openLoopVolts = driveVolts;
+    m_openLoop = true;
+  }
+
+  @Override
+  public void simulate(double dt) {
+    final double speed = m_driveSim.getAngularVelocityRadPerSec() * kWheelRadius;
+    final double driveVolts =
+        m_openLoop
+            ? m_openLoopVolts
+            : m_driveFeedforward.calculate(m_desiredState.speedMetersPerSecond, m_desiredAccel)
+                + kDriveKp * (m_desiredState.speedMetersPerSecond - speed);
+    m_driveSim.setInputVoltage(MathUtil.clamp(driveVolts, -kNominalVolt, kNominalVolt));
+    m_driveSim.update(dt);
+
+    final double turnVolts =
+        m_turnPid.calculate(m_angle.getRadians(), m_desiredState.angle.getRadians());
+    m_turnSim.setInputVoltage(MathUtil.clamp(turnVolts, -kNominalVolt, kNominalVolt));
+    m_turnSim.update(dt);
+
+    final var noise = SimNoise.getInstance();
+    m_simSpeed = m_driveSim.getAngularVelocityRadPerSec() * kWheelRadius;
+    m_simAngle = new Rotation2d(MathUtil.angleModulus(m_turnSim.getAngularPositionRad()));
+    m_speed = m_simSpeed + noise.gaussian(kSpeedNoise);
+    m_distance += m_simSpeed * dt * (1.0 + m_slip) + noise.gaussian(kDistanceNoise);
+    m_angle = m_simAngle.plus(new Rotation2d(noise.gaussian(kAngleNoise)));
+  }
+}
@@ -0,0 +1,29 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.SimSwerveModule;
+
+import static frc.robot.Constants.WCPSwerveModule.*;
+
+import edu.wpi.first.math.geometry.Translation2d;
+import frc.robot.subsystems.SwerveModule;
+import frc.robot.subsystems.SwerveModuleFactory;
+
+/** Creates simulated modules at the WCP module locations */
+public class SimSwerveModuleFactory implements SwerveModuleFactory {
+
+  @Override
+  public SwerveModule[] createModules() {
+    var modules = new SimSwerveModule[kLocations.length];
+    for (int i = 0; i < modules.length; ++i) {
+      modules[i] = new SimSwerveModule();
+    }
+    return modules;
+  }
+
+  @Override
+  public Translation2d[] getLocations() {
+    return kLocations;
+  }
+}
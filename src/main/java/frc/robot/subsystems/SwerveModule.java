@@ -4,6 +4,7 @@
 
 package frc.robot.subsystems;
 
+import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
 
@@ -23,6 +24,47 @@ public interface SwerveModule {
    */
   public SwerveModulePosition getPosition();
 
+  /**
+   * Updates the given state in place with the current module velocity and angle.
+   *
+   * <p>Used by the odometry loop to avoid allocating new states every update.
+   *
+   * @param state Module state to fill
+   */
+  public default void updateState(SwerveModuleState state) {
+    final var current = this.getState();
+    state.speedMetersPerSecond = current.speedMetersPerSecond;
+    state.angle = current.angle;
+  }
+
+  /**
+   * Updates the given position in place with the current module distance and angle.
+   *
+   * <p>Used by the odometry loop to avoid allocating new positions every update.
+   *
+   * @param position Module position to fill
+   */
+  public default void updatePosition(SwerveModulePosition position) {
+    final var current = this.getPosition();
+    position.distanceMeters = current.distanceMeters;
+    position.angle = current.angle;
+  }
+
+  /**
+   * Samples the module sensors in place, with the time the device measured them.
+   *
+   * <p>Modules that can't tell when their sensors were measured use the read time and no turn rate.
+   *
+   * @param sample Sample to fill
+   * @param readTimestamp Time the sensors are read (s)
+   */
+  public default void sample(SwerveModuleSample sample, double readTimestamp) {
+    this.updatePosition(sample.m_position);
+    this.updateState(sample.m_state);
+    sample.m_turnRate = 0.0;
+    sample.m_timestamp = readTimestamp;
+  }
+
   /**
    * Sets the desired state for the module.
    *
@@ -32,6 +74,45 @@ public interface SwerveModule {
    */
   public void setDesiredState(SwerveModuleState desiredState);
 
+  /**
+   * Sets the desired state for the module, with the wheel acceleration used by the drive
+   * feedforward.
+   *
+   * <p>Modules without an acceleration feedforward ignore the acceleration.
+   *
+   * @param desiredState Desired module state
+   * @param accelMetersPerSecondSq Desired wheel acceleration, along the desired state direction
+   */
+  public default void setDesiredState(
+      SwerveModuleState desiredState, double accelMetersPerSecondSq) {
+    this.setDesiredState(desiredState);
+  }
+
+  /**
+   * Drives the module in open loop, used by the drive characterization
+   *
+   * @param driveVolts Drive motor voltage
+   * @param angle Module angle
+   */
+  public void setDriveVoltage(double driveVolts, Rotation2d angle);
+
+  /**
+   * Updates the given state in place with the simulated module velocity and angle, free of sensor
+   * noise. Only called in simulation, defaults to the measured state.
+   *
+   * @param state Module state to fill
+   */
+  public default void updateSimulatedState(SwerveModuleState state) {
+    this.updateState(state);
+  }
+
   /** This method will be called automatically every scheduler loop. */
   public void periodic();
+
+  /**
+   * Advances the simulated module, only called in simulation
+   *
+   * @param dt simulated time step (s)
+   */
+  public default void simulate(double dt) {}
 }
@@ -0,0 +1,25 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+
+/**
+ * Sensor sample of a swerve module, with the time the device measured it.
+ *
+ * <p>Filled in place by {@link SwerveModule#sample} so the odometry thread does not allocate a new
+ * sample every update.
+ */
+public class SwerveModuleSample {
+  // Driven distance and module angle
+  public final SwerveModulePosition m_position = new SwerveModulePosition();
+  // Wheel speed and module angle
+  public final SwerveModuleState m_state = new SwerveModuleState();
+  // Counter clockwise positive module turn rate (rad/s)
+  public double m_turnRate = 0.0;
+  // Time the sensors were measured (s)
+  public double m_timestamp = 0.0;
+}
@@ -0,0 +1,57 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.pathplanner.lib.PathPlannerTrajectory;
+
+/**
+ * Table of pre-generated trajectories indexed by a dense key.
+ *
+ * <p>Every key is generated once and kept, there is no eviction. Entries are filled from the
+ * planner thread and read from the main loop, all accesses are synchronized.
+ */
+public class TrajectoryCache {
+
+  private final PathPlannerTrajectory[] m_trajectories;
+
+  /**
+   * Creates a new TrajectoryCache
+   *
+   * @param size number of keys, from 0 to size - 1
+   */
+  public TrajectoryCache(int size) {
+    m_trajectories = new PathPlannerTrajectory[size];
+  }
+
+  /**
+   * Gets a cached trajectory
+   *
+   * @param key trajectory key
+   * @return cached trajectory or null
+   */
+  public synchronized PathPlannerTrajectory get(int key) {
+    return m_trajectories[key];
+  }
+
+  /**
+   * Checks if a trajectory is cached
+   *
+   * @param key trajectory key
+   * @return trajectory is cached
+   */
+  public synchronized boolean contains(int key) {
+    return m_trajectories[key] != null;
+  }
+
+  /**
+   * Stores a trajectory
+   *
+   * @param key trajectory key
+   * @param trajectory trajectory to cache
+   */
+  public synchronized void put(int key, PathPlannerTrajectory trajectory) {
+    m_trajectories[key] = trajectory;
+  }
+}
@@ -0,0 +1,60 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.pathplanner.lib.PathPlanner;
+import edu.wpi.first.wpilibj.Filesystem;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Packs every deployed path planner file, run at build time by the {@code packTrajectories} Gradle
+ * task.
+ *
+ * <p>Trajectories are generated from the {@code .path} files with {@link
+ * AutonomousAssets#kDeployedConstraints}, the same way the robot would generate them, so a packed
+ * file can't get out of date with its path or with the runtime constraints.
+ */
+public final class TrajectoryPacker {
+  private TrajectoryPacker() {}
+
+  /**
+   * Packs the deployed paths
+   *
+   * @param args output directory
+   * @throws IOException if a packed file can't be written
+   */
+  public static void main(String... args) throws IOException {
+    if (args.length < 1) {
+      System.err.println("Usage: TrajectoryPacker <output directory>");
+      System.exit(1);
+    }
+
+    final var output = new File(args[0]);
+    output.mkdirs();
+    final var files = new File(Filesystem.getDeployDirectory(), "pathplanner").listFiles();
+    if (files == null) {
+      return;
+    }
+
+    final var constraints = AutonomousAssets.kDeployedConstraints;
+    for (final var file : files) {
+      final var fileName = file.getName();
+      if (!fileName.endsWith(AutonomousAssets.kPathExtension)) {
+        continue;
+      }
+
+      final var name =
+          fileName.substring(0, fileName.length() - AutonomousAssets.kPathExtension.length());
+      final var trajectory = PathPlanner.loadPath(name, constraints);
+      PackedTrajectory.write(
+          trajectory, constraints, new File(output, name + PackedTrajectory.kExtension));
+      System.out.println(
+          String.format(
+              "Packed %s, %d states, %.2f s",
+              name, trajectory.getStates().size(), trajectory.getTotalTimeSeconds()));
+    }
+  }
+}
@@ -4,77 +4,99 @@
 
 package frc.robot.subsystems.Vision;
 
-import edu.wpi.first.math.geometry.Pose2d;
-import edu.wpi.first.math.geometry.Rotation2d;
-import edu.wpi.first.math.geometry.Translation2d;
-import edu.wpi.first.networktables.DoubleArraySubscriber;
-import edu.wpi.first.networktables.NetworkTableInstance;
-import edu.wpi.first.wpilibj.Timer;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+import edu.wpi.first.wpilibj.Notifier;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
-
-/** Subsystem for wrapping communication with the vision co-processor */
+import frc.robot.LogRingBuffer;
+import frc.robot.RobotLogger;
+
+/**
+ * Subsystem for wrapping communication with the vision co-processor
+ *
+ * <p>Samples are drained from the co-processor queues and turned into measurements on a dedicated
+ * thread, faster than the co-processor frame rate, so the robot loop only polls finished
+ * measurements.
+ */
 public class Vision extends SubsystemBase {
 
-  VisionMeasurement m_latestMeasure = null;
-  double m_visionZRotate = 0;
+  // Raw sample log entries, read back by the log replay
+  public static final String kPositionLogEntry = "Vision/Position";
+  public static final String kRotationLogEntry = "Vision/Rotation";
+
+  // Ingestion parameters
+  public static final double kDrainPeriod = 0.01;
+  private static final int kLogCapacity = 256;
+
   double cubeX = 0;
   double cubeY = 0;
-  private DoubleArraySubscriber m_camPose =
-      NetworkTableInstance.getDefault()
-          .getTable("SmartDashboard")
-          .getDoubleArrayTopic("position")
-          .subscribe(new double[] {});
-
-  private DoubleArraySubscriber m_camRotation =
-      NetworkTableInstance.getDefault()
-          .getTable("SmartDashboard")
-          .getDoubleArrayTopic("rotation")
-          .subscribe(new double[] {});
-
-  private DoubleArraySubscriber m_detection =
-      NetworkTableInstance.getDefault()
-          .getTable("SmartDashboard")
-          .getDoubleArrayTopic("detection")
-          .subscribe(new double[] {});
-
-  /** Creates a new Vision. */
-  public Vision() {}
-
-  @Override
-  public void periodic() {
-    // This method will be called once per scheduler run
-
-    final var position = m_camPose.get();
-    final var rotation = m_camRotation.get();
-
-    if (position.length == 3 && rotation.length == 3) {
-      var tagRotation = Rotation2d.fromDegrees(rotation[1]);
-      var robotRotation = tagRotation;
-      var measurement = new VisionMeasurement();
-
-      measurement.m_timestamp = Timer.getFPGATimestamp();
-      measurement.m_pose = new Pose2d(new Translation2d(position[0], position[1]), robotRotation);
-
-      if (m_latestMeasure == null
-          || (m_latestMeasure.m_pose.getX() != measurement.m_pose.getX()
-              || m_latestMeasure.m_pose.getY() != measurement.m_pose.getY())) {
-        m_visionZRotate = Rotation2d.fromDegrees(rotation[0]).getDegrees();
-        m_latestMeasure = measurement;
-      }
+
+  private final VisionIO m_io;
+  private final VisionProcessor m_processor = new VisionProcessor();
+  private final LogRingBuffer m_logBuffer = RobotLogger.getInstance().addProducer(kLogCapacity);
+  private final int m_positionLogEntry =
+      RobotLogger.getInstance().addDoubleArray(kPositionLogEntry);
+  private final int m_rotationLogEntry =
+      RobotLogger.getInstance().addDoubleArray(kRotationLogEntry);
+  private final Notifier m_notifier = new Notifier(this::drain);
+
+  /** Creates a new Vision reading the co-processor NetworkTables topics. */
+  public Vision() {
+    this(new VisionIONetworkTables());
+  }
+
+  /**
+   * Creates a new Vision, draining starts right away
+   *
+   * @param io co-processor inputs
+   */
+  public Vision(VisionIO io) {
+    m_io = io;
+    m_notifier.setName("Vision");
+    m_notifier.startPeriodic(kDrainPeriod);
+  }
+
+  /** Drains every sample received since the last call, runs on the vision thread */
+  private void drain() {
+    final var positions = m_io.readPositions();
+    final var rotations = m_io.readRotations();
+    this.logSamples(m_positionLogEntry, positions);
+    this.logSamples(m_rotationLogEntry, rotations);
+
+    m_processor.process(positions, rotations);
+  }
+
+  /**
+   * Logs raw samples with their receive timestamp
+   *
+   * @param entry log entry id
+   * @param samples received samples
+   */
+  private void logSamples(int entry, TimestampedDoubleArray[] samples) {
+    for (final var sample : samples) {
+      m_logBuffer.offer(entry, sample.timestamp, sample.value, sample.value.length);
     }
   }
 
+  /**
+   * Removes the oldest measurement not yet consumed by the pose estimator
+   *
+   * @return oldest pending measurement or null
+   */
+  public VisionMeasurement pollMeasurement() {
+    return m_processor.pollMeasurement();
+  }
+
   /**
    * Get the latest available measurement from the vision system
    *
    * @return latest measurement or null
    */
   public VisionMeasurement getMeasurement() {
-    return this.m_latestMeasure;
+    return m_processor.getLatestMeasurement();
   }
 
   public double getZRotate() {
-    return m_visionZRotate;
+    return m_processor.getZRotate();
   }
 
   public boolean hasMesure() {
@@ -100,7 +122,7 @@ public class Vision extends SubsystemBase {
   }
 
   public double getCubeYpos() {
-    final var pos = m_detection.get();
+    final var pos = m_io.getDetection();
     double xPos = 0;
     if (pos.length == 4) {
       xPos = pos[2];
@@ -110,7 +132,7 @@ public class Vision extends SubsystemBase {
   }
 
   public double getCubeXpos() {
-    final var pos = m_detection.get();
+    final var pos = m_io.getDetection();
     double yPos = 0;
     if (pos.length == 4) {
       yPos = pos[3];
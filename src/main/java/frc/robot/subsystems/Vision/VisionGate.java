@@ -0,0 +1,178 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.Matrix;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.numbers.N1;
+import edu.wpi.first.math.numbers.N3;
+import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
+import frc.robot.Telemetry;
+import frc.robot.Telemetry.Rate;
+
+/**
+ * Rejects vision measurements that cannot be trusted before they reach the pose estimator.
+ *
+ * <p>A measurement is rejected if it is off the field, if its move from the previous accepted
+ * measurement disagrees with the move the odometry measured between both captures, or if it is too
+ * far from the pose estimated at its capture time given both uncertainties (Mahalanobis distance).
+ */
+public class VisionGate {
+
+  public enum Result {
+    Accepted,
+    OffField,
+    Jump,
+    Outlier
+  }
+
+  // Gate parameters
+  private static final double kFieldLength = 16.54;
+  private static final double kFieldWidth = 8.02;
+  private static final double kFieldMargin = 0.25;
+
+  private static final double kJumpTolerance = 0.3;
+  private static final double kJumpMaxAge = 1.0;
+
+  private static final double kOdometryXYStdDev = 0.1;
+  private static final double kOdometryThetaStdDev = 0.1;
+  // Chi-squared 99.9% quantile with 3 degrees of freedom
+  private static final double kMaxMahalanobisSq = 16.27;
+  // Outliers in a row after which the estimate is assumed to have drifted instead
+  private static final int kMaxConsecutiveOutliers = 30;
+
+  private static final Result[] kResults = Result.values();
+
+  // Member objects
+  private final long[] m_counts = new long[kResults.length];
+  private final Telemetry.DoubleSignal[] m_countSignals =
+      new Telemetry.DoubleSignal[kResults.length];
+
+  // Process variables
+  private Pose2d m_lastAcceptedPose = null;
+  private double m_lastAcceptedTimestamp = 0.0;
+  private int m_consecutiveOutliers = 0;
+
+  /** Creates a new VisionGate publishing its counts to the vision tab. */
+  public VisionGate() {
+    this(true);
+  }
+
+  /**
+   * Creates a new VisionGate
+   *
+   * @param publishCounts publish the result counts to the vision tab, false when running offline
+   */
+  public VisionGate(boolean publishCounts) {
+    if (publishCounts) {
+      final var tab = Shuffleboard.getTab("vision");
+      for (final var result : kResults) {
+        m_countSignals[result.ordinal()] =
+            Telemetry.getInstance().addDouble(tab.add("Gate " + result, 0.0).getEntry(), Rate.Low);
+      }
+    }
+  }
+
+  /**
+   * Checks whether a vision measurement should be fused
+   *
+   * @param timestamp measurement capture timestamp (s)
+   * @param visionPose field relative robot pose measured by vision
+   * @param predictedPose pose estimated at the capture timestamp, null if there is no estimate yet
+   * @param lastPredictedPose pose estimated at the capture timestamp of the previous accepted
+   *     measurement, null if unknown
+   * @param stdDevs vision standard deviations (x (m), y (m), heading (rad))
+   * @return gate decision
+   */
+  public Result check(
+      double timestamp,
+      Pose2d visionPose,
+      Pose2d predictedPose,
+      Pose2d lastPredictedPose,
+      Matrix<N3, N1> stdDevs) {
+
+    final var result =
+        this.evaluate(timestamp, visionPose, predictedPose, lastPredictedPose, stdDevs);
+
+    if (result == Result.Accepted) {
+      m_lastAcceptedPose = visionPose;
+      m_lastAcceptedTimestamp = timestamp;
+    }
+    ++m_counts[result.ordinal()];
+    if (m_countSignals[result.ordinal()] != null) {
+      m_countSignals[result.ordinal()].set(m_counts[result.ordinal()]);
+    }
+
+    return result;
+  }
+
+  /**
+   * Gets the number of measurements that got a given result
+   *
+   * @param result gate result
+   * @return measurement count
+   */
+  public long getCount(Result result) {
+    return m_counts[result.ordinal()];
+  }
+
+  private Result evaluate(
+      double timestamp,
+      Pose2d visionPose,
+      Pose2d predictedPose,
+      Pose2d lastPredictedPose,
+      Matrix<N3, N1> stdDevs) {
+
+    // Off field
+    if (visionPose.getX() < -kFieldMargin
+        || visionPose.getX() > kFieldLength + kFieldMargin
+        || visionPose.getY() < -kFieldMargin
+        || visionPose.getY() > kFieldWidth + kFieldMargin) {
+      return Result.OffField;
+    }
+
+    if (predictedPose == null) {
+      return Result.Accepted;
+    }
+
+    // Move since the previous accepted measurement the odometry didn't see
+    final double dt = timestamp - m_lastAcceptedTimestamp;
+    if (m_lastAcceptedPose != null && lastPredictedPose != null && dt > 0.0 && dt < kJumpMaxAge) {
+      final double dx =
+          (visionPose.getX() - m_lastAcceptedPose.getX())
+              - (predictedPose.getX() - lastPredictedPose.getX());
+      final double dy =
+          (visionPose.getY() - m_lastAcceptedPose.getY())
+              - (predictedPose.getY() - lastPredictedPose.getY());
+      if (Math.hypot(dx, dy) > kJumpTolerance) {
+        return Result.Jump;
+      }
+    }
+
+    // Too far from the predicted pose given both uncertainties
+    final double varX = sq(stdDevs.get(0, 0)) + sq(kOdometryXYStdDev);
+    final double varY = sq(stdDevs.get(1, 0)) + sq(kOdometryXYStdDev);
+    final double varTheta = sq(stdDevs.get(2, 0)) + sq(kOdometryThetaStdDev);
+    final double errTheta =
+        MathUtil.angleModulus(
+            visionPose.getRotation().getRadians() - predictedPose.getRotation().getRadians());
+    final double mahalanobisSq =
+        sq(visionPose.getX() - predictedPose.getX()) / varX
+            + sq(visionPose.getY() - predictedPose.getY()) / varY
+            + sq(errTheta) / varTheta;
+    if (mahalanobisSq > kMaxMahalanobisSq && m_consecutiveOutliers < kMaxConsecutiveOutliers) {
+      ++m_consecutiveOutliers;
+      return Result.Outlier;
+    }
+
+    m_consecutiveOutliers = 0;
+    return Result.Accepted;
+  }
+
+  private static double sq(double value) {
+    return value * value;
+  }
+}
@@ -0,0 +1,31 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+
+/** Inputs published by the vision co-processor */
+public interface VisionIO {
+  /**
+   * Reads every robot position sample received since the last call
+   *
+   * @return position samples ([x (m), y (m), z (m)]), oldest first
+   */
+  public TimestampedDoubleArray[] readPositions();
+
+  /**
+   * Reads every robot rotation sample received since the last call
+   *
+   * @return rotation samples ([z rotate (deg), heading (deg), roll (deg)]), oldest first
+   */
+  public TimestampedDoubleArray[] readRotations();
+
+  /**
+   * Gets the latest game piece detection
+   *
+   * @return detection ([x, y, center x (px), center y (px)]) or an empty array
+   */
+  public double[] getDetection();
+}
@@ -0,0 +1,65 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.networktables.DoubleArraySubscriber;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+
+/** Vision inputs read from the co-processor NetworkTables topics */
+public class VisionIONetworkTables implements VisionIO {
+
+  // Samples kept between two reads
+  private static final int kQueueDepth = 32;
+
+  private final DoubleArraySubscriber m_camPose;
+  private final DoubleArraySubscriber m_camRotation;
+  private final DoubleArraySubscriber m_detection;
+
+  /** Creates a new VisionIONetworkTables reading the default instance. */
+  public VisionIONetworkTables() {
+    this(NetworkTableInstance.getDefault());
+  }
+
+  /**
+   * Creates a new VisionIONetworkTables
+   *
+   * @param instance NetworkTables instance the co-processor publishes to
+   */
+  public VisionIONetworkTables(NetworkTableInstance instance) {
+    final var table = instance.getTable("SmartDashboard");
+    m_camPose =
+        table
+            .getDoubleArrayTopic("position")
+            .subscribe(
+                new double[] {},
+                PubSubOption.pollStorage(kQueueDepth),
+                PubSubOption.keepDuplicates(true));
+    m_camRotation =
+        table
+            .getDoubleArrayTopic("rotation")
+            .subscribe(
+                new double[] {},
+                PubSubOption.pollStorage(kQueueDepth),
+                PubSubOption.keepDuplicates(true));
+    m_detection = table.getDoubleArrayTopic("detection").subscribe(new double[] {});
+  }
+
+  @Override
+  public TimestampedDoubleArray[] readPositions() {
+    return m_camPose.readQueue();
+  }
+
+  @Override
+  public TimestampedDoubleArray[] readRotations() {
+    return m_camRotation.readQueue();
+  }
+
+  @Override
+  public double[] getDetection() {
+    return m_detection.get();
+  }
+}
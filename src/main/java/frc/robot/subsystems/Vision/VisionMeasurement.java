@@ -9,9 +9,12 @@ import edu.wpi.first.math.geometry.Pose2d;
 /** Wraps a vision robot pose measurement */
 public class VisionMeasurement {
 
-  /** Measurement timestamp (s) */
+  /** Image capture timestamp (s) */
   public double m_timestamp;
 
   /** Field relative robot pose (m) */
   public Pose2d m_pose;
+
+  /** Distance from the robot to the closest AprilTag (m) */
+  public double m_tagDistance;
 }
@@ -0,0 +1,68 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.Vision;
+
+/**
+ * Bounded ring buffer handing vision measurements from the ingestion stage to the pose estimator.
+ *
+ * <p>When full, the oldest measurement is overwritten and counted as dropped.
+ */
+public class VisionMeasurementBuffer {
+
+  private final VisionMeasurement[] m_buffer;
+  private int m_head = 0;
+  private int m_size = 0;
+  private long m_dropped = 0;
+
+  /**
+   * Creates a new VisionMeasurementBuffer
+   *
+   * @param capacity maximum number of pending measurements
+   */
+  public VisionMeasurementBuffer(int capacity) {
+    m_buffer = new VisionMeasurement[capacity];
+  }
+
+  /**
+   * Adds a measurement, dropping the oldest one if the buffer is full
+   *
+   * @param measurement measurement to add
+   */
+  public synchronized void offer(VisionMeasurement measurement) {
+    if (m_size == m_buffer.length) {
+      m_buffer[m_head] = null;
+      m_head = (m_head + 1) % m_buffer.length;
+      --m_size;
+      ++m_dropped;
+    }
+    m_buffer[(m_head + m_size) % m_buffer.length] = measurement;
+    ++m_size;
+  }
+
+  /**
+   * Removes the oldest pending measurement
+   *
+   * @return oldest measurement or null if empty
+   */
+  public synchronized VisionMeasurement poll() {
+    if (m_size == 0) {
+      return null;
+    }
+    final var measurement = m_buffer[m_head];
+    m_buffer[m_head] = null;
+    m_head = (m_head + 1) % m_buffer.length;
+    --m_size;
+    return measurement;
+  }
+
+  /**
+   * Gets the number of measurements overwritten before being consumed
+   *
+   * @return dropped measurement count
+   */
+  public synchronized long getDroppedCount() {
+    return m_dropped;
+  }
+}
@@ -0,0 +1,164 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.Vision;
+
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.networktables.TimestampedDoubleArray;
+import java.util.ArrayDeque;
+
+/**
+ * Turns raw co-processor samples into vision measurements.
+ *
+ * <p>Position and rotation samples are published separately by the co-processor, they are paired
+ * by timestamp then converted to measurements queued for the pose estimator. Does not use any
+ * hardware or NetworkTables, so the same processing runs on the robot and in log replay.
+ *
+ * <p>Samples are processed by a single thread, measurements can be read from any thread.
+ */
+public class VisionProcessor {
+
+  // Processor parameters
+  private static final int kQueueDepth = 32;
+  private static final int kBufferCapacity = 32;
+  private static final long kPairToleranceMicros = 5000;
+
+  // 2023 field AprilTag locations (m)
+  private static final Translation2d[] kTagLocations = {
+    new Translation2d(15.513558, 1.071626),
+    new Translation2d(15.513558, 2.748026),
+    new Translation2d(15.513558, 4.424426),
+    new Translation2d(16.178784, 6.749796),
+    new Translation2d(0.36195, 6.749796),
+    new Translation2d(1.02743, 4.424426),
+    new Translation2d(1.02743, 2.748026),
+    new Translation2d(1.02743, 1.071626)
+  };
+
+  // Samples waiting for their position/rotation counterpart
+  private final ArrayDeque<TimestampedDoubleArray> m_pendingPositions = new ArrayDeque<>();
+  private final ArrayDeque<TimestampedDoubleArray> m_pendingRotations = new ArrayDeque<>();
+
+  private final VisionMeasurementBuffer m_measurements =
+      new VisionMeasurementBuffer(kBufferCapacity);
+
+  // Process variables
+  private volatile VisionMeasurement m_latestMeasure = null;
+  private volatile double m_visionZRotate = 0;
+
+  /**
+   * Processes the samples received during a loop
+   *
+   * @param positions position samples, oldest first
+   * @param rotations rotation samples, oldest first
+   */
+  public void process(TimestampedDoubleArray[] positions, TimestampedDoubleArray[] rotations) {
+    enqueue(m_pendingPositions, positions);
+    enqueue(m_pendingRotations, rotations);
+
+    // Pair position and rotation samples published together by the co-processor
+    while (!m_pendingPositions.isEmpty() && !m_pendingRotations.isEmpty()) {
+      final var position = m_pendingPositions.peek();
+      final var rotation = m_pendingRotations.peek();
+      final long skew = position.timestamp - rotation.timestamp;
+
+      if (Math.abs(skew) <= kPairToleranceMicros) {
+        m_pendingPositions.poll();
+        m_pendingRotations.poll();
+        this.addMeasurement(position, rotation);
+      } else if (skew < 0) {
+        // Position without a matching rotation
+        m_pendingPositions.poll();
+      } else {
+        // Rotation without a matching position
+        m_pendingRotations.poll();
+      }
+    }
+  }
+
+  /**
+   * Removes the oldest measurement not yet consumed by the pose estimator
+   *
+   * @return oldest pending measurement or null
+   */
+  public VisionMeasurement pollMeasurement() {
+    return m_measurements.poll();
+  }
+
+  /**
+   * Gets the latest measurement
+   *
+   * @return latest measurement or null
+   */
+  public VisionMeasurement getLatestMeasurement() {
+    return m_latestMeasure;
+  }
+
+  public double getZRotate() {
+    return m_visionZRotate;
+  }
+
+  /**
+   * Appends queued samples, keeping at most the queue depth
+   *
+   * @param pending pending samples
+   * @param samples newly received samples
+   */
+  private static void enqueue(
+      ArrayDeque<TimestampedDoubleArray> pending, TimestampedDoubleArray[] samples) {
+    for (final var sample : samples) {
+      pending.add(sample);
+    }
+    while (pending.size() > kQueueDepth) {
+      pending.poll();
+    }
+  }
+
+  /**
+   * Builds a measurement from a paired position and rotation sample
+   *
+   * @param position position sample
+   * @param rotation rotation sample
+   */
+  private void addMeasurement(TimestampedDoubleArray position, TimestampedDoubleArray rotation) {
+    if (position.value.length != 3 || rotation.value.length != 3) {
+      return;
+    }
+
+    var tagRotation = Rotation2d.fromDegrees(rotation.value[1]);
+    var robotRotation = tagRotation;
+    var measurement = new VisionMeasurement();
+
+    // The co-processor stamps each sample with its capture time, NT timestamps are in the local
+    // time base, which is the FPGA time on the robot
+    measurement.m_timestamp = position.timestamp * 1e-6;
+    measurement.m_pose =
+        new Pose2d(new Translation2d(position.value[0], position.value[1]), robotRotation);
+    measurement.m_tagDistance = closestTagDistance(measurement.m_pose.getTranslation());
+
+    if (m_latestMeasure == null
+        || (m_latestMeasure.m_pose.getX() != measurement.m_pose.getX()
+            || m_latestMeasure.m_pose.getY() != measurement.m_pose.getY())) {
+      m_visionZRotate = Rotation2d.fromDegrees(rotation.value[0]).getDegrees();
+      m_latestMeasure = measurement;
+      m_measurements.offer(measurement);
+    }
+  }
+
+  /**
+   * Computes the distance to the closest AprilTag on the field
+   *
+   * @param robotPosition field relative robot position
+   * @return distance to the closest tag (m)
+   */
+  private static double closestTagDistance(Translation2d robotPosition) {
+    double closest = Double.POSITIVE_INFINITY;
+    for (final var tag : kTagLocations) {
+      closest = Math.min(closest, tag.getDistance(robotPosition));
+    }
+    return closest;
+  }
+}
@@ -6,17 +6,16 @@ package frc.robot.subsystems.WCPSwerveModule;
 
 import static frc.robot.Constants.WCPSwerveModule.*;
 
-import com.ctre.phoenix.motorcontrol.ControlMode;
-import com.ctre.phoenix.motorcontrol.InvertType;
-import com.ctre.phoenix.motorcontrol.NeutralMode;
-import com.ctre.phoenix.motorcontrol.can.TalonFX;
+import edu.wpi.first.math.controller.SimpleMotorFeedforward;
 import edu.wpi.first.math.geometry.Rotation2d;
 import edu.wpi.first.math.kinematics.SwerveModulePosition;
 import edu.wpi.first.math.kinematics.SwerveModuleState;
-import edu.wpi.first.networktables.GenericEntry;
-import edu.wpi.first.wpilibj.DutyCycleEncoder;
 import edu.wpi.first.wpilibj.shuffleboard.Shuffleboard;
+import frc.robot.SensorCache;
+import frc.robot.Telemetry;
+import frc.robot.Telemetry.Rate;
 import frc.robot.subsystems.SwerveModule;
+import frc.robot.subsystems.SwerveModuleSample;
 
 /** Add your docs here. */
 public class WCPSwerveModule implements SwerveModule {
@@ -25,106 +24,161 @@ public class WCPSwerveModule implements SwerveModule {
   public static final double kNominalVolt = 10.0;
   public static final double kTickPerRotation = 28000.0;
 
-  public static final double kPwmPeriod = 1.0 / 244.0;
-  public static final double kPwmDutyMin = 1e-6 / kPwmPeriod;
-  public static final double kPwmDutyMax = 4096e-6 / kPwmPeriod;
+  // Sensor position and velocity period, close to the odometry thread period (ms)
+  public static final int kFeedbackFramePeriod = 5;
+  // Phoenix does not timestamp frames, a read frame is on average half a period old (s)
+  public static final double kSampleAge = kFeedbackFramePeriod * 1e-3 / 2.0;
 
   private double m_encoderZero = 0.0;
   private boolean m_homed = false;
   private final double m_configZero;
 
-  private final TalonFX m_turnMotor;
-  private final TalonFX m_driveMotor;
-  private final DutyCycleEncoder m_magEncoder;
+  private final WCPSwerveModuleIO m_io;
+  private final SimpleMotorFeedforward m_driveFeedforward;
+  private final SensorCache.CachedDouble m_turnPosition;
 
-  private final GenericEntry m_absAngleEntry;
-  private final GenericEntry m_encOkEntry;
+  private final Telemetry.DoubleSignal m_absAngleSignal;
+  private final Telemetry.BooleanSignal m_encOkSignal;
 
-  WCPSwerveModule(WCPSwerveModuleConfig config) {
+  WCPSwerveModule(WCPSwerveModuleConfig config, WCPSwerveModuleIO io) {
 
-    m_magEncoder = new DutyCycleEncoder(config.m_magEncoderChannel);
-    m_magEncoder.setDistancePerRotation(kTickPerRotation);
-    m_magEncoder.setDutyCycleRange(kPwmDutyMin, kPwmDutyMax);
+    m_io = io;
 
-    m_driveMotor = new TalonFX(config.m_driveMotorId);
-    m_driveMotor.configFactoryDefault();
-    m_driveMotor.setNeutralMode(NeutralMode.Brake);
-
-    m_driveMotor.config_kP(0, kDriveKp);
-    m_driveMotor.config_kI(0, kDriveKi);
-    m_driveMotor.config_kD(0, kDriveKd);
-    m_driveMotor.config_kF(0, kDriveKf);
-    m_driveMotor.config_IntegralZone(0, kDriveIZone);
-    m_driveMotor.configVoltageCompSaturation(kNominalVolt);
-    m_driveMotor.enableVoltageCompensation(true);
-
-    m_turnMotor = new TalonFX(config.m_turnMotorId);
-    m_turnMotor.configFactoryDefault();
-    m_turnMotor.setInverted(InvertType.InvertMotorOutput);
-    m_turnMotor.configVoltageCompSaturation(kNominalVolt);
-    m_turnMotor.enableVoltageCompensation(true);
-    m_turnMotor.setNeutralMode(NeutralMode.Brake);
-
-    m_turnMotor.config_kP(0, kTurnKp);
-    m_turnMotor.config_kI(0, kTurnKi);
-    m_turnMotor.config_kD(0, kTurnKd);
-    m_turnMotor.config_IntegralZone(0, kTurnIZone);
+    // Main loop reads of the turn position share one read per loop, the odometry thread reads it
+    // itself at its own rate
+    m_turnPosition = SensorCache.getInstance().addDouble(m_io::getTurnPosition);
 
     m_configZero = config.m_analogZero;
+    // Feedforward is sent with every velocity setpoint, the Talon kF is left at 0
+    m_driveFeedforward =
+        new SimpleMotorFeedforward(config.m_driveKs, config.m_driveKv, config.m_driveKa);
 
     final var absAngleEntryName = String.format("Abs Ch %d", config.m_magEncoderChannel);
-    m_absAngleEntry =
-        Shuffleboard.getTab("WCP Swerve Module").add(absAngleEntryName, 0.0).getEntry();
+    m_absAngleSignal =
+        Telemetry.getInstance()
+            .addDouble(
+                Shuffleboard.getTab("WCP Swerve Module").add(absAngleEntryName, 0.0).getEntry(),
+                Rate.Low);
 
     final var encOkEntryName = String.format("Enc %d OK", config.m_magEncoderChannel);
-    m_encOkEntry = Shuffleboard.getTab("Vitals").add(encOkEntryName, false).getEntry();
+    m_encOkSignal =
+        Telemetry.getInstance()
+            .addBoolean(
+                Shuffleboard.getTab("Vitals").add(encOkEntryName, false).getEntry(), Rate.Low);
+
+    // Encoder diagnostics are only sampled when published
+    Telemetry.getInstance()
+        .addPeriodic(
+            () -> {
+              m_absAngleSignal.set(m_io.getAbsolutePosition());
+              m_encOkSignal.set(m_io.isAbsoluteConnected());
+            },
+            Rate.Low);
   }
 
   @Override
   public void periodic() {
-    m_absAngleEntry.setDouble(m_magEncoder.getDistance());
-    m_encOkEntry.setBoolean(m_magEncoder.isConnected());
-
     if (!m_homed) {
       // Home on first periodic loop so sensors are fully initialized
-      m_encoderZero =
-          m_configZero + m_turnMotor.getSelectedSensorPosition() - m_magEncoder.getDistance();
+      m_encoderZero = m_configZero + m_turnPosition.get() - m_io.getAbsolutePosition();
       m_homed = true;
     }
   }
 
   private Rotation2d getRotation() {
 
-    double encoderDegrees = getEncoderDegrees();
+    double encoderDegrees = getCachedEncoderDegrees();
     return Rotation2d.fromDegrees(encoderDegrees % 360);
   }
 
   @Override
   public SwerveModuleState getState() {
 
-    return new SwerveModuleState(
-        m_driveMotor.getSelectedSensorVelocity() * kTickToMeterPerS, this.getRotation());
+    return new SwerveModuleState(m_io.getDriveVelocity() * kTickToMeterPerS, this.getRotation());
   }
 
   @Override
   public SwerveModulePosition getPosition() {
 
-    return new SwerveModulePosition(
-        m_driveMotor.getSelectedSensorPosition() * kTickToMeter, this.getRotation());
+    return new SwerveModulePosition(m_io.getDrivePosition() * kTickToMeter, this.getRotation());
+  }
+
+  @Override
+  public void updateState(SwerveModuleState state) {
+    state.speedMetersPerSecond = m_io.getDriveVelocity() * kTickToMeterPerS;
+    state.angle = this.updateRotation(state.angle);
+  }
+
+  @Override
+  public void updatePosition(SwerveModulePosition position) {
+    position.distanceMeters = m_io.getDrivePosition() * kTickToMeter;
+    position.angle = this.updateRotation(position.angle);
+  }
+
+  @Override
+  public void sample(SwerveModuleSample sample, double readTimestamp) {
+    sample.m_position.distanceMeters = m_io.getDrivePosition() * kTickToMeter;
+    sample.m_position.angle = this.updateRotation(sample.m_position.angle);
+    sample.m_state.speedMetersPerSecond = m_io.getDriveVelocity() * kTickToMeterPerS;
+    sample.m_state.angle = sample.m_position.angle;
+    // Sensor velocity is in ticks per 100 ms
+    sample.m_turnRate = Math.toRadians(m_io.getTurnVelocity() * 10.0 * kAnalogToDeg);
+    sample.m_timestamp = readTimestamp - kSampleAge;
+  }
+
+  /**
+   * Gets the current rotation of the module, reusing the given one when the module did not turn
+   *
+   * @param rotation Previously sampled rotation
+   * @return Current module rotation
+   */
+  private Rotation2d updateRotation(Rotation2d rotation) {
+    final double radians = Math.toRadians(getEncoderDegrees() % 360);
+    return rotation.getRadians() == radians ? rotation : new Rotation2d(radians);
   }
 
   private double getEncoderDegrees() {
 
-    return (m_turnMotor.getSelectedSensorPosition() - m_encoderZero) * kAnalogToDeg;
+    return (m_io.getTurnPosition() - m_encoderZero) * kAnalogToDeg;
+  }
+
+  /**
+   * Gets the turn encoder angle read at the start of the loop, only for the main robot thread
+   *
+   * @return Unwrapped module angle (deg)
+   */
+  private double getCachedEncoderDegrees() {
+    return (m_turnPosition.get() - m_encoderZero) * kAnalogToDeg;
   }
 
   @Override
   public void setDesiredState(SwerveModuleState desiredState) {
+    this.setDesiredState(desiredState, 0.0);
+  }
+
+  @Override
+  public void setDesiredState(SwerveModuleState desiredState, double accelMetersPerSecondSq) {
     var state = SwerveModuleState.optimize(desiredState, this.getRotation());
-    var rotationDelta = state.angle.minus(this.getRotation());
-    var setpointDegrees = getEncoderDegrees() + rotationDelta.getDegrees();
 
-    m_driveMotor.set(ControlMode.Velocity, state.speedMetersPerSecond * kMeterPerSToTick);
-    m_turnMotor.set(ControlMode.Position, setpointDegrees * kDegToAnalog + m_encoderZero);
+    // Optimization reverses the wheel when it flips the angle
+    final double accel =
+        state.angle.equals(desiredState.angle) ? accelMetersPerSecondSq : -accelMetersPerSecondSq;
+    final double ffVolts = m_driveFeedforward.calculate(state.speedMetersPerSecond, accel);
+
+    m_io.setDriveVelocity(state.speedMetersPerSecond * kMeterPerSToTick, ffVolts / kNominalVolt);
+    this.setAngle(state.angle);
+  }
+
+  @Override
+  public void setDriveVoltage(double driveVolts, Rotation2d angle) {
+    m_io.setDriveOutput(driveVolts / kNominalVolt);
+    this.setAngle(angle);
+  }
+
+  private void setAngle(Rotation2d angle) {
+    final double encoderDegrees = getCachedEncoderDegrees();
+    var rotationDelta = angle.minus(Rotation2d.fromDegrees(encoderDegrees % 360));
+    var setpointDegrees = encoderDegrees + rotationDelta.getDegrees();
+    m_io.setTurnPosition(setpointDegrees * kDegToAnalog + m_encoderZero);
   }
 }
@@ -4,6 +4,8 @@
 
 package frc.robot.subsystems.WCPSwerveModule;
 
+import static frc.robot.Constants.WCPSwerveModule.*;
+
 /** Add your docs here. */
 public class WCPSwerveModuleConfig {
 
@@ -11,12 +13,40 @@ public class WCPSwerveModuleConfig {
   public final int m_driveMotorId;
   public final double m_analogZero;
   public final int m_magEncoderChannel;
+  public final double m_driveKs;
+  public final double m_driveKv;
+  public final double m_driveKa;
 
   public WCPSwerveModuleConfig(
       int turnMotorId, int driveMotorId, int magEncoderChannel, double analogZero) {
+    this(turnMotorId, driveMotorId, magEncoderChannel, analogZero, kDriveKs, kDriveKv, kDriveKa);
+  }
+
+  /**
+   * Creates a module configuration with characterized drive feedforward gains
+   *
+   * @param turnMotorId turn motor CAN id
+   * @param driveMotorId drive motor CAN id
+   * @param magEncoderChannel absolute encoder DIO channel
+   * @param analogZero absolute encoder zero (encoder ticks)
+   * @param driveKs drive static gain (V)
+   * @param driveKv drive velocity gain (V per m/s)
+   * @param driveKa drive acceleration gain (V per m/s^2)
+   */
+  public WCPSwerveModuleConfig(
+      int turnMotorId,
+      int driveMotorId,
+      int magEncoderChannel,
+      double analogZero,
+      double driveKs,
+      double driveKv,
+      double driveKa) {
     m_turnMotorId = turnMotorId;
     m_driveMotorId = driveMotorId;
     m_magEncoderChannel = magEncoderChannel;
     m_analogZero = analogZero;
+    m_driveKs = driveKs;
+    m_driveKv = driveKv;
+    m_driveKa = driveKa;
   }
 }
@@ -9,15 +9,33 @@ import static frc.robot.Constants.WCPSwerveModule.*;
 import edu.wpi.first.math.geometry.Translation2d;
 import frc.robot.subsystems.SwerveModule;
 import frc.robot.subsystems.SwerveModuleFactory;
+import java.util.function.Function;
 
 /** Add your docs here. */
 public class WCPSwerveModuleFactory implements SwerveModuleFactory {
 
+  // Member objects
+  private final Function<WCPSwerveModuleConfig, WCPSwerveModuleIO> m_ioFactory;
+
+  /** Creates a new WCPSwerveModuleFactory, driving the Talon FX modules */
+  public WCPSwerveModuleFactory() {
+    this(WCPSwerveModuleIOTalonFX::new);
+  }
+
+  /**
+   * Creates a new WCPSwerveModuleFactory
+   *
+   * @param ioFactory creates the hardware of each module from its configuration
+   */
+  public WCPSwerveModuleFactory(Function<WCPSwerveModuleConfig, WCPSwerveModuleIO> ioFactory) {
+    m_ioFactory = ioFactory;
+  }
+
   @Override
   public SwerveModule[] createModules() {
     var modules = new WCPSwerveModule[kConfigs.length];
     for (int i = 0; i < modules.length; ++i) {
-      modules[i] = new WCPSwerveModule(kConfigs[i]);
+      modules[i] = new WCPSwerveModule(kConfigs[i], m_ioFactory.apply(kConfigs[i]));
     }
     return modules;
   }
@@ -0,0 +1,72 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.WCPSwerveModule;
+
+/** WCP swerve module hardware, in motor controller units */
+public interface WCPSwerveModuleIO {
+  /**
+   * Gets the drive motor position
+   *
+   * @return drive position (ticks)
+   */
+  public double getDrivePosition();
+
+  /**
+   * Gets the drive motor velocity
+   *
+   * @return drive velocity (ticks per 100 ms)
+   */
+  public double getDriveVelocity();
+
+  /**
+   * Gets the turn motor position
+   *
+   * @return turn position (ticks)
+   */
+  public double getTurnPosition();
+
+  /**
+   * Gets the turn motor velocity
+   *
+   * @return turn velocity (ticks per 100 ms)
+   */
+  public double getTurnVelocity();
+
+  /**
+   * Gets the absolute encoder position
+   *
+   * @return absolute position (ticks)
+   */
+  public double getAbsolutePosition();
+
+  /**
+   * Checks if the absolute encoder is connected
+   *
+   * @return absolute encoder is connected
+   */
+  public boolean isAbsoluteConnected();
+
+  /**
+   * Runs the drive motor controller velocity loop
+   *
+   * @param velocity drive velocity setpoint (ticks per 100 ms)
+   * @param ffPercent arbitrary feedforward added to the loop output (-1, 1)
+   */
+  public void setDriveVelocity(double velocity, double ffPercent);
+
+  /**
+   * Sets the drive motor output
+   *
+   * @param percent output (-1, 1)
+   */
+  public void setDriveOutput(double percent);
+
+  /**
+   * Runs the turn motor controller position loop
+   *
+   * @param position turn position setpoint (ticks)
+   */
+  public void setTurnPosition(double position);
+}
@@ -0,0 +1,117 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.WCPSwerveModule;
+
+import static frc.robot.Constants.WCPSwerveModule.*;
+
+import com.ctre.phoenix.motorcontrol.ControlMode;
+import com.ctre.phoenix.motorcontrol.DemandType;
+import com.ctre.phoenix.motorcontrol.InvertType;
+import com.ctre.phoenix.motorcontrol.NeutralMode;
+import com.ctre.phoenix.motorcontrol.can.TalonFX;
+import edu.wpi.first.wpilibj.DutyCycleEncoder;
+import frc.robot.CanBudget;
+
+/** WCP swerve module driven by two Talon FX with an absolute encoder on the turn axis */
+public class WCPSwerveModuleIOTalonFX implements WCPSwerveModuleIO {
+
+  // Hardware parameters
+  public static final double kPwmPeriod = 1.0 / 244.0;
+  public static final double kPwmDutyMin = 1e-6 / kPwmPeriod;
+  public static final double kPwmDutyMax = 4096e-6 / kPwmPeriod;
+
+  // Member objects
+  private final TalonFX m_turnMotor;
+  private final TalonFX m_driveMotor;
+  private final DutyCycleEncoder m_magEncoder;
+
+  /**
+   * Creates a new WCPSwerveModuleIOTalonFX
+   *
+   * @param config module configuration
+   */
+  public WCPSwerveModuleIOTalonFX(WCPSwerveModuleConfig config) {
+
+    m_magEncoder = new DutyCycleEncoder(config.m_magEncoderChannel);
+    m_magEncoder.setDistancePerRotation(WCPSwerveModule.kTickPerRotation);
+    m_magEncoder.setDutyCycleRange(kPwmDutyMin, kPwmDutyMax);
+
+    m_driveMotor = new TalonFX(config.m_driveMotorId);
+    m_driveMotor.configFactoryDefault();
+    m_driveMotor.setNeutralMode(NeutralMode.Brake);
+
+    m_driveMotor.config_kP(0, kDriveKp);
+    m_driveMotor.config_kI(0, kDriveKi);
+    m_driveMotor.config_kD(0, kDriveKd);
+    m_driveMotor.config_IntegralZone(0, kDriveIZone);
+    m_driveMotor.configVoltageCompSaturation(WCPSwerveModule.kNominalVolt);
+    m_driveMotor.enableVoltageCompensation(true);
+    CanBudget.getInstance()
+        .configure(
+            m_driveMotor,
+            CanBudget.kTalonFXUnused.withFeedback(WCPSwerveModule.kFeedbackFramePeriod));
+
+    m_turnMotor = new TalonFX(config.m_turnMotorId);
+    m_turnMotor.configFactoryDefault();
+    m_turnMotor.setInverted(InvertType.InvertMotorOutput);
+    m_turnMotor.configVoltageCompSaturation(WCPSwerveModule.kNominalVolt);
+    m_turnMotor.enableVoltageCompensation(true);
+    m_turnMotor.setNeutralMode(NeutralMode.Brake);
+
+    m_turnMotor.config_kP(0, kTurnKp);
+    m_turnMotor.config_kI(0, kTurnKi);
+    m_turnMotor.config_kD(0, kTurnKd);
+    m_turnMotor.config_IntegralZone(0, kTurnIZone);
+    CanBudget.getInstance()
+        .configure(
+            m_turnMotor,
+            CanBudget.kTalonFXUnused.withFeedback(WCPSwerveModule.kFeedbackFramePeriod));
+  }
+
+  @Override
+  public double getDrivePosition() {
+    return m_driveMotor.getSelectedSensorPosition();
+  }
+
+  @Override
+  public double getDriveVelocity() {
+    return m_driveMotor.getSelectedSensorVelocity();
+  }
+
+  @Override
+  public double getTurnPosition() {
+    return m_turnMotor.getSelectedSensorPosition();
+  }
+
+  @Override
+  public double getTurnVelocity() {
+    return m_turnMotor.getSelectedSensorVelocity();
+  }
+
+  @Override
+  public double getAbsolutePosition() {
+    return m_magEncoder.getDistance();
+  }
+
+  @Override
+  public boolean isAbsoluteConnected() {
+    return m_magEncoder.isConnected();
+  }
+
+  @Override
+  public void setDriveVelocity(double velocity, double ffPercent) {
+    m_driveMotor.set(ControlMode.Velocity, velocity, DemandType.ArbitraryFeedForward, ffPercent);
+  }
+
+  @Override
+  public void setDriveOutput(double percent) {
+    m_driveMotor.set(ControlMode.PercentOutput, percent);
+  }
+
+  @Override
+  public void setTurnPosition(double position) {
+    m_turnMotor.set(ControlMode.Position, position);
+  }
+}
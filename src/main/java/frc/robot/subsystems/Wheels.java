@@ -4,13 +4,15 @@
 
 package frc.robot.subsystems;
 
-import com.revrobotics.CANSparkMax;
-import com.revrobotics.CANSparkMax.IdleMode;
-import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import edu.wpi.first.wpilibj.RobotBase;
+import edu.wpi.first.wpilibj.TimedRobot;
 import edu.wpi.first.wpilibj2.command.Command;
 import edu.wpi.first.wpilibj2.command.Commands;
 import edu.wpi.first.wpilibj2.command.SubsystemBase;
 import edu.wpi.first.wpilibj2.command.WaitCommand;
+import frc.robot.LoopProfiler;
+import frc.robot.RobotLogger;
+import frc.robot.SensorCache;
 
 public class Wheels extends SubsystemBase {
 
@@ -24,9 +26,6 @@ public class Wheels extends SubsystemBase {
     Stop
   };
 
-  private static final int kWheelsLeft = 17;
-  private static final int kWheelsRight = 18;
-
   private static final double kWheelSpeedPreload = -0.25;
   private static final double kWheelSpeed2nd = 0.45;
   private static final double kWheelSpeed3rd = 0.70;
@@ -36,34 +35,51 @@ public class Wheels extends SubsystemBase {
   private static final double kPreloadTime = 0.2;
   private static final double kLaunchTime = 0.5;
 
-  private final CANSparkMax m_wheelsLeft = new CANSparkMax(kWheelsLeft, MotorType.kBrushless);
-  private final CANSparkMax m_wheelsRight = new CANSparkMax(kWheelsRight, MotorType.kBrushless);
+  private final LoopProfiler.Section m_profilerSection =
+      LoopProfiler.getInstance().register(getName());
+  private final int m_logEntry = RobotLogger.getInstance().addDoubleArray("Wheels");
+  private final double[] m_logValues = new double[2];
+  private final WheelsIO m_io;
+  private final SensorCache.CachedDouble m_velocity;
 
   private WheelLevel m_targetLevel = WheelLevel.First;
   private double m_wheelSpeed = 0;
   private static Intake m_intake;
 
-  /** Creates a new Wheels. */
+  /** Creates a new Wheels, simulated when not running on the robot. */
   public Wheels(Intake intake) {
+    this(intake, RobotBase.isReal() ? new WheelsIOSparkMax() : new WheelsIOSim());
+  }
 
+  /**
+   * Creates a new Wheels
+   *
+   * @param intake intake holding the wheels
+   * @param io wheels hardware
+   */
+  public Wheels(Intake intake, WheelsIO io) {
     m_intake = intake;
-    m_wheelsLeft.restoreFactoryDefaults();
-    m_wheelsLeft.setIdleMode(IdleMode.kBrake);
-    m_wheelsLeft.setInverted(true);
-
-    m_wheelsRight.restoreFactoryDefaults();
-    m_wheelsRight.setIdleMode(IdleMode.kBrake);
-    m_wheelsRight.setInverted(false);
-
-    m_wheelsLeft.burnFlash();
-    m_wheelsRight.burnFlash();
+    m_io = io;
+    m_velocity = SensorCache.getInstance().addDouble(io::getVelocity);
   }
 
   @Override
   public void periodic() {
+    m_profilerSection.begin();
     // This method will be called once per scheduler run
-    m_wheelsLeft.set(m_wheelSpeed);
-    m_wheelsRight.set(m_wheelSpeed);
+    m_io.set(m_wheelSpeed);
+
+    // Log command and measured speed
+    m_logValues[0] = m_wheelSpeed;
+    m_logValues[1] = m_velocity.get();
+    RobotLogger.getInstance().log(m_logEntry, m_logValues, m_logValues.length);
+
+    m_profilerSection.end();
+  }
+
+  @Override
+  public void simulationPeriodic() {
+    m_io.simulate(TimedRobot.kDefaultPeriod);
   }
 
   /**
@@ -0,0 +1,29 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+/** Intake wheels hardware */
+public interface WheelsIO {
+  /**
+   * Sets both wheel motors output
+   *
+   * @param percent output (-1, 1), positive launches
+   */
+  public void set(double percent);
+
+  /**
+   * Gets the wheel speed
+   *
+   * @return wheel speed (rad/s)
+   */
+  public double getVelocity();
+
+  /**
+   * Advances the simulated mechanism, only called in simulation
+   *
+   * @param dt simulated time step (s)
+   */
+  public default void simulate(double dt) {}
+}
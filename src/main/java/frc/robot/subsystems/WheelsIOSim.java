@@ -0,0 +1,40 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.system.plant.DCMotor;
+import edu.wpi.first.wpilibj.RobotController;
+import edu.wpi.first.wpilibj.simulation.FlywheelSim;
+
+/** Simulated intake wheels, two NEO spinning the wheel shafts as a flywheel */
+public class WheelsIOSim implements WheelsIO {
+
+  // Simulation parameters
+  private static final double kGearing = 3.0;
+  private static final double kMoi = 0.002;
+
+  // Member objects
+  private final FlywheelSim m_sim = new FlywheelSim(DCMotor.getNEO(2), kGearing, kMoi);
+
+  // Process variables
+  private double m_percent = 0.0;
+
+  @Override
+  public void set(double percent) {
+    m_percent = MathUtil.clamp(percent, -1.0, 1.0);
+  }
+
+  @Override
+  public double getVelocity() {
+    return m_sim.getAngularVelocityRadPerSec();
+  }
+
+  @Override
+  public void simulate(double dt) {
+    m_sim.setInputVoltage(m_percent * RobotController.getBatteryVoltage());
+    m_sim.update(dt);
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import com.revrobotics.CANSparkMax;
+import com.revrobotics.CANSparkMax.IdleMode;
+import com.revrobotics.CANSparkMaxLowLevel.MotorType;
+import com.revrobotics.RelativeEncoder;
+import edu.wpi.first.math.util.Units;
+import frc.robot.CanBudget;
+
+/** Intake wheels driven by two Spark Max */
+public class WheelsIOSparkMax implements WheelsIO {
+
+  // Hardware parameters
+  private static final int kWheelsLeft = 17;
+  private static final int kWheelsRight = 18;
+  // Only the right wheels velocity is read
+  private static final int kVelocityFramePeriod = 20;
+
+  // Member objects
+  private final CANSparkMax m_wheelsLeft = new CANSparkMax(kWheelsLeft, MotorType.kBrushless);
+  private final CANSparkMax m_wheelsRight = new CANSparkMax(kWheelsRight, MotorType.kBrushless);
+  private final RelativeEncoder m_encoder = m_wheelsRight.getEncoder();
+
+  /** Creates a new WheelsIOSparkMax. */
+  public WheelsIOSparkMax() {
+
+    m_wheelsLeft.restoreFactoryDefaults();
+    m_wheelsLeft.setIdleMode(IdleMode.kBrake);
+    m_wheelsLeft.setInverted(true);
+
+    m_wheelsRight.restoreFactoryDefaults();
+    m_wheelsRight.setIdleMode(IdleMode.kBrake);
+    m_wheelsRight.setInverted(false);
+
+    CanBudget.getInstance().configure(m_wheelsLeft, CanBudget.kSparkMaxUnused, true);
+    CanBudget.getInstance()
+        .configure(
+            m_wheelsRight, CanBudget.kSparkMaxUnused.withStatus1(kVelocityFramePeriod), true);
+
+    m_wheelsLeft.burnFlash();
+    m_wheelsRight.burnFlash();
+  }
+
+  @Override
+  public void set(double percent) {
+    m_wheelsLeft.set(percent);
+    m_wheelsRight.set(percent);
+  }
+
+  @Override
+  public double getVelocity() {
+    return Units.rotationsPerMinuteToRadiansPerSecond(m_encoder.getVelocity());
+  }
+}
@@ -0,0 +1,103 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.util.datalog.DataLog;
+import edu.wpi.first.util.datalog.DataLogReader;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import edu.wpi.first.wpilibj2.command.InstantCommand;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Logs a short run to a wpilog file on the desktop, then rebuilds it with the WPILib reader. */
+class RobotLoggerTest {
+
+  // Test parameters
+  private static final int kLoops = 500;
+  private static final String kFileName = "run.wpilog";
+
+  @TempDir Path m_directory;
+
+  @BeforeEach
+  void setup() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  private static double[] poseAt(int loop) {
+    return new double[] {0.01 * loop, 4.0 - 0.005 * loop, 0.002 * loop};
+  }
+
+  @Test
+  void runIsReconstructedFromTheFile() throws IOException {
+    final var log = new DataLog(m_directory.toString(), kFileName);
+    final var logger = new RobotLogger(log);
+    final int poseEntry = logger.addDoubleArray("Drive/Pose");
+    final int hasCubeEntry = logger.addBoolean("Intake/HasCube");
+
+    // One pose per loop, a command ending in the middle, drained now and then like the drain thread
+    CommandScheduler.getInstance()
+        .schedule(new InstantCommand(() -> {}).ignoringDisable(true).withName("Score"));
+    for (int loop = 0; loop < kLoops; ++loop) {
+      logger.log(poseEntry, poseAt(loop), 3);
+      logger.log(hasCubeEntry, loop >= kLoops / 2);
+      if (loop == kLoops / 2) {
+        CommandScheduler.getInstance().run();
+      }
+      if (loop % 10 == 9) {
+        logger.drain();
+      }
+    }
+    logger.drain();
+    log.close();
+
+    // Reconstruct the run
+    final var names = new HashMap<Integer, String>();
+    final var poses = new ArrayList<double[]>();
+    final var hasCube = new ArrayList<Boolean>();
+    final List<String> commands = new ArrayList<>();
+    long lastTimestamp = Long.MIN_VALUE;
+    boolean ordered = true;
+    for (final var record : new DataLogReader(m_directory.resolve(kFileName).toString())) {
+      if (record.isStart()) {
+        final var start = record.getStartData();
+        names.put(start.entry, start.name);
+        continue;
+      }
+      if (record.isControl()) {
+        continue;
+      }
+
+      final var name = names.get(record.getEntry());
+      if ("Drive/Pose".equals(name)) {
+        ordered &= record.getTimestamp() >= lastTimestamp;
+        lastTimestamp = record.getTimestamp();
+        poses.add(record.getDoubleArray());
+      } else if ("Intake/HasCube".equals(name)) {
+        hasCube.add(record.getBoolean());
+      } else if ("Commands".equals(name)) {
+        commands.add(record.getString());
+      }
+    }
+
+    assertEquals(kLoops, poses.size(), "Poses read back");
+    for (int loop = 0; loop < kLoops; ++loop) {
+      assertArrayEquals(poseAt(loop), poses.get(loop), 0.0);
+      assertEquals(loop >= kLoops / 2, hasCube.get(loop));
+    }
+    assertTrue(ordered, "Pose timestamps in order");
+    assertEquals(List.of("Score start", "Score end"), commands);
+  }
+}
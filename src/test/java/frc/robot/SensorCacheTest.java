@@ -0,0 +1,109 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.subsystems.Elevator;
+import frc.robot.subsystems.ElevatorIOSim;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Counts the sensor reads of a subsystem loop, with and without the cache. */
+class SensorCacheTest {
+
+  // Test parameters
+  private static final int kLoops = 50;
+
+  /** Simulated elevator counting its sensor reads */
+  private static class CountingElevatorIO extends ElevatorIOSim {
+    private int m_positionReads = 0;
+    private int m_switchReads = 0;
+
+    @Override
+    public double getPosition() {
+      ++m_positionReads;
+      return super.getPosition();
+    }
+
+    @Override
+    public boolean isDown() {
+      ++m_switchReads;
+      return super.isDown();
+    }
+  }
+
+  @BeforeEach
+  void setup() {
+    assertTrue(HAL.initialize(500, 0));
+  }
+
+  @AfterEach
+  void shutdown() {
+    setEnabled(true);
+    CommandScheduler.getInstance().unregisterAllSubsystems();
+  }
+
+  private static void setEnabled(boolean enabled) {
+    NetworkTableInstance.getDefault()
+        .getTable("SensorCache")
+        .getBooleanTopic("Enabled")
+        .getEntry(true)
+        .set(enabled);
+  }
+
+  /**
+   * Runs the elevator loop, refreshing the cache first like the robot does
+   *
+   * @param io counting elevator hardware
+   * @return sensor reads per loop
+   */
+  private static double readsPerLoop(CountingElevatorIO io) {
+    final var elevator = new Elevator(io);
+    io.m_positionReads = 0;
+    io.m_switchReads = 0;
+    for (int loop = 0; loop < kLoops; ++loop) {
+      SensorCache.getInstance().refresh();
+      elevator.periodic();
+    }
+    return (double) (io.m_positionReads + io.m_switchReads) / kLoops;
+  }
+
+  @Test
+  void sensorsAreReadOncePerLoop() {
+    setEnabled(false);
+    final double uncached = readsPerLoop(new CountingElevatorIO());
+    setEnabled(true);
+    final double cached = readsPerLoop(new CountingElevatorIO());
+
+    assertEquals(2.0, cached, 1e-9);
+    assertTrue(uncached > cached);
+  }
+
+  @Test
+  void everyGetReadsWhenDisabled() {
+    final int[] reads = {0};
+    final var value = SensorCache.getInstance().addDouble(() -> ++reads[0]);
+
+    setEnabled(false);
+    SensorCache.getInstance().refresh();
+    reads[0] = 0;
+    value.get();
+    value.get();
+    assertEquals(2, reads[0]);
+
+    setEnabled(true);
+    SensorCache.getInstance().refresh();
+    reads[0] = 0;
+    value.get();
+    value.get();
+    assertEquals(0, reads[0]);
+  }
+}
@@ -0,0 +1,117 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.networktables.BooleanSubscriber;
+import edu.wpi.first.networktables.DoubleSubscriber;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import frc.robot.Telemetry.Rate;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Counts the NetworkTables writes of the dashboard values that used to be written every loop: the
+ * two SmartDashboard booleans and the field pose at the high rate, the two vitals entries of the
+ * four swerve modules at the low rate.
+ */
+class TelemetryTest {
+
+  // Test parameters, every value changes every loop
+  private static final double kLoopPeriod = 0.02;
+  private static final int kLoops = 500;
+  private static final int kHighRateBooleans = 2;
+  private static final int kModules = 4;
+  private static final String kTable = "TelemetryTest";
+
+  private final List<BooleanSubscriber> m_booleanSubscribers = new ArrayList<>();
+  private final List<DoubleSubscriber> m_doubleSubscribers = new ArrayList<>();
+
+  @BeforeEach
+  void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming();
+  }
+
+  @AfterEach
+  void shutdown() {
+    m_booleanSubscribers.forEach(BooleanSubscriber::close);
+    m_doubleSubscribers.forEach(DoubleSubscriber::close);
+    SimHooks.resumeTiming();
+  }
+
+  private Telemetry.BooleanSignal addBoolean(String key, Rate rate) {
+    final var subscriber =
+        NetworkTableInstance.getDefault()
+            .getTable("SmartDashboard")
+            .getBooleanTopic(kTable + "/" + key)
+            .subscribe(false, PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(1024));
+    m_booleanSubscribers.add(subscriber);
+    return Telemetry.getInstance().addBoolean(kTable + "/" + key, rate);
+  }
+
+  private Telemetry.DoubleSignal addDouble(String key, Rate rate) {
+    final var subscriber =
+        NetworkTableInstance.getDefault()
+            .getTable("SmartDashboard")
+            .getDoubleTopic(kTable + "/" + key)
+            .subscribe(0.0, PubSubOption.keepDuplicates(true), PubSubOption.pollStorage(1024));
+    m_doubleSubscribers.add(subscriber);
+    return Telemetry.getInstance().addDouble(kTable + "/" + key, rate);
+  }
+
+  @Test
+  void loopWritesAreBatched() {
+    final var highBooleans = new ArrayList<Telemetry.BooleanSignal>();
+    for (int i = 0; i < kHighRateBooleans; ++i) {
+      highBooleans.add(this.addBoolean("High " + i, Rate.High));
+    }
+    final var moduleAngles = new ArrayList<Telemetry.DoubleSignal>();
+    final var moduleOks = new ArrayList<Telemetry.BooleanSignal>();
+    for (int i = 0; i < kModules; ++i) {
+      moduleAngles.add(this.addDouble("Abs Ch " + i, Rate.Low));
+      moduleOks.add(this.addBoolean("Enc OK " + i, Rate.Low));
+    }
+    final int[] fieldUpdates = {0};
+    Telemetry.getInstance().addPeriodic(() -> ++fieldUpdates[0], Rate.High);
+
+    for (int loop = 0; loop < kLoops; ++loop) {
+      SimHooks.stepTiming(kLoopPeriod);
+      final boolean toggle = loop % 2 == 0;
+      highBooleans.forEach(signal -> signal.set(toggle));
+      for (int i = 0; i < kModules; ++i) {
+        moduleAngles.get(i).set(loop + 0.1 * i);
+        moduleOks.get(i).set(toggle);
+      }
+      Telemetry.getInstance().periodic();
+    }
+
+    int writes = fieldUpdates[0];
+    for (final var subscriber : m_booleanSubscribers) {
+      writes += subscriber.readQueue().length;
+    }
+    for (final var subscriber : m_doubleSubscribers) {
+      writes += subscriber.readQueue().length;
+    }
+
+    // Each value was written every loop before
+    final int loopWrites = (kHighRateBooleans + 1 + 2 * kModules) * kLoops;
+    final double duration = kLoops * kLoopPeriod;
+    final double expectedWrites =
+        duration
+            * ((kHighRateBooleans + 1) / Telemetry.kHighRatePeriod
+                + 2 * kModules / Telemetry.kLowRatePeriod);
+    assertEquals(expectedWrites, writes, 0.05 * expectedWrites);
+    assertTrue(writes < 0.1 * loopWrites);
+  }
+}
@@ -0,0 +1,58 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.sim;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.LinkedHashMap;
+import org.junit.jupiter.api.Test;
+
+/** Passes results through the worker output line the harness reads back. */
+class AutoSimResultTest {
+
+  @Test
+  void resultSurvivesTheWorkerOutput() {
+    final var idleTimes = new LinkedHashMap<String, Double>();
+    idleTimes.put("Elevator", 3.25);
+    idleTimes.put("Intake", 11.5);
+    final var result =
+        new AutoSimResult(
+            "place cone move back",
+            "Red",
+            3,
+            true,
+            9.34,
+            0.0421,
+            1.25,
+            0.0312,
+            0.0874,
+            6.1,
+            4.75,
+            1.3512,
+            idleTimes);
+
+    final var parsed = AutoSimResult.parse(result.format());
+
+    assertEquals(result.m_auto, parsed.m_auto);
+    assertEquals(result.m_alliance, parsed.m_alliance);
+    assertEquals(result.m_seed, parsed.m_seed);
+    assertEquals(result.m_finished, parsed.m_finished);
+    assertEquals(result.m_duration, parsed.m_duration, 1e-3);
+    assertEquals(result.m_poseError, parsed.m_poseError, 1e-4);
+    assertEquals(result.m_headingError, parsed.m_headingError, 1e-3);
+    assertEquals(result.m_trackingError, parsed.m_trackingError, 1e-4);
+    assertEquals(result.m_trackingMaxError, parsed.m_trackingMaxError, 1e-4);
+    assertEquals(result.m_finalX, parsed.m_finalX, 1e-4);
+    assertEquals(result.m_finalY, parsed.m_finalY, 1e-4);
+    assertEquals(result.m_elevatorPeak, parsed.m_elevatorPeak, 1e-4);
+    assertEquals(idleTimes, parsed.m_idleTimes);
+  }
+
+  @Test
+  void otherOutputLinesAreIgnored() {
+    assertNull(AutoSimResult.parse("********** Robot program starting **********"));
+  }
+}
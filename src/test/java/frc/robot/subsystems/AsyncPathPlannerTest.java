@@ -0,0 +1,110 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.pathplanner.lib.PathConstraints;
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPoint;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.Test;
+
+/** Times trajectory requests against the robot loop while a cache warm-up is running. */
+class AsyncPathPlannerTest {
+
+  // Test parameters
+  private static final double kLoopPeriod = 0.02;
+  private static final int kWarmUpPaths = 36;
+  private static final PathConstraints kConstraints = new PathConstraints(4, 3);
+
+  private static List<PathPoint> scoringPath(double startX) {
+    final var holonomicRotation = Rotation2d.fromDegrees(0);
+    return List.of(
+        new PathPoint(
+            new Translation2d(startX, 4.75), Rotation2d.fromDegrees(180), holonomicRotation),
+        new PathPoint(new Translation2d(5.5, 4.75), Rotation2d.fromDegrees(180), holonomicRotation),
+        new PathPoint(new Translation2d(2.1, 2.0), Rotation2d.fromDegrees(270), holonomicRotation));
+  }
+
+  @Test
+  void requestsReturnWithinTheLoop() {
+    final var planner = new AsyncPathPlanner();
+
+    // Each request only hands the points to the worker
+    final var futures = new ArrayList<CompletableFuture<PathPlannerTrajectory>>();
+    double slowest = 0.0;
+    for (int i = 0; i < 10; ++i) {
+      final long start = System.nanoTime();
+      futures.add(planner.generate(kConstraints, scoringPath(8.0 + 0.1 * i)));
+      slowest = Math.max(slowest, (System.nanoTime() - start) * 1e-9);
+    }
+    futures.forEach(CompletableFuture::join);
+
+    assertTrue(slowest < 0.1 * kLoopPeriod, "Slowest request " + slowest + " s");
+  }
+
+  @Test
+  void warmUpDoesNotDelayOnTheFlyRequests() {
+    final var planner = new AsyncPathPlanner();
+
+    final long warmUpStart = System.nanoTime();
+    final var warmUp = new ArrayList<CompletableFuture<PathPlannerTrajectory>>();
+    for (int i = 0; i < kWarmUpPaths; ++i) {
+      warmUp.add(planner.generateInBackground(kConstraints, scoringPath(8.0 + 0.1 * i)));
+    }
+
+    final long requestStart = System.nanoTime();
+    planner.generate(kConstraints, scoringPath(10.0)).join();
+    final double onTheFly = (System.nanoTime() - requestStart) * 1e-9;
+
+    warmUp.forEach(CompletableFuture::join);
+    final double warmUpTotal = (System.nanoTime() - warmUpStart) * 1e-9;
+
+    assertTrue(
+        onTheFly < 0.25 * warmUpTotal,
+        String.format(
+            "On-the-fly %.4f s, warm-up of %d paths %.4f s", onTheFly, kWarmUpPaths, warmUpTotal));
+  }
+
+  @Test
+  void skipAheadStartsAtTheElapsedTime() {
+    final var trajectory = PathPlanner.generatePath(kConstraints, scoringPath(8.0));
+    final double totalTime = trajectory.getTotalTimeSeconds();
+    final var expectedStart = trajectory.sample(0.1).poseMeters.getTranslation();
+
+    final var skipped = AsyncPathPlanner.skipAhead(trajectory, 0.1);
+
+    assertEquals(totalTime - 0.1, skipped.getTotalTimeSeconds(), 1e-9);
+    assertEquals(0.0, skipped.getInitialState().timeSeconds);
+    final var start = skipped.getInitialState().poseMeters.getTranslation();
+    assertEquals(0.0, start.getDistance(expectedStart), 1e-9);
+  }
+
+  @Test
+  void skipAheadLeavesTheTrajectoryUnchanged() {
+    final var trajectory = PathPlanner.generatePath(kConstraints, scoringPath(8.0));
+    final double totalTime = trajectory.getTotalTimeSeconds();
+    final double[] expectedTimes =
+        trajectory.getStates().stream().mapToDouble(state -> state.timeSeconds).toArray();
+
+    AsyncPathPlanner.skipAhead(trajectory, 0.1);
+    AsyncPathPlanner.skipAhead(trajectory, 0.0001);
+    final var skipped = AsyncPathPlanner.skipAhead(trajectory, 0.1);
+
+    assertEquals(totalTime, trajectory.getTotalTimeSeconds(), 1e-9);
+    assertArrayEquals(
+        expectedTimes,
+        trajectory.getStates().stream().mapToDouble(state -> state.timeSeconds).toArray());
+    assertEquals(totalTime - 0.1, skipped.getTotalTimeSeconds(), 1e-9);
+  }
+}
@@ -0,0 +1,71 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.SensorCache;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/** Runs the elevator subsystem and its commands headless, on the simulated hardware. */
+class ElevatorSimTest {
+
+  // Test parameters, the roboRIO profile reaches the third level in about 1.7 s
+  private static final double kDuration = 4.0;
+  private static final double kThirdHeight = 1.35;
+  private static final double kSettleBand = 0.02;
+  private static final double kMaxSettlingTime = 2.5;
+  private static final double kMaxOvershoot = 0.03;
+
+  @BeforeEach
+  void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimHooks.pauseTiming();
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+  }
+
+  @AfterEach
+  void shutdown() {
+    CommandScheduler.getInstance().cancelAll();
+    CommandScheduler.getInstance().unregisterAllSubsystems();
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+    SimHooks.resumeTiming();
+  }
+
+  @Test
+  void extendsToThirdWithoutOvershoot() {
+    final var elevator = new Elevator(new ElevatorIOSim());
+    elevator.extendTo(Elevator.Level.Third).schedule();
+
+    // The elevator keeps holding the target once the command ends
+    double settlingTime = 0.0;
+    double maxHeight = 0.0;
+    for (double time = 0.0; time < kDuration; time += TimedRobot.kDefaultPeriod) {
+      DriverStation.refreshData();
+      SensorCache.getInstance().refresh();
+      CommandScheduler.getInstance().run();
+      SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+
+      final double height = elevator.getHeight();
+      maxHeight = Math.max(maxHeight, height);
+      if (Math.abs(height - kThirdHeight) > kSettleBand) {
+        settlingTime = time + TimedRobot.kDefaultPeriod;
+      }
+    }
+
+    assertTrue(settlingTime < kMaxSettlingTime, "Settling time " + settlingTime);
+    assertTrue(maxHeight - kThirdHeight < kMaxOvershoot, "Overshoot " + (maxHeight - kThirdHeight));
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.wpilibj.DriverStation;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj.simulation.DriverStationSim;
+import edu.wpi.first.wpilibj.simulation.SimHooks;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.SensorCache;
+import frc.robot.sim.SimNoise;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+/**
+ * Moves the intake from Pickup to Launch headless, on the simulated arm, with each pivot control.
+ *
+ * <p>The simulated arm assumes the 60:1 pivot gearing, which is not confirmed on the robot, so this
+ * checks the controls against the model only.
+ */
+class IntakeSimTest {
+
+  // Test parameters
+  private static final double kPickupTime = 1.5;
+  private static final double kDuration = 2.0;
+  private static final double kMaxSettlingTime = 1.0;
+
+  @BeforeEach
+  void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimNoise.getInstance().configure(0, 0.0);
+    SimHooks.pauseTiming();
+    DriverStationSim.setEnabled(true);
+    DriverStationSim.notifyNewData();
+  }
+
+  @AfterEach
+  void shutdown() {
+    CommandScheduler.getInstance().cancelAll();
+    CommandScheduler.getInstance().unregisterAllSubsystems();
+    DriverStationSim.setEnabled(false);
+    DriverStationSim.notifyNewData();
+    SimHooks.resumeTiming();
+  }
+
+  /**
+   * Runs the robot loop for a time
+   *
+   * @param duration simulated time (s)
+   */
+  private static void run(double duration) {
+    for (double time = 0.0; time < duration; time += TimedRobot.kDefaultPeriod) {
+      step();
+    }
+  }
+
+  /** Runs one robot loop */
+  private static void step() {
+    DriverStation.refreshData();
+    SensorCache.getInstance().refresh();
+    CommandScheduler.getInstance().run();
+    SimHooks.stepTiming(TimedRobot.kDefaultPeriod);
+  }
+
+  @ParameterizedTest
+  @EnumSource(Intake.Control.class)
+  void launchSettles(Intake.Control control) {
+    final var intake = new Intake(new IntakeIOSim());
+    intake.setControl(control);
+    intake.setAngle(Intake.Position.Pickup).schedule();
+    run(kPickupTime);
+    assertTrue(intake.isSettled(), "Intake did not settle at Pickup");
+
+    intake.setAngle(Intake.Position.Launch).schedule();
+    double settlingTime = 0.0;
+    for (double time = 0.0; time < kDuration; time += TimedRobot.kDefaultPeriod) {
+      step();
+      if (!intake.isSettled()) {
+        settlingTime = time + TimedRobot.kDefaultPeriod;
+      }
+    }
+
+    assertTrue(intake.onTarget());
+    assertTrue(settlingTime < kMaxSettlingTime, control + " settling time " + settlingTime);
+  }
+}
@@ -0,0 +1,140 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+import java.lang.management.ManagementFactory;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Counts the bytes a whole odometry update allocates once the robot has been driving for a while.
+ *
+ * <p>The update is not allocation free, the WPILib estimator and the published snapshot allocate on
+ * every update. The budget is loose and only catches gross regressions.
+ */
+class OdometryAllocationTest {
+
+  // Test parameters, the turn encoder resolution is one step per sample
+  private static final int kWarmupUpdates = 20000;
+  private static final int kMeasuredUpdates = 10000;
+  private static final int kMeasuredRounds = 5;
+  private static final long kMaxBytesPerUpdate = 8192;
+  private static final double kStepRad = 2.0 * Math.PI / 28000;
+  private static final double kSpeed = 3.0;
+  private static final double kSampleAge = 0.0025;
+
+  /** Module driving and turning one encoder step every sample, as the WCP module samples */
+  private static class TurningModule implements SwerveModule {
+    private int m_step = 0;
+    private double m_distance = 0.0;
+
+    @Override
+    public SwerveModuleState getState() {
+      return new SwerveModuleState(kSpeed, new Rotation2d(m_step * kStepRad));
+    }
+
+    @Override
+    public SwerveModulePosition getPosition() {
+      return new SwerveModulePosition(m_distance, new Rotation2d(m_step * kStepRad));
+    }
+
+    @Override
+    public void sample(SwerveModuleSample sample, double readTimestamp) {
+      ++m_step;
+      m_distance += kSpeed * OdometryThread.kPeriod;
+      sample.m_position.distanceMeters = m_distance;
+      sample.m_position.angle = new Rotation2d(m_step * kStepRad);
+      sample.m_state.speedMetersPerSecond = kSpeed;
+      sample.m_state.angle = sample.m_position.angle;
+      sample.m_turnRate = kStepRad / OdometryThread.kPeriod;
+      sample.m_timestamp = readTimestamp - kSampleAge;
+    }
+
+    @Override
+    public void setDesiredState(SwerveModuleState desiredState) {}
+
+    @Override
+    public void setDriveVoltage(double driveVolts, Rotation2d angle) {}
+
+    @Override
+    public void periodic() {}
+  }
+
+  /** Gyro turning one step every read */
+  private static class TurningGyro implements Gyro {
+    private int m_step = 0;
+
+    @Override
+    public double getAngle() {
+      return -Math.toDegrees(++m_step * kStepRad);
+    }
+
+    @Override
+    public double getRate() {
+      return -Math.toDegrees(kStepRad / OdometryThread.kPeriod);
+    }
+
+    @Override
+    public void calibrate() {}
+
+    @Override
+    public void reset() {}
+
+    @Override
+    public void close() {}
+  }
+
+  private static long allocatedBytes() {
+    return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+        .getThreadAllocatedBytes(Thread.currentThread().getId());
+  }
+
+  @Test
+  void steadyStateUpdateStaysWithinBudget() {
+    final var modules = new SwerveModule[4];
+    for (int i = 0; i < modules.length; ++i) {
+      modules[i] = new TurningModule();
+    }
+    final var kinematics =
+        new SwerveDriveKinematics(
+            new Translation2d(0.3, 0.3),
+            new Translation2d(0.3, -0.3),
+            new Translation2d(-0.3, 0.3),
+            new Translation2d(-0.3, -0.3));
+    final var odometry = new OdometryThread(modules, new TurningGyro(), kinematics);
+    odometry.setGyroLatency(0.002);
+
+    // Warming up also fills the estimator and odometry histories
+    double timestamp = 0.0;
+    for (int i = 0; i < kWarmupUpdates; ++i) {
+      timestamp += OdometryThread.kPeriod;
+      odometry.update(timestamp);
+    }
+
+    // Reading the counter allocates, the bytes of one read are measured and removed every round.
+    // The counter is off by a few hundred bytes now and then, the quietest round is kept.
+    long allocated = Long.MAX_VALUE;
+    for (int round = 0; round < kMeasuredRounds; ++round) {
+      final long start = allocatedBytes();
+      final long before = allocatedBytes();
+      for (int i = 0; i < kMeasuredUpdates; ++i) {
+        timestamp += OdometryThread.kPeriod;
+        odometry.update(timestamp);
+      }
+      final long after = allocatedBytes();
+      allocated = Math.min(allocated, (after - before) - (before - start));
+    }
+
+    final long perUpdate = allocated / kMeasuredUpdates;
+    assertTrue(perUpdate <= kMaxBytesPerUpdate, "Bytes allocated per update " + perUpdate);
+  }
+}
@@ -0,0 +1,177 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Compares the odometry integration error at the odometry thread rate and at the scheduler rate,
+ * on an S-curve driven while spinning.
+ *
+ * <p>The simulated sensors are exact, the error only comes from integrating the module positions
+ * at a finite rate: the estimator applies each module displacement along the angle the module has
+ * at the end of the interval, while the module angles sweep during it.
+ */
+class OdometryRateTest {
+
+  // S-curve, the direction of travel swings back and forth while the robot spins
+  private static final double kSpeed = 3.0;
+  private static final double kSwingRad = Math.toRadians(80.0);
+  private static final double kSwingPeriod = 2.0;
+  private static final double kSpinRate = 3.0;
+  private static final double kDuration = 4.0;
+
+  // Simulation parameters, both odometry periods are multiples of the simulation step
+  private static final double kSimPeriod = 0.0005;
+  private static final double kSchedulerPeriod = 0.02;
+  private static final double kModuleOffset = 0.3;
+
+  private static final SwerveDriveKinematics kKinematics =
+      new SwerveDriveKinematics(
+          new Translation2d(kModuleOffset, kModuleOffset),
+          new Translation2d(kModuleOffset, -kModuleOffset),
+          new Translation2d(-kModuleOffset, kModuleOffset),
+          new Translation2d(-kModuleOffset, -kModuleOffset));
+
+  /** Exactly measured module, moved by the simulated robot */
+  private static class ExactModule implements SwerveModule {
+    private double m_distance = 0.0;
+    private double m_speed = 0.0;
+    private Rotation2d m_angle = new Rotation2d();
+
+    @Override
+    public SwerveModuleState getState() {
+      return new SwerveModuleState(m_speed, m_angle);
+    }
+
+    @Override
+    public SwerveModulePosition getPosition() {
+      return new SwerveModulePosition(m_distance, m_angle);
+    }
+
+    @Override
+    public void setDesiredState(SwerveModuleState desiredState) {}
+
+    @Override
+    public void setDriveVoltage(double driveVolts, Rotation2d angle) {}
+
+    @Override
+    public void periodic() {}
+  }
+
+  /** Exactly measured gyro, moved by the simulated robot */
+  private static class ExactGyro implements Gyro {
+    private double m_heading = 0.0;
+
+    @Override
+    public double getAngle() {
+      return -Math.toDegrees(m_heading);
+    }
+
+    @Override
+    public double getRate() {
+      return -Math.toDegrees(kSpinRate);
+    }
+
+    @Override
+    public void calibrate() {}
+
+    @Override
+    public void reset() {}
+
+    @Override
+    public void close() {}
+  }
+
+  /**
+   * Gets the robot relative speeds along the S-curve
+   *
+   * @param time time since the start (s)
+   * @param heading robot heading (rad)
+   * @return robot relative chassis speeds
+   */
+  private static ChassisSpeeds speedsAt(double time, double heading) {
+    final double direction = kSwingRad * Math.sin(2.0 * Math.PI * time / kSwingPeriod);
+    return ChassisSpeeds.fromFieldRelativeSpeeds(
+        kSpeed * Math.cos(direction),
+        kSpeed * Math.sin(direction),
+        kSpinRate,
+        new Rotation2d(heading));
+  }
+
+  /**
+   * Drives the S-curve and updates the odometry at the given period
+   *
+   * @param period odometry update period (s)
+   * @return final distance between the estimated and the simulated positions (m)
+   */
+  private static double integrationError(double period) {
+    final var modules = new ExactModule[4];
+    for (int i = 0; i < modules.length; ++i) {
+      modules[i] = new ExactModule();
+    }
+    final var gyro = new ExactGyro();
+    final var odometry = new OdometryThread(modules, gyro, kKinematics);
+    final int stepsPerUpdate = (int) Math.round(period / kSimPeriod);
+
+    double x = 0.0;
+    double y = 0.0;
+    double heading = 0.0;
+    double time = 0.0;
+    final int steps = (int) Math.round(kDuration / kSimPeriod);
+    for (int step = 1; step <= steps; ++step) {
+      // Integrate with the speeds at the middle of the step
+      final double midHeading = heading + 0.5 * kSpinRate * kSimPeriod;
+      final var midSpeeds = speedsAt(time + 0.5 * kSimPeriod, midHeading);
+      final var midStates = kKinematics.toSwerveModuleStates(midSpeeds);
+      final var fieldVelocity =
+          new Translation2d(midSpeeds.vxMetersPerSecond, midSpeeds.vyMetersPerSecond)
+              .rotateBy(new Rotation2d(midHeading));
+      x += fieldVelocity.getX() * kSimPeriod;
+      y += fieldVelocity.getY() * kSimPeriod;
+      heading += kSpinRate * kSimPeriod;
+      time += kSimPeriod;
+
+      // Sensors measure the state at the end of the step
+      final var states = kKinematics.toSwerveModuleStates(speedsAt(time, heading));
+      for (int i = 0; i < modules.length; ++i) {
+        modules[i].m_distance += midStates[i].speedMetersPerSecond * kSimPeriod;
+        modules[i].m_speed = states[i].speedMetersPerSecond;
+        modules[i].m_angle = states[i].angle;
+      }
+      gyro.m_heading = heading;
+
+      if (step % stepsPerUpdate == 0) {
+        odometry.update(time);
+      }
+    }
+
+    return odometry.getPose().getTranslation().getDistance(new Translation2d(x, y));
+  }
+
+  @Test
+  void threadRateIntegratesTheSCurveBetter() {
+    final double threadError = integrationError(OdometryThread.kPeriod);
+    final double schedulerError = integrationError(kSchedulerPeriod);
+
+    assertTrue(
+        threadError < 0.5 * schedulerError,
+        String.format(
+            "Error at %.0f Hz %.4f m, at %.0f Hz %.4f m",
+            1.0 / OdometryThread.kPeriod,
+            threadError,
+            1.0 / kSchedulerPeriod,
+            schedulerError));
+  }
+}
@@ -0,0 +1,108 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+import com.pathplanner.lib.PathPlanner;
+import com.pathplanner.lib.PathPlannerTrajectory;
+import com.pathplanner.lib.PathPlannerTrajectory.PathPlannerState;
+import edu.wpi.first.math.MathUtil;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.wpilibj.DriverStation.Alliance;
+import edu.wpi.first.wpilibj.Filesystem;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/** Packs every deployed path, then compares the mapped trajectories with the generated ones. */
+class PackedTrajectoryTest {
+
+  // Test parameters
+  private static final double kSamplePeriod = 0.005;
+  private static final double kTolerance = 1e-6;
+
+  @TempDir Path m_directory;
+
+  private static List<String> deployedPaths() {
+    final var names = new ArrayList<String>();
+    final var files = new File(Filesystem.getDeployDirectory(), "pathplanner").listFiles();
+    for (final var file : files) {
+      final var fileName = file.getName();
+      if (fileName.endsWith(AutonomousAssets.kPathExtension)) {
+        names.add(
+            fileName.substring(0, fileName.length() - AutonomousAssets.kPathExtension.length()));
+      }
+    }
+    return names;
+  }
+
+  private File pack(String name) throws IOException {
+    final var file = m_directory.resolve(name + PackedTrajectory.kExtension).toFile();
+    PackedTrajectory.write(
+        PathPlanner.loadPath(name, AutonomousAssets.kDeployedConstraints),
+        AutonomousAssets.kDeployedConstraints,
+        file);
+    return file;
+  }
+
+  private static void assertAngle(Rotation2d expected, Rotation2d actual, String message) {
+    assertEquals(
+        0.0,
+        MathUtil.angleModulus(expected.getRadians() - actual.getRadians()),
+        kTolerance,
+        message);
+  }
+
+  private static void assertState(PathPlannerState expected, PathPlannerState actual) {
+    final var message = "At " + expected.timeSeconds + " s";
+    assertEquals(expected.poseMeters.getX(), actual.poseMeters.getX(), kTolerance, message);
+    assertEquals(expected.poseMeters.getY(), actual.poseMeters.getY(), kTolerance, message);
+    assertAngle(expected.poseMeters.getRotation(), actual.poseMeters.getRotation(), message);
+    assertAngle(expected.holonomicRotation, actual.holonomicRotation, message);
+    assertEquals(
+        expected.velocityMetersPerSecond, actual.velocityMetersPerSecond, kTolerance, message);
+    assertEquals(
+        expected.accelerationMetersPerSecondSq,
+        actual.accelerationMetersPerSecondSq,
+        kTolerance,
+        message);
+    assertEquals(expected.curvatureRadPerMeter, actual.curvatureRadPerMeter, kTolerance, message);
+    assertEquals(
+        expected.holonomicAngularVelocityRadPerSec,
+        actual.holonomicAngularVelocityRadPerSec,
+        kTolerance,
+        message);
+  }
+
+  @Test
+  void mappedTrajectoriesSampleLikeTheGeneratedOnes() throws IOException {
+    final var names = deployedPaths();
+    assertFalse(names.isEmpty(), "Deployed paths");
+
+    for (final var name : names) {
+      final var generated = PathPlanner.loadPath(name, AutonomousAssets.kDeployedConstraints);
+      final var packed = PackedTrajectory.load(this.pack(name));
+      assertEquals(generated.getStates().size(), packed.getLength(), name);
+
+      for (final var alliance : List.of(Alliance.Blue, Alliance.Red)) {
+        final var expected =
+            PathPlannerTrajectory.transformTrajectoryForAlliance(generated, alliance);
+        final var mapped = packed.asTrajectory(alliance == Alliance.Red);
+        assertEquals(expected.getTotalTimeSeconds(), mapped.getTotalTimeSeconds(), kTolerance);
+        assertState(expected.getInitialState(), mapped.getInitialState());
+        assertState(expected.getEndState(), mapped.getEndState());
+        for (double time = 0.0; time < expected.getTotalTimeSeconds(); time += kSamplePeriod) {
+          assertState(expected.sample(time), (PathPlannerState) mapped.sample(time));
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,93 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import edu.wpi.first.hal.HAL;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.kinematics.ChassisSpeeds;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.wpilibj.TimedRobot;
+import edu.wpi.first.wpilibj2.command.CommandScheduler;
+import frc.robot.sim.SimNoise;
+import frc.robot.subsystems.SimSwerveModule.SimSwerveModuleFactory;
+import frc.robot.subsystems.Vision.Vision;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Drives the simulated drive train along the field x axis while spinning, the robot should stay on
+ * the y it started on.
+ *
+ * <p>The module states are held for a whole loop while the robot rotates, so instantaneous speeds
+ * skew the robot towards the rotation by about half a loop of rotation. The simulated modules also
+ * lag their steering setpoints, which skews both runs alike, so the discretized speeds are
+ * compared to the instantaneous ones on the ground truth pose.
+ */
+class SpinDriftTest {
+
+  // Test parameters, field relative translation (m/s) while rotating (deg/s) for a time (s), the
+  // module speeds stay below the desaturation limit
+  private static final double kSpeed = 1.5;
+  private static final double kSpeedRot = 180.0;
+  private static final double kTime = 2.0;
+  private static final double kPeriod = TimedRobot.kDefaultPeriod;
+  // Half a loop of rotation skews the path by about 9 cm over 3 m
+  private static final double kMinDriftReduction = 0.05;
+  private static final double kDistanceTolerance = 0.15;
+
+  @BeforeEach
+  void setup() {
+    assertTrue(HAL.initialize(500, 0));
+    SimNoise.getInstance().configure(0, 0.0);
+  }
+
+  @AfterEach
+  void shutdown() {
+    CommandScheduler.getInstance().unregisterAllSubsystems();
+  }
+
+  /**
+   * Drives the test translation while spinning
+   *
+   * @param discretize drive through {@link DriveTrain#drive(ChassisSpeeds)}, else command the
+   *     instantaneous module states
+   * @return final simulated pose
+   */
+  private static Pose2d spin(boolean discretize) {
+    final var moduleFactory = new SimSwerveModuleFactory();
+    final var driveTrain = new DriveTrain(new Vision(), moduleFactory, new SimGyro());
+    final var kinematics = new SwerveDriveKinematics(moduleFactory.getLocations());
+    final double omega = Math.toRadians(kSpeedRot);
+
+    for (int loop = 0; loop < Math.round(kTime / kPeriod); ++loop) {
+      final var speeds =
+          ChassisSpeeds.fromFieldRelativeSpeeds(
+              kSpeed, 0.0, omega, driveTrain.getSimulatedPose().getRotation());
+      if (discretize) {
+        driveTrain.drive(speeds);
+      } else {
+        driveTrain.drive(kinematics.toSwerveModuleStates(speeds));
+      }
+      driveTrain.simulationPeriodic();
+    }
+    return driveTrain.getSimulatedPose();
+  }
+
+  @Test
+  void discretizedSpeedsDriftLess() {
+    final var instantaneous = spin(false);
+    final var discretized = spin(true);
+
+    assertTrue(
+        instantaneous.getY() - discretized.getY() > kMinDriftReduction,
+        "Lateral drift " + instantaneous.getY() + " m instantaneous, " + discretized.getY() + " m");
+    assertTrue(Math.abs(discretized.getY()) < Math.abs(instantaneous.getY()));
+    assertEquals(kSpeed * kTime, discretized.getX(), kDistanceTolerance * kSpeed * kTime);
+  }
+}
@@ -0,0 +1,154 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.Vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import edu.wpi.first.math.VecBuilder;
+import edu.wpi.first.math.geometry.Pose2d;
+import edu.wpi.first.math.geometry.Rotation2d;
+import edu.wpi.first.math.geometry.Translation2d;
+import edu.wpi.first.math.kinematics.SwerveDriveKinematics;
+import edu.wpi.first.math.kinematics.SwerveModulePosition;
+import edu.wpi.first.math.kinematics.SwerveModuleState;
+import edu.wpi.first.wpilibj.interfaces.Gyro;
+import frc.robot.subsystems.OdometryThread;
+import frc.robot.subsystems.PoseFusion;
+import frc.robot.subsystems.SwerveModule;
+import frc.robot.subsystems.SwerveModuleSample;
+import org.junit.jupiter.api.Test;
+
+/** Gates measurements of a robot driving at full speed, captured well before they are fused. */
+class VisionGateTest {
+
+  // Test parameters, the robot drives along the field x axis past the tags, frames are fused a
+  // capture latency after the robot moved on
+  private static final double kSpeed = 4.0;
+  private static final double kFramePeriod = 0.1;
+  private static final double kCaptureLatency = 0.2;
+  private static final double kStartX = 0.5;
+  private static final double kStartY = 4.0;
+
+  /** Module driving straight along the robot x axis */
+  private static class DrivingModule implements SwerveModule {
+    private double m_distance = 0.0;
+
+    @Override
+    public SwerveModuleState getState() {
+      return new SwerveModuleState(kSpeed, new Rotation2d());
+    }
+
+    @Override
+    public SwerveModulePosition getPosition() {
+      return new SwerveModulePosition(m_distance, new Rotation2d());
+    }
+
+    @Override
+    public void sample(SwerveModuleSample sample, double readTimestamp) {
+      m_distance = kSpeed * readTimestamp;
+      SwerveModule.super.sample(sample, readTimestamp);
+    }
+
+    @Override
+    public void setDesiredState(SwerveModuleState desiredState) {}
+
+    @Override
+    public void setDriveVoltage(double driveVolts, Rotation2d angle) {}
+
+    @Override
+    public void periodic() {}
+  }
+
+  /** Gyro of a robot that does not turn */
+  private static class StillGyro implements Gyro {
+    @Override
+    public double getAngle() {
+      return 0.0;
+    }
+
+    @Override
+    public double getRate() {
+      return 0.0;
+    }
+
+    @Override
+    public void calibrate() {}
+
+    @Override
+    public void reset() {}
+
+    @Override
+    public void close() {}
+  }
+
+  private static Pose2d poseAt(double time) {
+    return new Pose2d(kStartX + kSpeed * time, kStartY, new Rotation2d());
+  }
+
+  private static VisionMeasurement measurementAt(double capture) {
+    final var measurement = new VisionMeasurement();
+    measurement.m_timestamp = capture;
+    measurement.m_pose = poseAt(capture);
+    measurement.m_tagDistance = 1.0;
+    return measurement;
+  }
+
+  @Test
+  void lateMeasurementsOfAFastRobotAreAccepted() {
+    final var modules = new SwerveModule[4];
+    for (int i = 0; i < modules.length; ++i) {
+      modules[i] = new DrivingModule();
+    }
+    final var kinematics =
+        new SwerveDriveKinematics(
+            new Translation2d(0.3, 0.3),
+            new Translation2d(0.3, -0.3),
+            new Translation2d(-0.3, 0.3),
+            new Translation2d(-0.3, -0.3));
+    final var odometry = new OdometryThread(modules, new StillGyro(), kinematics);
+    final var fusion = new PoseFusion(odometry, new VisionGate(false));
+    fusion.setWeights(0.02, 0.05, 0.0, 0.0);
+
+    // Drive a while, the first frame is fresh and resets the estimate to the true pose
+    double timestamp = 0.0;
+    while (timestamp < kCaptureLatency + kFramePeriod) {
+      timestamp += OdometryThread.kPeriod;
+      odometry.update(timestamp);
+    }
+    assertEquals(VisionGate.Result.Accepted, fusion.add(measurementAt(timestamp)));
+
+    // Later frames reach the fusion after the robot moved on
+    double capture = timestamp;
+    for (int frame = 1; frame < 5; ++frame) {
+      capture += kFramePeriod;
+      while (timestamp < capture + kCaptureLatency) {
+        timestamp += OdometryThread.kPeriod;
+        odometry.update(timestamp);
+      }
+
+      // Gated against the latest estimate instead, the frame is an outlier
+      final var stdDevs = VecBuilder.fill(0.1, 0.1, 0.2);
+      assertEquals(
+          VisionGate.Result.Outlier,
+          new VisionGate(false).check(capture, poseAt(capture), odometry.getPose(), null, stdDevs),
+          "Frame " + frame + " against the latest estimate");
+
+      assertEquals(
+          VisionGate.Result.Accepted, fusion.add(measurementAt(capture)), "Frame " + frame);
+    }
+  }
+
+  @Test
+  void moveTheOdometryDidNotSeeIsAJump() {
+    final var gate = new VisionGate(false);
+    final var stdDevs = VecBuilder.fill(0.1, 0.1, 0.2);
+    final var stopped = poseAt(0.0);
+
+    assertEquals(VisionGate.Result.Accepted, gate.check(0.0, stopped, stopped, null, stdDevs));
+    final var moved = new Pose2d(stopped.getX() + 0.5, stopped.getY(), new Rotation2d());
+    assertEquals(
+        VisionGate.Result.Jump, gate.check(kFramePeriod, moved, stopped, stopped, stdDevs));
+  }
+}
@@ -0,0 +1,115 @@
+// Copyright (c) FIRST and other WPILib contributors.
+// Open Source Software; you can modify and/or share it under the terms of
+// the WPILib BSD license file in the root directory of this project.
+
+package frc.robot.subsystems.Vision;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import edu.wpi.first.networktables.DoubleArrayPublisher;
+import edu.wpi.first.networktables.NetworkTableInstance;
+import edu.wpi.first.networktables.PubSubOption;
+import java.util.ArrayList;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Publishes co-processor frames at 60 Hz into a local NetworkTables instance and drains them every
+ * 20 ms with stalls, slower than the vision thread drains them.
+ */
+class VisionIngestionTest {
+
+  // Test parameters, the robot loop stalls now and then so frames pile up between two reads
+  private static final long kFramePeriodMicros = 1_000_000 / 60;
+  private static final long kLoopPeriodMicros = 20_000;
+  private static final long kDurationMicros = 3_000_000;
+  private static final int kStallEveryLoops = 25;
+  private static final int kStallLoops = 5;
+
+  private NetworkTableInstance m_instance;
+  private DoubleArrayPublisher m_position;
+  private DoubleArrayPublisher m_rotation;
+
+  @BeforeEach
+  void setup() {
+    m_instance = NetworkTableInstance.create();
+    final var table = m_instance.getTable("SmartDashboard");
+    m_position =
+        table.getDoubleArrayTopic("position").publish(PubSubOption.keepDuplicates(true));
+    m_rotation =
+        table.getDoubleArrayTopic("rotation").publish(PubSubOption.keepDuplicates(true));
+  }
+
+  @AfterEach
+  void shutdown() {
+    m_position.close();
+    m_rotation.close();
+    m_instance.close();
+  }
+
+  @Test
+  void sixtyHertzBurstsAreNotDropped() {
+    final var io = new VisionIONetworkTables(m_instance);
+    final var processor = new VisionProcessor();
+    final var received = new ArrayList<VisionMeasurement>();
+
+    int published = 0;
+    long nextFrame = kFramePeriodMicros;
+    int loop = 0;
+    for (long now = kLoopPeriodMicros; now <= kDurationMicros; now += kLoopPeriodMicros, ++loop) {
+      // Frames captured since the previous loop, each one a new position along the field
+      for (; nextFrame <= now; nextFrame += kFramePeriodMicros) {
+        final double x = 2.0 + 0.01 * published;
+        m_position.set(new double[] {x, 4.0, 0.0}, nextFrame);
+        m_rotation.set(new double[] {0.0, 0.0, 0.0}, nextFrame);
+        ++published;
+      }
+
+      // Stalled loops don't read, the next read drains every frame received meanwhile
+      if (loop % kStallEveryLoops >= kStallEveryLoops - kStallLoops) {
+        continue;
+      }
+      processor.process(io.readPositions(), io.readRotations());
+      VisionMeasurement measurement;
+      while ((measurement = processor.pollMeasurement()) != null) {
+        received.add(measurement);
+      }
+    }
+    processor.process(io.readPositions(), io.readRotations());
+    VisionMeasurement measurement;
+    while ((measurement = processor.pollMeasurement()) != null) {
+      received.add(measurement);
+    }
+
+    assertEquals(published, received.size(), "Measurements received");
+    for (int i = 0; i < received.size(); ++i) {
+      // In order, each with the timestamp of its own frame
+      assertEquals(2.0 + 0.01 * i, received.get(i).m_pose.getX(), 1e-9);
+      if (i > 0) {
+        assertEquals(
+            kFramePeriodMicros * 1e-6,
+            received.get(i).m_timestamp - received.get(i - 1).m_timestamp,
+            1e-9);
+      }
+    }
+  }
+
+  @Test
+  void sampleTimestampIsTheCaptureTime() {
+    final var io = new VisionIONetworkTables(m_instance);
+    final var processor = new VisionProcessor();
+
+    m_position.set(new double[] {2.0, 4.0, 0.0}, 1_000_000);
+    m_rotation.set(new double[] {0.0, 0.0, 0.0}, 1_000_000);
+    // Malformed position
+    m_position.set(new double[] {2.1, 4.0, 0.0, 30.0, 2.0}, 1_050_000);
+    m_rotation.set(new double[] {0.0, 0.0, 0.0}, 1_050_000);
+    processor.process(io.readPositions(), io.readRotations());
+
+    final var measurement = processor.pollMeasurement();
+    assertEquals(1.0, measurement.m_timestamp, 1e-9);
+    assertNull(processor.pollMeasurement(), "Malformed measurement");
+  }
+}